@@ -0,0 +1,58 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Action;
+import org.openqa.selenium.interactions.Actions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and sending the composite action of ActionsClass.tryActions: move, click, type, double-click.
+ * The stub driver drops the sequences, so perform() measures the client side of the call only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ActionsBenchmark {
+
+    private StubDriver driver;
+    private WebElement usernameField;
+
+
+    @Setup
+    public void setup(){
+        driver = new StubDriver(1);
+        usernameField = new StubElement("input", "").attribute("id", "user-name");
+    }
+
+
+    @Benchmark
+    public Action build(){
+        return new Actions(driver)
+                .moveToElement(usernameField)
+                .click(usernameField).sendKeys(usernameField, "standard_user")
+                .doubleClick(usernameField)
+                .build();
+    }
+
+
+    @Benchmark
+    public Action buildAndPerform(){
+        Action action = build();
+        action.perform();
+        return action;
+    }
+}
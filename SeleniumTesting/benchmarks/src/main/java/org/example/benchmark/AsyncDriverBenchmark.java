@@ -0,0 +1,103 @@
+package org.example.benchmark;
+
+import org.example.async.AsyncDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the independent reads of the login form in LoginPageTest.testBasicLoginForm: looking the username
+ * field, the password field and the login button up and reading the title of the page.
+ *
+ * sequential issues the four commands one after the other, async through an {@link AsyncDriver}, which has them
+ * in flight together. Every command of the stub driver takes roundTripMillis, the time a command spends on the
+ * way to the browser driver and back; at 0 the benchmark measures what the AsyncDriver itself costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AsyncDriverBenchmark {
+
+    private static final By USERNAME = By.id("user-name");
+    private static final By PASSWORD = By.id("password");
+    private static final By LOGIN = By.id("login-button");
+
+    @Param({"0", "2"})
+    public int roundTripMillis;
+
+    private StubDriver driver;
+    private AsyncDriver async;
+
+
+    @Setup
+    public void setup(){
+        driver = new StubDriver(1){
+            @Override
+            public WebElement findElement(By by){
+                roundTrip();
+                return super.findElement(by);
+            }
+
+            @Override
+            public String getTitle(){
+                roundTrip();
+                return super.getTitle();
+            }
+        };
+        driver.element(USERNAME, new StubElement("input", ""))
+                .element(PASSWORD, new StubElement("input", ""))
+                .element(LOGIN, new StubElement("input", ""));
+        async = new AsyncDriver(driver);
+    }
+
+
+    @Benchmark
+    public void sequential(Blackhole blackhole){
+        blackhole.consume(driver.findElement(USERNAME));
+        blackhole.consume(driver.findElement(PASSWORD));
+        blackhole.consume(driver.findElement(LOGIN));
+        blackhole.consume(driver.getTitle());
+    }
+
+
+    @Benchmark
+    public void async(Blackhole blackhole){
+        CompletableFuture<WebElement> username = async.find(USERNAME).resolve();
+        CompletableFuture<WebElement> password = async.find(PASSWORD).resolve();
+        CompletableFuture<WebElement> login = async.find(LOGIN).resolve();
+        CompletableFuture<String> title = async.getTitle();
+        blackhole.consume(username.join());
+        blackhole.consume(password.join());
+        blackhole.consume(login.join());
+        blackhole.consume(title.join());
+    }
+
+
+    private void roundTrip(){
+        if (roundTripMillis <= 0){
+            return;
+        }
+        try {
+            Thread.sleep(roundTripMillis);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+}
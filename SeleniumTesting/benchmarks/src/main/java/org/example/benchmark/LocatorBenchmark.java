@@ -0,0 +1,58 @@
+package org.example.benchmark;
+
+import org.example.locator.ParsedLocator;
+import org.example.locator.XPathToCss;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the locators the tests use and of the framework's work on them: parsing a locator into a
+ * script-evaluable form (bulk extraction, element queries) and rewriting an XPath to CSS (locator profiler).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LocatorBenchmark {
+
+    // kept in fields so the JIT cannot fold the construction away
+    private String xpath = "//select[@class='product_sort_container']";
+    private String id = "user-name";
+    private By parsedXpath = By.xpath(xpath);
+
+
+    @Benchmark
+    public By buildId(){
+        return By.id(id);
+    }
+
+
+    @Benchmark
+    public By buildXpath(){
+        return By.xpath(xpath);
+    }
+
+
+    @Benchmark
+    public ParsedLocator parse(){
+        return ParsedLocator.parse(parsedXpath);
+    }
+
+
+    @Benchmark
+    public By rewriteXpathToCss(){
+        return XPathToCss.rewrite(parsedXpath);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.benchmark;
+
+import org.example.query.BulkExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning the product prices of the inventory into numbers on the Java side.
+ *
+ * perElement is what Dropdowns.getProductPrices used to do: getText() on every element, strip the dollar sign
+ * and box every price into a list. bulk is the current BulkExtractor.numbers path, parsing the list of texts the
+ * script returns into a primitive array.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PriceParsingBenchmark {
+
+    private static final By PRICES = By.className("inventory_item_price");
+
+    @Param({"6", "100"})
+    public int products;
+
+    private StubDriver driver;
+
+
+    @Setup
+    public void setup(){
+        driver = new StubDriver(1);
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < products; i++){
+            String price = String.format("$%d.99", 7 + i % 43);
+            driver.element(PRICES, new StubElement("div", price));
+            texts.add(price);
+        }
+        driver.scripts(args -> texts);
+    }
+
+
+    @Benchmark
+    public List<Double> perElement(){
+        List<Double> prices = new ArrayList<>();
+        for (WebElement element : driver.findElements(PRICES)){
+            prices.add(Double.parseDouble(element.getText().replace("$", "")));
+        }
+        return prices;
+    }
+
+
+    @Benchmark
+    public double[] bulk(){
+        return BulkExtractor.on(driver).numbers(PRICES);
+    }
+}
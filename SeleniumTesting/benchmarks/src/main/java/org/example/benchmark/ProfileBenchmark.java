@@ -0,0 +1,135 @@
+package org.example.benchmark;
+
+import org.example.driver.DriverFactory;
+import org.example.driver.DriverProfile;
+import org.example.fixture.Site;
+import org.example.query.BulkExtractor;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares the cost of the browser profiles on a typical test: launch the browser, log in to saucedemo,
+ * read the product prices and quit.
+ *
+ * For every profile (headed, headless, headless and lightweight) the scenario runs benchmark.iterations times
+ * (default 5) and the median startup time, median scenario time and peak resident memory of the browser
+ * processes are printed and written to target/profile-benchmark.txt. The memory is read from /proc and is only
+ * available on Linux.
+ *
+ * The browser is chosen with -Dbrowser (edge, chrome or firefox, default edge). The pages come from the fixture
+ * server unless -Dsites.live=true is set, see {@link Site}.
+ *
+ * Run it from the benchmarks jar: java -cp target/benchmarks.jar org.example.benchmark.ProfileBenchmark
+ */
+public class ProfileBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int iterations = Integer.getInteger("benchmark.iterations", 5);
+        DriverProfile.Browser browser = DriverProfile.fromSystemProperties().getBrowser();
+
+        List<DriverProfile> profiles = new ArrayList<>();
+        profiles.add(DriverProfile.builder().name("headed").browser(browser).build());
+        profiles.add(DriverProfile.builder().name("headless").browser(browser).headless(true)
+                .viewport(1280, 800).build());
+        profiles.add(DriverProfile.builder().name("headless-lightweight").browser(browser).headless(true)
+                .viewport(1280, 800).lightweight().build());
+
+        StringBuilder report = new StringBuilder("=== Browser profile benchmark (" + browser.name().toLowerCase(Locale.ROOT)
+                + ", " + iterations + " iterations) ===\n");
+        report.append(String.format("%-22s %14s %15s %14s%n", "profile", "startup (ms)", "scenario (ms)", "peak RSS (MB)"));
+
+        for (DriverProfile profile : profiles){
+            long[] startups = new long[iterations];
+            long[] scenarios = new long[iterations];
+            long peakRss = -1;
+
+            for (int i = 0; i < iterations; i++){
+                long start = System.nanoTime();
+                WebDriver driver = DriverFactory.create(profile);
+                startups[i] = (System.nanoTime() - start) / 1_000_000;
+
+                try {
+                    start = System.nanoTime();
+                    scenario(driver);
+                    scenarios[i] = (System.nanoTime() - start) / 1_000_000;
+                    // measuring while the browser is still up
+                    peakRss = Math.max(peakRss, browserRssKb());
+                } finally {
+                    driver.quit();
+                }
+            }
+
+            report.append(String.format("%-22s %14d %15d %14s%n", profile, median(startups), median(scenarios),
+                    peakRss < 0 ? "n/a" : String.format("%.1f", peakRss / 1024.0)));
+        }
+
+        System.out.print(report);
+        Path file = Paths.get("target", "profile-benchmark.txt");
+        Files.createDirectories(file.getParent());
+        Files.write(file, report.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * The measured test: logging in and reading the prices of the inventory.
+     */
+    static void scenario(WebDriver driver){
+        driver.get(Site.SAUCEDEMO.baseUrl());
+        driver.findElement(By.id("user-name")).sendKeys("standard_user");
+        driver.findElement(By.id("password")).sendKeys("secret_sauce");
+        driver.findElement(By.id("login-button")).click();
+
+        double[] prices = BulkExtractor.on(driver).numbers(By.className("inventory_item_price"));
+        if (prices.length == 0){
+            throw new IllegalStateException("No prices on " + driver.getCurrentUrl());
+        }
+    }
+
+
+    /**
+     * Sums the resident memory of every process started by this JVM: the driver executables and the browsers.
+     *
+     * @return the memory in kB, -1 when it cannot be read (no /proc).
+     */
+    static long browserRssKb(){
+        Path proc = Paths.get("/proc");
+        if (!Files.isDirectory(proc)){
+            return -1;
+        }
+        return ProcessHandle.current().descendants()
+                .mapToLong(process -> rssKb(proc.resolve(Long.toString(process.pid())).resolve("status")))
+                .sum();
+    }
+
+
+    static long rssKb(Path status){
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)){
+                // the line looks like "VmRSS:     123456 kB"
+                if (line.startsWith("VmRSS:")){
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e){
+            // the process exited in the meantime
+        }
+        return 0;
+    }
+
+
+    private static long median(long[] values){
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
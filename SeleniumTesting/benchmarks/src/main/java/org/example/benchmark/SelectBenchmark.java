@@ -0,0 +1,59 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of wrapping the sorting dropdown in a Select and choosing an option, as Dropdowns does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectBenchmark {
+
+    private WebElement sortContainer;
+
+
+    @Setup
+    public void setup(){
+        sortContainer = StubElement.select(false,
+                "az", "Name (A to Z)", "za", "Name (Z to A)", "lohi", "Price (low to high)", "hilo", "Price (high to low)");
+    }
+
+
+    @Benchmark
+    public Select wrap(){
+        return new Select(sortContainer);
+    }
+
+
+    @Benchmark
+    public Select selectByIndex(){
+        Select select = new Select(sortContainer);
+        select.selectByIndex(1);
+        return select;
+    }
+
+
+    @Benchmark
+    public Select selectByValue(){
+        Select select = new Select(sortContainer);
+        select.selectByValue("hilo");
+        return select;
+    }
+}
@@ -0,0 +1,209 @@
+package org.example.benchmark;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.interactions.Interactive;
+import org.openqa.selenium.interactions.Sequence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A WebDriver that answers from memory, so the benchmarks measure the framework and not the browser.
+ *
+ * Lookups return the elements registered with {@link #element(By, WebElement)}, scripts are answered by the
+ * function given to {@link #scripts(Function)}, and the driver holds a fixed set of window handles. Actions
+ * are accepted and dropped.
+ */
+public class StubDriver implements WebDriver, JavascriptExecutor, Interactive {
+
+    private final List<By> locators = new ArrayList<>();
+    private final List<WebElement> elements = new ArrayList<>();
+    private final Set<String> windowHandles = new LinkedHashSet<>();
+    private Function<Object[], Object> scripts = args -> null;
+    private String currentWindow;
+
+
+    /**
+     * @param windows the number of windows the driver has open.
+     */
+    public StubDriver(int windows){
+        for (int i = 0; i < windows; i++){
+            windowHandles.add(String.format("%032X", i));
+        }
+        currentWindow = windowHandles.iterator().next();
+    }
+
+
+    /**
+     * Makes a locator return the given element.
+     *
+     * @return this driver.
+     */
+    public StubDriver element(By by, WebElement element){
+        locators.add(by);
+        elements.add(element);
+        return this;
+    }
+
+
+    /**
+     * Sets what executeScript returns, given the script arguments.
+     *
+     * @return this driver.
+     */
+    public StubDriver scripts(Function<Object[], Object> scripts){
+        this.scripts = scripts;
+        return this;
+    }
+
+
+    @Override
+    public void get(String url){
+    }
+
+    @Override
+    public String getCurrentUrl(){
+        return "http://saucedemo.localhost/";
+    }
+
+    @Override
+    public String getTitle(){
+        return "Swag Labs";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by){
+        List<WebElement> found = new ArrayList<>();
+        for (int i = 0; i < locators.size(); i++){
+            if (locators.get(i).equals(by)){
+                found.add(elements.get(i));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public WebElement findElement(By by){
+        int index = locators.indexOf(by);
+        if (index < 0){
+            throw new NoSuchElementException("No stub element for " + by);
+        }
+        return elements.get(index);
+    }
+
+    @Override
+    public String getPageSource(){
+        return "";
+    }
+
+    @Override
+    public void close(){
+    }
+
+    @Override
+    public void quit(){
+    }
+
+    @Override
+    public Set<String> getWindowHandles(){
+        return new LinkedHashSet<>(windowHandles);
+    }
+
+    @Override
+    public String getWindowHandle(){
+        return currentWindow;
+    }
+
+    @Override
+    public TargetLocator switchTo(){
+        return new StubTargetLocator();
+    }
+
+    @Override
+    public Navigation navigate(){
+        throw new UnsupportedOperationException("no navigation in the stub");
+    }
+
+    @Override
+    public Options manage(){
+        throw new UnsupportedOperationException("no options in the stub");
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args){
+        return scripts.apply(args);
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args){
+        return scripts.apply(args);
+    }
+
+    @Override
+    public void perform(Collection<Sequence> actions){
+    }
+
+    @Override
+    public void resetInputState(){
+    }
+
+
+    private class StubTargetLocator implements TargetLocator {
+
+        @Override
+        public WebDriver frame(int index){
+            return StubDriver.this;
+        }
+
+        @Override
+        public WebDriver frame(String nameOrId){
+            return StubDriver.this;
+        }
+
+        @Override
+        public WebDriver frame(WebElement frameElement){
+            return StubDriver.this;
+        }
+
+        @Override
+        public WebDriver parentFrame(){
+            return StubDriver.this;
+        }
+
+        @Override
+        public WebDriver window(String nameOrHandle){
+            currentWindow = nameOrHandle;
+            return StubDriver.this;
+        }
+
+        @Override
+        public WebDriver newWindow(WindowType typeHint){
+            return StubDriver.this;
+        }
+
+        @Override
+        public WebDriver defaultContent(){
+            return StubDriver.this;
+        }
+
+        @Override
+        public WebElement activeElement(){
+            throw new UnsupportedOperationException("no active element in the stub");
+        }
+
+        @Override
+        public Alert alert(){
+            throw new UnsupportedOperationException("no alerts in the stub");
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process WebDriver endpoint that answers the commands of any number of sessions after a fixed latency,
+ * without a browser behind it. It stands in for a Selenium Grid when measuring how many sessions the client side
+ * can drive.
+ *
+ * It speaks enough of the W3C protocol for a RemoteWebDriver: new session, delete session, navigate, title,
+ * current URL, find element, click, element text and execute script. The answers are delayed on a scheduler, so a
+ * pending command holds no server thread and the server is never what limits the number of sessions.
+ */
+public class StubDriverServer implements AutoCloseable {
+
+    private static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+
+    static {
+        // read once, when the first server of the JVM starts.
+        // The headers and the body of an answer are written separately, with Nagle's algorithm the body waits
+        // for the delayed ACK of the client and every command takes 40 ms more.
+        setDefault("sun.net.httpserver.nodelay", "true");
+        // every session keeps a connection open between its commands, past 200 the server closed them
+        setDefault("sun.net.httpserver.maxIdleConnections", "100000");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService delays;
+    private final long latencyMillis;
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong commands = new AtomicLong();
+
+
+    /**
+     * Starts listening on a free port of the loopback address.
+     *
+     * @param latencyMillis how long every command takes, like the round-trip to a browser on a grid.
+     * @throws UncheckedIOException if the server cannot be started.
+     */
+    public StubDriverServer(long latencyMillis){
+        this.latencyMillis = latencyMillis;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        } catch (IOException e){
+            throw new UncheckedIOException("Could not start the stub driver server", e);
+        }
+        executor = Executors.newFixedThreadPool(2, runnable -> daemon(runnable, "stub-driver-server"));
+        delays = Executors.newScheduledThreadPool(2, runnable -> daemon(runnable, "stub-driver-latency"));
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+
+    /**
+     * @return the address to give RemoteWebDriver, or -Dgrid.url.
+     */
+    public URL getUrl(){
+        try {
+            return new URL("http://localhost:" + server.getAddress().getPort() + "/");
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * @return the number of sessions open right now.
+     */
+    public int getOpenSessions(){
+        return sessions.size();
+    }
+
+
+    /**
+     * @return the number of commands answered so far, session creations included.
+     */
+    public long getCommands(){
+        return commands.get();
+    }
+
+
+    @Override
+    public void close(){
+        server.stop(0);
+        delays.shutdownNow();
+        executor.shutdownNow();
+    }
+
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()){
+            // the request bodies are not needed, only drained so the connection can be reused
+            body.readAllBytes();
+        }
+        String method = exchange.getRequestMethod();
+        // /session/<id>/<command...>
+        String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+
+        String value;
+        int status = 200;
+        if (path.length == 1 && "session".equals(path[0]) && "POST".equals(method)){
+            String session = UUID.randomUUID().toString();
+            sessions.add(session);
+            value = "{\"sessionId\":\"" + session + "\",\"capabilities\":{\"browserName\":\"stub\",\"platformName\":\"linux\"}}";
+        } else if (path.length < 2 || !"session".equals(path[0]) || !sessions.contains(path[1])){
+            status = 404;
+            value = "{\"error\":\"invalid session id\",\"message\":\"No session " + (path.length > 1 ? path[1] : "") + "\",\"stacktrace\":\"\"}";
+        } else {
+            String command = method + " " + String.join("/", Arrays.copyOfRange(path, 2, path.length));
+            value = answer(path[1], command);
+            if (value == null){
+                status = 404;
+                value = "{\"error\":\"unknown command\",\"message\":\"" + command + "\",\"stacktrace\":\"\"}";
+            }
+        }
+
+        byte[] response = ("{\"value\":" + value + "}").getBytes(StandardCharsets.UTF_8);
+        int code = status;
+        // answering later from the scheduler, the server thread is free for the next request meanwhile
+        delays.schedule(() -> respond(exchange, code, response), latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    private String answer(String session, String command){
+        if (command.equals("DELETE ")){
+            sessions.remove(session);
+            return "null";
+        }
+        if (command.equals("POST url") || command.matches("POST element/[^/]+/click")){
+            return "null";
+        }
+        if (command.equals("GET title")){
+            return "\"Stub\"";
+        }
+        if (command.equals("GET url")){
+            return "\"about:blank\"";
+        }
+        if (command.equals("POST element")){
+            return "{\"" + ELEMENT_KEY + "\":\"element-" + commands.get() + "\"}";
+        }
+        if (command.matches("GET element/[^/]+/text")){
+            return "\"text\"";
+        }
+        if (command.equals("POST execute/sync")){
+            return "null";
+        }
+        return null;
+    }
+
+
+    private void respond(HttpExchange exchange, int status, byte[] response){
+        commands.incrementAndGet();
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream out = exchange.getResponseBody()){
+                out.write(response);
+            }
+        } catch (IOException e){
+            // the client went away
+            exchange.close();
+        }
+    }
+
+
+    private static void setDefault(String property, String value){
+        if (System.getProperty(property) == null){
+            System.setProperty(property, value);
+        }
+    }
+
+
+    private static Thread daemon(Runnable runnable, String name){
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
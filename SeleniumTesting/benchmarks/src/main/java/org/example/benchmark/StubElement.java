@@ -0,0 +1,168 @@
+package org.example.benchmark;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An element held in memory, answering the calls the framework makes without any round-trip.
+ *
+ * Only what the benchmarked code paths need is modelled: a tag, attributes, a text, a selected state and
+ * children, which is enough for a select and its options.
+ */
+public class StubElement implements WebElement {
+
+    // the option lookup Select makes in selectByValue: .//option[@value = "hilo"]
+    private static final Pattern VALUE = Pattern.compile("@value = \"([^\"]*)\"");
+
+    private final String tagName;
+    private final String text;
+    private final Map<String, String> attributes = new HashMap<>();
+    private final List<WebElement> children = new ArrayList<>();
+    private boolean selected;
+
+    public StubElement(String tagName, String text){
+        this.tagName = tagName;
+        this.text = text;
+    }
+
+
+    /**
+     * Builds a select whose options have the given values and texts.
+     *
+     * @param multiple true for a multiple selection list.
+     * @param options  value and text of every option, one pair after the other.
+     * @return the select.
+     */
+    public static StubElement select(boolean multiple, String... options){
+        StubElement select = new StubElement("select", "");
+        if (multiple){
+            select.attribute("multiple", "true");
+        }
+        for (int i = 0; i < options.length; i += 2){
+            select.child(new StubElement("option", options[i + 1])
+                    .attribute("value", options[i])
+                    .attribute("index", String.valueOf(i / 2)));
+        }
+        return select;
+    }
+
+
+    public StubElement attribute(String name, String value){
+        attributes.put(name, value);
+        return this;
+    }
+
+    public StubElement child(WebElement child){
+        children.add(child);
+        return this;
+    }
+
+
+    @Override
+    public void click(){
+        selected = !selected;
+    }
+
+    @Override
+    public void submit(){
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend){
+    }
+
+    @Override
+    public void clear(){
+    }
+
+    @Override
+    public String getTagName(){
+        return tagName;
+    }
+
+    @Override
+    public String getDomAttribute(String name){
+        return attributes.get(name);
+    }
+
+    @Override
+    public String getAttribute(String name){
+        return attributes.get(name);
+    }
+
+    @Override
+    public boolean isSelected(){
+        return selected;
+    }
+
+    @Override
+    public boolean isEnabled(){
+        return true;
+    }
+
+    @Override
+    public String getText(){
+        return text;
+    }
+
+    @Override
+    public List<WebElement> findElements(By by){
+        Matcher value = VALUE.matcher(by.toString());
+        if (!value.find()){
+            return children;
+        }
+        List<WebElement> matching = new ArrayList<>();
+        for (WebElement child : children){
+            if (value.group(1).equals(child.getDomAttribute("value"))){
+                matching.add(child);
+            }
+        }
+        return matching;
+    }
+
+    @Override
+    public WebElement findElement(By by){
+        return findElements(by).get(0);
+    }
+
+    @Override
+    public boolean isDisplayed(){
+        return true;
+    }
+
+    @Override
+    public Point getLocation(){
+        return new Point(0, 0);
+    }
+
+    @Override
+    public Dimension getSize(){
+        return new Dimension(100, 20);
+    }
+
+    @Override
+    public Rectangle getRect(){
+        return new Rectangle(getLocation(), getSize());
+    }
+
+    @Override
+    public String getCssValue(String propertyName){
+        return "";
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target){
+        throw new UnsupportedOperationException("no screenshots in the stub");
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.benchmark;
+
+import org.example.driver.DriverFactory;
+import org.example.driver.DriverProfile;
+import org.example.runner.WorkerThreads;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compares platform and virtual threads when driving many remote sessions at once, against a
+ * {@link StubDriverServer} so that only the client side is measured.
+ *
+ * For every number of sessions in benchmark.sessions (default 100,1000) and every kind of thread, one thread per
+ * session opens a RemoteWebDriver, runs benchmark.commands commands (default 20) answered after benchmark.latency
+ * milliseconds each (default 20), and waits until all the sessions got that far. The throughput in sessions per
+ * second, the heap and resident memory added per open session and the number of platform threads are then
+ * printed and written to target/thread-scaling-benchmark.txt, and the sessions are closed.
+ *
+ * The virtual threads are only measured when the framework was installed with the java21 profile and the jar
+ * runs on JDK 21, see {@link WorkerThreads}; the resident memory is read from /proc and is only available on Linux.
+ *
+ * Run it from the benchmarks jar: java -cp target/benchmarks.jar org.example.benchmark.ThreadScalingBenchmark
+ */
+public class ThreadScalingBenchmark {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long latency = Long.getLong("benchmark.latency", 20);
+        int commands = Integer.getInteger("benchmark.commands", 20);
+        List<Integer> levels = new ArrayList<>();
+        for (String level : System.getProperty("benchmark.sessions", "100,1000").split(",")){
+            levels.add(Integer.parseInt(level.trim()));
+        }
+
+        Map<String, ThreadFactory> kinds = new LinkedHashMap<>();
+        kinds.put("platform", WorkerThreads.platform("session-"));
+        if (WorkerThreads.isVirtualAvailable()){
+            kinds.put("virtual", WorkerThreads.virtual("session-"));
+        }
+
+        StringBuilder report = new StringBuilder(String.format("=== Thread scaling benchmark (%d commands of %d ms per session) ===%n",
+                commands, latency));
+        report.append(String.format("%-10s %9s %14s %18s %17s %17s%n", "threads", "sessions", "sessions/s",
+                "heap/session (KB)", "RSS/session (KB)", "platform threads"));
+
+        try (StubDriverServer server = new StubDriverServer(latency)){
+            DriverProfile profile = DriverProfile.builder().name("stub").grid(server.getUrl()).build();
+            // a first round to load and compile the client code, not measured
+            run(kinds.get("platform"), profile, 10, commands);
+
+            for (int sessions : levels){
+                for (Map.Entry<String, ThreadFactory> kind : kinds.entrySet()){
+                    Measurement measurement = run(kind.getValue(), profile, sessions, commands);
+                    report.append(String.format("%-10s %9d %14.1f %18.1f %17s %17d%n", kind.getKey(), sessions,
+                            sessions * 1000.0 / measurement.millis,
+                            measurement.heapBytes / 1024.0 / sessions,
+                            measurement.rssKb < 0 ? "n/a" : String.format("%.1f", (double) measurement.rssKb / sessions),
+                            measurement.platformThreads));
+                }
+            }
+        }
+        if (!kinds.containsKey("virtual")){
+            report.append("virtual threads not measured: install the framework with -Pjava21 and run on JDK 21 or later\n");
+        }
+
+        System.out.print(report);
+        Path file = Paths.get("target", "thread-scaling-benchmark.txt");
+        Files.createDirectories(file.getParent());
+        Files.write(file, report.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Opens the sessions, each on its own thread, and measures once all of them ran their commands.
+     */
+    static Measurement run(ThreadFactory threads, DriverProfile profile, int sessions, int commands)
+            throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(sessions);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+
+        System.gc();
+        long heapBefore = usedHeap();
+        long rssBefore = rssKb();
+
+        long start = System.nanoTime();
+        List<Thread> started = new ArrayList<>();
+        for (int i = 0; i < sessions; i++){
+            Thread thread = threads.newThread(() -> {
+                WebDriver driver = null;
+                try {
+                    driver = DriverFactory.create(profile);
+                    scenario(driver, commands);
+                } catch (RuntimeException e){
+                    failed.incrementAndGet();
+                    firstFailure.compareAndSet(null, e);
+                } finally {
+                    ready.countDown();
+                }
+                try {
+                    // keeping the session, and the thread, alive until everything was measured
+                    release.await();
+                } catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                }
+                if (driver != null){
+                    driver.quit();
+                }
+            });
+            thread.start();
+            started.add(thread);
+        }
+
+        ready.await();
+        Measurement measurement = new Measurement();
+        measurement.millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        measurement.platformThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        System.gc();
+        measurement.heapBytes = Math.max(0, usedHeap() - heapBefore);
+        long rssAfter = rssKb();
+        measurement.rssKb = rssBefore < 0 || rssAfter < 0 ? -1 : Math.max(0, rssAfter - rssBefore);
+
+        release.countDown();
+        for (Thread thread : started){
+            thread.join();
+        }
+        if (failed.get() > 0){
+            throw new IllegalStateException(failed.get() + " of " + sessions + " sessions failed", firstFailure.get());
+        }
+        return measurement;
+    }
+
+
+    /**
+     * The commands of a session: a navigation, then lookups, clicks and reads.
+     */
+    static void scenario(WebDriver driver, int commands){
+        driver.get("http://stub.localhost/");
+        for (int i = 1; i < commands; i++){
+            switch (i % 3){
+                case 0:
+                    driver.getTitle();
+                    break;
+                case 1:
+                    driver.findElement(By.id("button")).click();
+                    i++;
+                    break;
+                default:
+                    driver.getCurrentUrl();
+                    break;
+            }
+        }
+    }
+
+
+    private static long usedHeap(){
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+
+    private static long rssKb(){
+        Path status = Paths.get("/proc/self/status");
+        return Files.isReadable(status) ? ProfileBenchmark.rssKb(status) : -1;
+    }
+
+
+    private static class Measurement {
+        private long millis;
+        private long heapBytes;
+        private long rssKb;
+        private int platformThreads;
+    }
+}
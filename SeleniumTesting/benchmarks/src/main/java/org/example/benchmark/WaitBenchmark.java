@@ -0,0 +1,71 @@
+package org.example.benchmark;
+
+import org.example.wait.AdaptivePoller;
+import org.example.wait.PollingPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the polling loops themselves: a condition that holds on the n-th evaluation, with pauses of zero, so
+ * only the bookkeeping of the loop (clock reads, policy calls, caught exceptions) is measured. Selenium's
+ * FluentWait is measured the same way as a reference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WaitBenchmark {
+
+    private static final PollingPolicy NO_PAUSE = (attempt, elapsed) -> Duration.ZERO;
+
+    @Param({"1", "10"})
+    public int evaluations;
+
+    private final AdaptivePoller poller = new AdaptivePoller(Duration.ofSeconds(10), NO_PAUSE);
+
+
+    @Benchmark
+    public Boolean pollerUntilTrue(){
+        int[] count = {0};
+        return poller.until("benchmark", () -> ++count[0] >= evaluations);
+    }
+
+
+    @Benchmark
+    public Boolean pollerUntilFound(){
+        // a missing element is the most common "not yet" of a wait, and it is an exception
+        int[] count = {0};
+        return poller.until("benchmark", () -> {
+            if (++count[0] < evaluations){
+                throw new NoSuchElementException("not yet");
+            }
+            return Boolean.TRUE;
+        });
+    }
+
+
+    @Benchmark
+    public Boolean fluentWaitUntilTrue(){
+        int[] count = {0};
+        return new FluentWait<>(count)
+                .withTimeout(Duration.ofSeconds(10))
+                .pollingEvery(Duration.ZERO)
+                .ignoring(NoSuchElementException.class)
+                .until(c -> ++c[0] >= evaluations);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.benchmark;
+
+import org.example.window.WindowManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of walking the open windows as HandlingMultipleWindows does: iterating the handle set and switching to
+ * every window but the main one, or copying the handles into a list and switching by index, against the
+ * {@link WindowManager} which lists its own handles and reads the title and URL of a window with one script.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WindowHandlesBenchmark {
+
+    @Param({"6", "50"})
+    public int windows;
+
+    private WebDriver driver;
+    private WindowManager manager;
+
+
+    @Setup
+    public void setup(){
+        driver = new StubDriver(windows).scripts(args -> Arrays.asList("Swag Labs", "http://saucedemo.localhost/"));
+        manager = new WindowManager(driver);
+    }
+
+
+    @Benchmark
+    public void iterateExceptMain(Blackhole blackhole){
+        String mainWindow = driver.getWindowHandle();
+        for (String handle : driver.getWindowHandles()){
+            if (!handle.equals(mainWindow)){
+                blackhole.consume(driver.switchTo().window(handle).getTitle());
+            }
+        }
+        driver.switchTo().window(mainWindow);
+    }
+
+
+    @Benchmark
+    public void managerExceptMain(Blackhole blackhole){
+        String mainWindow = manager.getMainHandle();
+        for (String handle : manager.getHandles()){
+            if (!handle.equals(mainWindow)){
+                blackhole.consume(manager.describe(handle));
+            }
+        }
+        manager.switchToMain();
+    }
+
+
+    @Benchmark
+    public void switchByIndex(Blackhole blackhole){
+        List<String> tabs = new ArrayList<>(driver.getWindowHandles());
+        for (int i = 0; i < tabs.size(); i++){
+            blackhole.consume(driver.switchTo().window(tabs.get(i)));
+        }
+    }
+}
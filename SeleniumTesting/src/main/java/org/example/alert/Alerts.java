@@ -0,0 +1,167 @@
+package org.example.alert;
+
+import org.example.driver.DriverProfile;
+import org.example.trace.Span;
+import org.example.trace.Tracer;
+import org.example.wait.WaitEngine;
+import org.openqa.selenium.UnexpectedAlertBehaviour;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.UserPromptOpened;
+import org.openqa.selenium.bidi.module.BrowsingContextInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Opens the dialogs of a page (alert, confirm, prompt) and hands out a single {@link Dialog} handle for each.
+ *
+ * {@link #opening(Runnable)} runs the action that opens a dialog and returns as soon as the dialog is open: on a
+ * session with a WebDriver BiDi connection (-Dbrowser.bidi=true) it waits for the browsingContext.userPromptOpened
+ * event, which costs no command; on other sessions it polls for the alert with the {@link WaitEngine}, which
+ * normally finds it on the first switch since the click only returns once the dialog is open.
+ *
+ * Dialogs nobody asked for are handled by a policy, an UnexpectedAlertBehaviour read from
+ * -Dbrowser.unhandledPrompt like the one given to the driver (default dismiss and notify). Over BiDi the prompt is
+ * accepted, dismissed or left open as soon as it opens; the notify variants also print it. On other sessions the
+ * driver applies the same policy to the next command, see {@link DriverProfile}. The messages of the unexpected
+ * dialogs seen over BiDi are kept in {@link #getUnexpected()}.
+ */
+public class Alerts implements AutoCloseable {
+
+    private final WebDriver driver;
+    private final WaitEngine waits;
+    private final UnexpectedAlertBehaviour policy;
+    private final List<String> unexpected = Collections.synchronizedList(new ArrayList<>());
+    private final BlockingQueue<UserPromptOpened> expected = new LinkedBlockingQueue<>();
+    private BrowsingContextInspector inspector;
+    private volatile boolean expecting;
+
+
+    /**
+     * Creates the helper with the policy of the system properties.
+     *
+     * @param driver the session the dialogs open in.
+     * @param waits  bounds the wait for a dialog to open.
+     */
+    public Alerts(WebDriver driver, WaitEngine waits){
+        this(driver, waits, defaultPolicy());
+    }
+
+
+    /**
+     * @param driver the session the dialogs open in.
+     * @param waits  bounds the wait for a dialog to open.
+     * @param policy what to do with a dialog that opens while none is expected.
+     */
+    public Alerts(WebDriver driver, WaitEngine waits, UnexpectedAlertBehaviour policy){
+        this.driver = driver;
+        this.waits = waits;
+        this.policy = policy;
+    }
+
+
+    /**
+     * Runs an action that opens a dialog and waits for the dialog.
+     *
+     * @param action the action, usually the click on a link or button.
+     * @return the open dialog.
+     * @throws org.openqa.selenium.TimeoutException if no dialog opened within the timeout of the wait engine.
+     */
+    public Dialog opening(Runnable action){
+        try (Span span = Tracer.shared().span("alert.open", "step")){
+            if (listen()){
+                span.arg("via", "bidi");
+                expected.clear();
+                expecting = true;
+                try {
+                    action.run();
+                    UserPromptOpened prompt = waits.until("dialog to open", expected::poll);
+                    return new Dialog(new BrowsingContext(driver, prompt.getBrowsingContextId()), prompt.getMessage());
+                } finally {
+                    expecting = false;
+                }
+            }
+            span.arg("via", "polling");
+            action.run();
+            return new Dialog(waits.untilAlertPresent());
+        }
+    }
+
+
+    /**
+     * @return the messages of the dialogs the policy handled over BiDi, in the order they opened.
+     */
+    public List<String> getUnexpected(){
+        synchronized (unexpected){
+            return new ArrayList<>(unexpected);
+        }
+    }
+
+
+    /**
+     * Stops listening for the dialogs.
+     */
+    @Override
+    public void close(){
+        if (inspector != null){
+            inspector.close();
+            inspector = null;
+        }
+    }
+
+
+    /**
+     * Subscribes to the dialogs of every tab on first use, when the session has a BiDi connection.
+     *
+     * @return true if the dialogs are known from the events.
+     */
+    private boolean listen(){
+        if (inspector != null){
+            return true;
+        }
+        if (!(driver instanceof HasBiDi) || !((HasBiDi) driver).maybeGetBiDi().isPresent()){
+            return false;
+        }
+        inspector = new BrowsingContextInspector(driver);
+        inspector.onUserPromptOpened(this::opened);
+        return true;
+    }
+
+
+    private void opened(UserPromptOpened prompt){
+        if (expecting){
+            expected.add(prompt);
+            return;
+        }
+        unexpected.add(prompt.getMessage());
+        if (policy == UnexpectedAlertBehaviour.IGNORE){
+            return;
+        }
+        boolean accept = policy == UnexpectedAlertBehaviour.ACCEPT || policy == UnexpectedAlertBehaviour.ACCEPT_AND_NOTIFY;
+        if (policy == UnexpectedAlertBehaviour.ACCEPT_AND_NOTIFY || policy == UnexpectedAlertBehaviour.DISMISS_AND_NOTIFY){
+            System.out.printf("[alerts] %s unexpected %s \"%s\"%n", accept ? "accepting" : "dismissing",
+                    prompt.getType(), prompt.getMessage());
+        }
+        // answering from another thread, the listener runs on the thread reading the BiDi connection
+        CompletableFuture.runAsync(() -> {
+            try {
+                new BrowsingContext(driver, prompt.getBrowsingContextId()).handleUserPrompt(accept);
+            } catch (WebDriverException e){
+                // closed in the meantime, by the page or the test
+            }
+        });
+    }
+
+
+    private static UnexpectedAlertBehaviour defaultPolicy(){
+        UnexpectedAlertBehaviour policy = DriverProfile.fromSystemProperties().getUnhandledPrompt();
+        return policy != null ? policy : UnexpectedAlertBehaviour.DISMISS_AND_NOTIFY;
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.alert;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+
+/**
+ * An open alert, confirmation or prompt, as returned by {@link Alerts}.
+ *
+ * The handle is switched to once, when the dialog opens, and every call goes to it directly: no
+ * driver.switchTo().alert() per call. Its text is read at most once. On a session with a WebDriver BiDi connection
+ * the text comes with the event that announced the dialog, and the answer given with {@link #sendKeys(String)}
+ * is sent together with {@link #accept()} in a single command.
+ *
+ * Accepting or dismissing returns once the dialog is closed, there is nothing left to wait for.
+ */
+public class Dialog implements Alert {
+
+    private final Alert alert;
+    private final BrowsingContext context;
+    private String text;
+    private String answer;
+    private boolean open = true;
+
+
+    /**
+     * A dialog handled through the classic alert commands.
+     */
+    Dialog(Alert alert){
+        this.alert = alert;
+        this.context = null;
+    }
+
+
+    /**
+     * A dialog handled through the browsingContext.handleUserPrompt command of WebDriver BiDi.
+     *
+     * @param context the tab the dialog belongs to.
+     * @param text    the message, from the userPromptOpened event.
+     */
+    Dialog(BrowsingContext context, String text){
+        this.alert = null;
+        this.context = context;
+        this.text = text;
+    }
+
+
+    @Override
+    public String getText(){
+        if (text == null){
+            text = alert.getText();
+        }
+        return text;
+    }
+
+
+    /**
+     * Types the answer of a prompt.
+     */
+    @Override
+    public void sendKeys(String keysToSend){
+        checkOpen();
+        if (alert != null){
+            alert.sendKeys(keysToSend);
+        } else {
+            answer = keysToSend;
+        }
+    }
+
+
+    @Override
+    public void accept(){
+        checkOpen();
+        if (alert != null){
+            alert.accept();
+        } else if (answer != null){
+            context.handleUserPrompt(true, answer);
+        } else {
+            context.handleUserPrompt(true);
+        }
+        open = false;
+    }
+
+
+    /**
+     * Answers a prompt and accepts it.
+     *
+     * @param answer the text typed in the prompt.
+     */
+    public void accept(String answer){
+        sendKeys(answer);
+        accept();
+    }
+
+
+    @Override
+    public void dismiss(){
+        checkOpen();
+        if (alert != null){
+            alert.dismiss();
+        } else {
+            context.handleUserPrompt(false);
+        }
+        open = false;
+    }
+
+
+    /**
+     * @return false once the dialog was accepted or dismissed through this handle.
+     */
+    public boolean isOpen(){
+        return open;
+    }
+
+
+    private void checkOpen(){
+        if (!open){
+            throw new IllegalStateException("The dialog" + (text != null ? " \"" + text + "\"" : "") + " is already closed");
+        }
+    }
+
+
+    @Override
+    public String toString(){
+        return "Dialog[" + (text != null ? text : "?") + (open ? "" : ", closed") + "]";
+    }
+}
@@ -0,0 +1,223 @@
+package org.example.async;
+
+import org.example.metrics.CommandMetrics;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Issues the commands of a driver without blocking the caller: every command returns a CompletableFuture.
+ *
+ * Commands are ordered only where it matters. A read (a lookup, getText, getAttribute, isDisplayed...) waits
+ * for the last write submitted before it but not for the other reads, so independent reads are in flight
+ * together. A write (get, click, sendKeys, executeScript...) waits for everything submitted before it, and
+ * everything submitted after it waits for the write. A command runs once the commands it waits for completed,
+ * whether or not they failed; only a command on an element whose lookup failed fails with it.
+ *
+ * The commands of one session are still executed one at a time by the browser driver, what overlaps is the
+ * round-trip to it: the HTTP client of Selenium keeps a pool of keep-alive connections and sends concurrent
+ * commands on separate ones. The gain is highest on remote sessions, where the network dominates.
+ *
+ * The commands run on a shared pool of daemon threads. They are attributed in the {@link CommandMetrics} to
+ * the test that submitted them, and show up on the rows of those threads in the trace. The
+ * {@link org.example.impact.ImpactRecorder} reads the call stack of the thread running a command, so it does not
+ * see which test methods issued them. AsyncDriverBenchmark in the benchmarks module measures the gain.
+ */
+public class AsyncDriver {
+
+    private static final ExecutorService SHARED_EXECUTOR = Executors.newCachedThreadPool(new Threads());
+
+    private final WebDriver driver;
+    private final Executor executor;
+
+    private final Object lock = new Object();
+    // the last write, and the reads submitted since, guarded by lock
+    private CompletableFuture<?> lastWrite = CompletableFuture.completedFuture(null);
+    private List<CompletableFuture<?>> readsSinceWrite = new ArrayList<>();
+
+
+    /**
+     * @param driver the driver the commands are sent to, it must not be used directly while commands are pending.
+     */
+    public AsyncDriver(WebDriver driver){
+        this(driver, SHARED_EXECUTOR);
+    }
+
+
+    /**
+     * @param driver   the driver the commands are sent to.
+     * @param executor runs the commands.
+     */
+    public AsyncDriver(WebDriver driver, Executor executor){
+        this.driver = driver;
+        this.executor = executor;
+    }
+
+
+    public WebDriver getDriver(){
+        return driver;
+    }
+
+
+    /**
+     * Looks an element up.
+     *
+     * @param by the locator.
+     * @return the element, whose commands are issued once the lookup completed.
+     */
+    public AsyncElement find(By by){
+        return new AsyncElement(this, read(session -> session.findElement(by)));
+    }
+
+
+    /**
+     * @param element an element already found, or a lazy element of a page object.
+     * @return the element with asynchronous commands.
+     */
+    public AsyncElement element(WebElement element){
+        return new AsyncElement(this, CompletableFuture.completedFuture(element));
+    }
+
+
+    public CompletableFuture<List<WebElement>> findAll(By by){
+        return read(session -> session.findElements(by));
+    }
+
+
+    public CompletableFuture<Void> get(String url){
+        return write(session -> {
+            session.get(url);
+            return null;
+        });
+    }
+
+
+    public CompletableFuture<String> getTitle(){
+        return read(WebDriver::getTitle);
+    }
+
+
+    public CompletableFuture<String> getCurrentUrl(){
+        return read(WebDriver::getCurrentUrl);
+    }
+
+
+    /**
+     * Runs a script, as a write since it may change the page.
+     */
+    public CompletableFuture<Object> executeScript(String script, Object... args){
+        return write(session -> ((JavascriptExecutor) session).executeScript(script, args));
+    }
+
+
+    /**
+     * Submits a command that does not change the page.
+     *
+     * @param command the command, given the driver.
+     * @return its result.
+     */
+    public <T> CompletableFuture<T> read(Function<WebDriver, T> command){
+        return submit(false, null, () -> command.apply(driver));
+    }
+
+
+    /**
+     * Submits a command that may change the page, ordered after and before every other command.
+     *
+     * @param command the command, given the driver.
+     * @return its result.
+     */
+    public <T> CompletableFuture<T> write(Function<WebDriver, T> command){
+        return submit(true, null, () -> command.apply(driver));
+    }
+
+
+    /**
+     * @return a future completed once every command submitted so far completed, successfully or not.
+     */
+    public CompletableFuture<Void> sync(){
+        synchronized (lock){
+            return after(true).thenApply(ignored -> null);
+        }
+    }
+
+
+    /**
+     * Schedules a command after the ones it must follow.
+     *
+     * @param write   true if the command may change the page.
+     * @param element the lookup of the element the command applies to, null for a driver command.
+     * @param command the command.
+     */
+    <T> CompletableFuture<T> submit(boolean write, CompletableFuture<WebElement> element, Supplier<T> command){
+        // the test is a thread local of the caller, handing it to the thread running the command
+        String test = CommandMetrics.shared().currentTest();
+        synchronized (lock){
+            CompletableFuture<?> ready = after(write);
+            if (element != null){
+                ready = ready.thenCombine(element, (previous, found) -> null);
+            }
+            CompletableFuture<T> result = ready.thenApplyAsync(ignored -> run(test, command), executor);
+            if (write){
+                lastWrite = result;
+                readsSinceWrite = new ArrayList<>();
+            } else {
+                readsSinceWrite.add(result);
+            }
+            return result;
+        }
+    }
+
+
+    /**
+     * @return completes once what a new command must wait for completed, whatever the outcome.
+     */
+    private CompletableFuture<Object> after(boolean write){
+        CompletableFuture<?> previous;
+        if (write && !readsSinceWrite.isEmpty()){
+            List<CompletableFuture<?>> all = new ArrayList<>(readsSinceWrite);
+            all.add(lastWrite);
+            previous = CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0]));
+        } else {
+            previous = lastWrite;
+        }
+        return previous.handle((result, failure) -> null);
+    }
+
+
+    private static <T> T run(String test, Supplier<T> command){
+        if (test == null){
+            return command.get();
+        }
+        CommandMetrics.shared().startTest(test);
+        try {
+            return command.get();
+        } finally {
+            CommandMetrics.shared().endTest();
+        }
+    }
+
+
+    private static class Threads implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable){
+            Thread thread = new Thread(runnable, "async-driver-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.async;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * An element of an {@link AsyncDriver}, whose commands return CompletableFutures.
+ *
+ * Its commands are issued once the element was found, and follow the ordering of the driver: reads wait for the
+ * last write only, writes wait for every command submitted before them. A failed lookup fails every command of
+ * the element with the same exception.
+ */
+public class AsyncElement {
+
+    private final AsyncDriver driver;
+    private final CompletableFuture<WebElement> element;
+
+
+    AsyncElement(AsyncDriver driver, CompletableFuture<WebElement> element){
+        this.driver = driver;
+        this.element = element;
+    }
+
+
+    /**
+     * Looks the element up, when it is a lazy element of a page object not looked up yet.
+     *
+     * @return the element, once found.
+     */
+    public CompletableFuture<WebElement> resolve(){
+        return read(found -> found instanceof WrapsElement ? ((WrapsElement) found).getWrappedElement() : found);
+    }
+
+
+    public CompletableFuture<String> getText(){
+        return read(WebElement::getText);
+    }
+
+
+    public CompletableFuture<String> getAttribute(String name){
+        return read(found -> found.getAttribute(name));
+    }
+
+
+    public CompletableFuture<String> getDomAttribute(String name){
+        return read(found -> found.getDomAttribute(name));
+    }
+
+
+    public CompletableFuture<String> getDomProperty(String name){
+        return read(found -> found.getDomProperty(name));
+    }
+
+
+    public CompletableFuture<String> getCssValue(String property){
+        return read(found -> found.getCssValue(property));
+    }
+
+
+    public CompletableFuture<String> getTagName(){
+        return read(WebElement::getTagName);
+    }
+
+
+    public CompletableFuture<Boolean> isDisplayed(){
+        return read(WebElement::isDisplayed);
+    }
+
+
+    public CompletableFuture<Boolean> isEnabled(){
+        return read(WebElement::isEnabled);
+    }
+
+
+    public CompletableFuture<Boolean> isSelected(){
+        return read(WebElement::isSelected);
+    }
+
+
+    public CompletableFuture<Void> click(){
+        return write(found -> {
+            found.click();
+            return null;
+        });
+    }
+
+
+    public CompletableFuture<Void> sendKeys(CharSequence... keys){
+        return write(found -> {
+            found.sendKeys(keys);
+            return null;
+        });
+    }
+
+
+    public CompletableFuture<Void> clear(){
+        return write(found -> {
+            found.clear();
+            return null;
+        });
+    }
+
+
+    /**
+     * Submits a command on the element that does not change the page.
+     */
+    public <T> CompletableFuture<T> read(Function<WebElement, T> command){
+        return driver.submit(false, element, () -> command.apply(element.join()));
+    }
+
+
+    /**
+     * Submits a command on the element that may change the page.
+     */
+    public <T> CompletableFuture<T> write(Function<WebElement, T> command){
+        return driver.submit(true, element, () -> command.apply(element.join()));
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.driver;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Launches browsers as described by a {@link DriverProfile}.
+ *
+ * Sessions on a grid share one HTTP client per grid URL. By default every remote session gets its own client,
+ * with its own connection pool and threads, which is what limits the number of sessions one JVM can drive.
+ */
+public final class DriverFactory {
+
+    private static final SharedClients SHARED_CLIENTS = new SharedClients();
+
+    private DriverFactory(){
+    }
+
+
+    /**
+     * Launches a new browser session.
+     *
+     * @param profile how the browser should be configured.
+     * @return the new driver.
+     */
+    public static WebDriver create(DriverProfile profile){
+        if (profile.getGridUrl() != null){
+            return remote(profile);
+        }
+        switch (profile.getBrowser()){
+            case CHROME:
+                return new ChromeDriver(chromium(new ChromeOptions(), profile));
+            case FIREFOX:
+                return new FirefoxDriver(firefox(profile));
+            default:
+                return new EdgeDriver(chromium(new EdgeOptions(), profile));
+        }
+    }
+
+
+    private static WebDriver remote(DriverProfile profile){
+        Capabilities options;
+        switch (profile.getBrowser()){
+            case CHROME:
+                options = chromium(new ChromeOptions(), profile);
+                break;
+            case FIREFOX:
+                options = firefox(profile);
+                break;
+            default:
+                options = chromium(new EdgeOptions(), profile);
+                break;
+        }
+        URL grid = profile.getGridUrl();
+        ClientConfig config = ClientConfig.defaultConfig().baseUrl(grid);
+        return new RemoteWebDriver(new HttpCommandExecutor(Collections.emptyMap(), config, SHARED_CLIENTS), options);
+    }
+
+
+    /**
+     * Applies a profile to Edge or Chrome options, both are Chromium based.
+     */
+    static <T extends ChromiumOptions<?>> T chromium(T options, DriverProfile profile){
+        options.setPageLoadStrategy(profile.getPageLoadStrategy());
+        if (profile.isBiDi()){
+            options.setCapability("webSocketUrl", true);
+        }
+        if (profile.getUnhandledPrompt() != null){
+            options.setUnhandledPromptBehaviour(profile.getUnhandledPrompt());
+        }
+
+        if (profile.isHeadless()){
+            options.addArguments("--headless=new");
+        }
+        if (profile.isExtensionsDisabled()){
+            options.addArguments("--disable-extensions");
+        }
+        if (profile.isFontsDisabled()){
+            options.addArguments("--disable-remote-fonts");
+        }
+
+        Dimension viewport = profile.getViewport();
+        if (viewport != null){
+            options.addArguments("--window-size=" + viewport.getWidth() + "," + viewport.getHeight());
+        }
+
+        if (profile.isImagesDisabled()){
+            Map<String, Object> prefs = new HashMap<>();
+            // 2 means "block" for the content settings
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+        return options;
+    }
+
+
+    static FirefoxOptions firefox(DriverProfile profile){
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(profile.getPageLoadStrategy());
+        if (profile.isBiDi()){
+            options.setCapability("webSocketUrl", true);
+        }
+        if (profile.getUnhandledPrompt() != null){
+            options.setUnhandledPromptBehaviour(profile.getUnhandledPrompt());
+        }
+
+        if (profile.isHeadless()){
+            options.addArguments("-headless");
+        }
+        if (profile.isImagesDisabled()){
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (profile.isFontsDisabled()){
+            options.addPreference("browser.display.use_document_fonts", 0);
+        }
+        if (profile.isExtensionsDisabled()){
+            options.addPreference("extensions.enabledScopes", 0);
+        }
+
+        Dimension viewport = profile.getViewport();
+        if (viewport != null){
+            options.addArguments("--width=" + viewport.getWidth(), "--height=" + viewport.getHeight());
+        }
+        return options;
+    }
+
+
+    /**
+     * Hands out one HTTP client per remote endpoint to every session on it. Closing a session leaves the client
+     * open for the others.
+     */
+    private static final class SharedClients implements HttpClient.Factory {
+
+        private final HttpClient.Factory delegate = HttpClient.Factory.createDefault();
+        private final Map<URI, HttpClient> clients = new ConcurrentHashMap<>();
+
+        @Override
+        public HttpClient createClient(ClientConfig config){
+            HttpClient client = clients.computeIfAbsent(config.baseUri(), uri -> delegate.createClient(config));
+            return new HttpClient(){
+                @Override
+                public HttpResponse execute(HttpRequest request){
+                    return client.execute(request);
+                }
+
+                @Override
+                public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener){
+                    return client.openSocket(request, listener);
+                }
+
+                @Override
+                public void close(){
+                    // the client serves the other sessions
+                }
+            };
+        }
+    }
+}
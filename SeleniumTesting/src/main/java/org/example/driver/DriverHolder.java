@@ -0,0 +1,130 @@
+package org.example.driver;
+
+import org.example.impact.ImpactRecorder;
+import org.example.locator.LocatorProfiler;
+import org.example.metrics.CommandLatencyListener;
+import org.example.metrics.CommandMetrics;
+import org.example.network.NetworkCache;
+import org.example.network.PageLoadRecorder;
+import org.example.network.ResourcePolicy;
+import org.example.trace.Span;
+import org.example.trace.TraceListener;
+import org.example.trace.Tracer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps one WebDriver per thread.
+ *
+ * When tests run in parallel every worker thread must drive its own browser, sharing a session between threads
+ * mixes up windows, cookies and page state. This holder lazily borrows a session from the {@link DriverPool}
+ * the first time a thread asks for one and gives it back when the thread releases it.
+ *
+ * The tests receive the session wrapped by the {@link LocatorProfiler}, which times the lookups, unless
+ * -Dlocator.profile=false is set; it rewrites XPath locators to CSS only with -Dlocator.rewrite=true.
+ * Every command is timed into the {@link CommandMetrics}, unless -Dcommand.metrics=false is set, and, with
+ * -Dtrace=true, traced by the {@link Tracer} together with the borrowing and the release of the session.
+ * With -Dpage.metrics=true, its navigations are measured by the {@link PageLoadRecorder}.
+ * With -Dimpact.record=true, what every test uses is recorded by the {@link ImpactRecorder}.
+ * When the {@link NetworkCache} is enabled, the requests of the session are recorded or replayed.
+ * The {@link ResourcePolicy} a test put in force is lifted when the session is released.
+ */
+public final class DriverHolder {
+
+    // the pooled session, handed back to the pool on release
+    private static final ThreadLocal<WebDriver> SESSION = new ThreadLocal<>();
+    // what the tests see: the session with its decorations
+    private static final ThreadLocal<WebDriver> DRIVER = new ThreadLocal<>();
+    // set when the next session of the thread must be a new browser rather than a warm one
+    private static final ThreadLocal<Boolean> FRESH = new ThreadLocal<>();
+
+    private DriverHolder(){
+    }
+
+
+    /**
+     * Returns the driver of the calling thread, borrowing one from the shared pool if the thread has none yet.
+     *
+     * @return the WebDriver confined to the current thread.
+     */
+    @SuppressWarnings("try")
+    public static WebDriver get(){
+        WebDriver driver = DRIVER.get();
+        if (driver == null){
+            try (Span ignored = Tracer.shared().span("driver.acquire", "driver")){
+                boolean fresh = Boolean.TRUE.equals(FRESH.get());
+                FRESH.remove();
+                WebDriver session = fresh ? DriverPool.shared().acquireFresh() : DriverPool.shared().acquire();
+                // a pooled session stays attached for its whole life, attaching again does nothing
+                NetworkCache.shared().attach(session);
+                SESSION.set(session);
+                driver = decorate(session);
+                DRIVER.set(driver);
+            }
+        }
+        return driver;
+    }
+
+
+    /**
+     * Makes the next session the calling thread borrows a newly launched browser, for example to retry a test
+     * in a browser the failed attempt did not touch.
+     *
+     * @param fresh true for a new browser, false to go back to the warm sessions of the pool.
+     */
+    public static void useFreshSession(boolean fresh){
+        if (fresh){
+            FRESH.set(true);
+        } else {
+            FRESH.remove();
+        }
+    }
+
+
+    /**
+     * Gives the driver of the calling thread back to the shared pool.
+     *
+     * Does nothing when the thread holds no driver.
+     */
+    @SuppressWarnings("try")
+    public static void release(){
+        WebDriver session = SESSION.get();
+        if (session != null){
+            try (Span ignored = Tracer.shared().span("driver.release", "driver")){
+                SESSION.remove();
+                DRIVER.remove();
+                ResourcePolicy.clear(session);
+                DriverPool.shared().release(session);
+            }
+        }
+    }
+
+
+    private static WebDriver decorate(WebDriver session){
+        WebDriver driver = session;
+        // innermost, so the commands issued by the other decorations are timed as well
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (Tracer.shared().isEnabled()){
+            listeners.add(new TraceListener(Tracer.shared()));
+        }
+        if (Boolean.parseBoolean(System.getProperty("command.metrics", "true"))){
+            listeners.add(new CommandLatencyListener(CommandMetrics.shared()));
+        }
+        if (ImpactRecorder.shared().isEnabled()){
+            listeners.add(ImpactRecorder.shared());
+        }
+        if (!listeners.isEmpty()){
+            driver = ListenerDecorator.decorate(driver, listeners.toArray(new WebDriverListener[0]));
+        }
+        if (Boolean.getBoolean("page.metrics")){
+            driver = PageLoadRecorder.wrap(driver);
+        }
+        if (Boolean.parseBoolean(System.getProperty("locator.profile", "true"))){
+            driver = LocatorProfiler.shared().wrap(driver);
+        }
+        return driver;
+    }
+}
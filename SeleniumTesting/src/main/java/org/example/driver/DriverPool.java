@@ -0,0 +1,339 @@
+package org.example.driver;
+
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * A pool of warm browser sessions shared by the test classes.
+ *
+ * Launching a browser is by far the slowest part of a test, so instead of creating a new driver in every
+ * @Before and quitting it in every @After, tests acquire() a session from this pool and release() it when done.
+ * Released sessions are reset (alerts, extra windows, every cookie and the storage of every origin the test
+ * visited) and handed to the next test. A session is quit and replaced after a configurable number of uses, or
+ * when it fails a health check.
+ *
+ * Clearing the state of the origins other than the one loaded needs the Chrome DevTools protocol, so only Edge
+ * and Chrome sessions are reused; the other sessions are quit when released.
+ *
+ * The shared pool is configured with system properties:
+ * driver.pool.size (idle sessions kept warm, default 2) and driver.pool.maxUses (default 25).
+ * The browsers are launched by the {@link DriverFactory} with the profile read from the system properties,
+ * see {@link DriverProfile}.
+ * A report is written to target/driver-pool-report.txt when the JVM exits.
+ */
+public class DriverPool {
+
+    private static final DriverPool SHARED = new DriverPool(
+            () -> DriverFactory.create(DriverProfile.fromSystemProperties()),
+            Integer.getInteger("driver.pool.size", 2),
+            Integer.getInteger("driver.pool.maxUses", 25));
+
+    static {
+        // quitting the warm browsers and writing the report once the test JVM is done
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            SHARED.shutdown();
+            SHARED.getReport().writeTo(Paths.get("target", "driver-pool-report.txt"));
+        }));
+    }
+
+    private final Supplier<WebDriver> factory;
+    private final int maxUses;
+    private final BlockingQueue<PooledDriver> idle;
+    private final Map<WebDriver, PooledDriver> leased = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final DriverPoolReport report = new DriverPoolReport();
+
+
+    /**
+     * Creates a pool.
+     *
+     * @param factory  creates a new browser session when no warm one is available.
+     * @param size     the maximum number of idle sessions kept warm.
+     * @param maxUses  how many tests a session may serve before it is recycled.
+     */
+    public DriverPool(Supplier<WebDriver> factory, int size, int maxUses){
+        if (size < 1 || maxUses < 1){
+            throw new IllegalArgumentException("size and maxUses must be positive");
+        }
+        this.factory = factory;
+        this.maxUses = maxUses;
+        this.idle = new LinkedBlockingQueue<>(size);
+    }
+
+
+    /**
+     * Returns the pool shared by all the test classes of the JVM.
+     *
+     * @return the shared pool.
+     */
+    public static DriverPool shared(){
+        return SHARED;
+    }
+
+
+    /**
+     * Hands out a browser session.
+     *
+     * A warm idle session is returned when a healthy one exists, otherwise a new browser is launched.
+     * The pool never blocks: when all sessions are leased a new one is created.
+     *
+     * @return a clean WebDriver that must be given back with {@link #release(WebDriver)}.
+     */
+    public WebDriver acquire(){
+        return acquire(true);
+    }
+
+
+    /**
+     * Hands out a newly launched browser session, never a warm one.
+     *
+     * Used to retry a failed test in a browser nothing ran in before. The session joins the pool when it is
+     * released, like any other.
+     *
+     * @return a new WebDriver that must be given back with {@link #release(WebDriver)}.
+     */
+    public WebDriver acquireFresh(){
+        return acquire(false);
+    }
+
+
+    private WebDriver acquire(boolean reuse){
+        long start = System.nanoTime();
+
+        PooledDriver pooled = reuse ? idle.poll() : null;
+        // skipping over sessions that died while they were idle
+        while (pooled != null && !isHealthy(pooled.driver)){
+            report.recordUnhealthy();
+            quitQuietly(pooled.driver);
+            pooled = idle.poll();
+        }
+
+        boolean warm = pooled != null;
+        if (!warm){
+            pooled = new PooledDriver(factory.get());
+        }
+        pooled.uses++;
+        leased.put(pooled.driver, pooled);
+
+        report.recordAcquire(warm, System.nanoTime() - start);
+        return pooled.driver;
+    }
+
+
+    /**
+     * Gives a session back to the pool.
+     *
+     * The session is reset so the next test finds it like a freshly started browser. It is quit instead
+     * when it reached maxUses, when the reset fails or when the pool already holds enough idle sessions.
+     *
+     * @param driver the driver previously returned by {@link #acquire()}.
+     */
+    public void release(WebDriver driver){
+        if (driver == null){
+            return;
+        }
+
+        PooledDriver pooled = leased.remove(driver);
+        if (pooled == null){
+            // not one of ours, simply quitting it
+            quitQuietly(driver);
+            return;
+        }
+
+        // a session whose state cannot be cleared is not handed to another test
+        if (pooled.uses >= maxUses || !(driver instanceof HasCdp)){
+            report.recordRecycle();
+            quitQuietly(driver);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean clean = reset(driver);
+        report.recordReset(System.nanoTime() - start);
+
+        if (!clean){
+            report.recordUnhealthy();
+            quitQuietly(driver);
+        } else if (!idle.offer(pooled)){
+            quitQuietly(driver);
+        }
+    }
+
+
+    /**
+     * Quits every idle and leased session.
+     */
+    public void shutdown(){
+        List<PooledDriver> all = new ArrayList<>();
+        idle.drainTo(all);
+        synchronized (leased){
+            all.addAll(leased.values());
+            leased.clear();
+        }
+        for (PooledDriver pooled : all){
+            quitQuietly(pooled.driver);
+        }
+    }
+
+
+    /**
+     * @return the timing report of this pool.
+     */
+    public DriverPoolReport getReport(){
+        return report;
+    }
+
+
+    /**
+     * Brings a session back to a neutral state between tests.
+     *
+     * Dismisses any open alert, closes every window but one and parks it on about:blank, deletes every cookie of
+     * the browser, clears the storage of every origin the windows visited, resets the history and restores the
+     * default timeouts.
+     *
+     * deleteAllCookies() and a localStorage.clear() script only reach the origin that is loaded, while a test may
+     * end on another site than the one it logged in to. The origins are read from the navigation history of every
+     * window through DevTools, which also clears the cookies of all the sites at once.
+     *
+     * @param driver the driver to reset, supporting the DevTools protocol.
+     * @return true if the session is clean and can be reused, false otherwise.
+     */
+    private boolean reset(WebDriver driver){
+        HasCdp cdp = (HasCdp) driver;
+        try {
+            // dismissing any alert left open by the test
+            try {
+                driver.switchTo().alert().dismiss();
+            } catch (NoAlertPresentException ignored){
+                // nothing to dismiss
+            }
+
+            // collecting the origins of every window, then closing every window except the first one
+            Set<String> origins = new LinkedHashSet<>();
+            Set<String> handles = driver.getWindowHandles();
+            Iterator<String> iterator = handles.iterator();
+            String keep = iterator.next();
+            while (iterator.hasNext()){
+                driver.switchTo().window(iterator.next());
+                origins.addAll(visitedOrigins(cdp));
+                driver.close();
+            }
+            driver.switchTo().window(keep);
+            origins.addAll(visitedOrigins(cdp));
+            driver.get("about:blank");
+
+            // clearing the cookies of every site and the storage of every origin visited
+            cdp.executeCdpCommand("Network.clearBrowserCookies", new HashMap<>());
+            for (String origin : origins){
+                Map<String, Object> storage = new HashMap<>();
+                storage.put("origin", origin);
+                storage.put("storageTypes", "all");
+                cdp.executeCdpCommand("Storage.clearDataForOrigin", storage);
+
+                // session storage belongs to the window and is not part of "all"
+                Map<String, Object> storageId = new HashMap<>();
+                storageId.put("securityOrigin", origin);
+                storageId.put("isLocalStorage", false);
+                cdp.executeCdpCommand("DOMStorage.clear", Collections.singletonMap("storageId", storageId));
+            }
+            cdp.executeCdpCommand("Page.resetNavigationHistory", new HashMap<>());
+
+            // tests like WaitMethods change the timeouts, putting back the defaults
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(300));
+            return true;
+        } catch (WebDriverException | IllegalStateException e){
+            return false;
+        }
+    }
+
+
+    /**
+     * @return the http and https origins in the navigation history of the current window.
+     */
+    @SuppressWarnings("unchecked")
+    private static Set<String> visitedOrigins(HasCdp cdp){
+        Map<String, Object> history = cdp.executeCdpCommand("Page.getNavigationHistory", new HashMap<>());
+        Set<String> origins = new LinkedHashSet<>();
+        for (Map<String, Object> entry : (List<Map<String, Object>>) history.get("entries")){
+            String origin = origin((String) entry.get("url"));
+            if (origin != null){
+                origins.add(origin);
+            }
+        }
+        return origins;
+    }
+
+
+    /**
+     * @return scheme://host[:port] of a URL, null for anything but http and https.
+     */
+    static String origin(String url){
+        if (url == null){
+            return null;
+        }
+        try {
+            URI uri = new URI(url);
+            String scheme = uri.getScheme();
+            if (uri.getHost() == null || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))){
+                return null;
+            }
+            return scheme.toLowerCase() + "://" + uri.getHost() + (uri.getPort() < 0 ? "" : ":" + uri.getPort());
+        } catch (URISyntaxException e){
+            return null;
+        }
+    }
+
+
+    /**
+     * A cheap health check: a session that can report its current window is alive.
+     */
+    private boolean isHealthy(WebDriver driver){
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e){
+            return false;
+        }
+    }
+
+
+    private void quitQuietly(WebDriver driver){
+        try {
+            driver.quit();
+        } catch (WebDriverException ignored){
+            // the session is already gone
+        }
+    }
+
+
+    /**
+     * A driver together with the number of tests it has served.
+     */
+    private static class PooledDriver {
+        private final WebDriver driver;
+        private int uses;
+
+        private PooledDriver(WebDriver driver){
+            this.driver = driver;
+        }
+    }
+}
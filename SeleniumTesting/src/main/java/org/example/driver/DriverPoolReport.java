@@ -0,0 +1,108 @@
+package org.example.driver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects timing numbers for a {@link DriverPool} and renders them as a small text report.
+ *
+ * A cold start is an acquisition that had to launch a brand-new browser, a warm acquisition is one
+ * that was served from the idle sessions. The "before" figures estimate what the suite would have
+ * spent if every acquisition had been a cold start (which is what the old new EdgeDriver() per test did),
+ * the "after" figures are what was actually spent.
+ */
+public class DriverPoolReport {
+
+    private final long suiteStart = System.nanoTime();
+
+    private final AtomicLong coldStarts = new AtomicLong();
+    private final AtomicLong coldNanos = new AtomicLong();
+    private final AtomicLong warmAcquires = new AtomicLong();
+    private final AtomicLong warmNanos = new AtomicLong();
+    private final AtomicLong resetNanos = new AtomicLong();
+    private final AtomicLong recycled = new AtomicLong();
+    private final AtomicLong unhealthy = new AtomicLong();
+
+
+    /**
+     * Records a single acquisition.
+     *
+     * @param warm  true if the session came from the idle sessions, false if a new browser was launched.
+     * @param nanos time spent inside acquire().
+     */
+    void recordAcquire(boolean warm, long nanos){
+        if (warm){
+            warmAcquires.incrementAndGet();
+            warmNanos.addAndGet(nanos);
+        } else {
+            coldStarts.incrementAndGet();
+            coldNanos.addAndGet(nanos);
+        }
+    }
+
+    void recordReset(long nanos){
+        resetNanos.addAndGet(nanos);
+    }
+
+    void recordRecycle(){
+        recycled.incrementAndGet();
+    }
+
+    void recordUnhealthy(){
+        unhealthy.incrementAndGet();
+    }
+
+
+    /**
+     * Builds the human readable report.
+     *
+     * @return the report text.
+     */
+    public String render(){
+        long cold = coldStarts.get();
+        long warm = warmAcquires.get();
+        long total = cold + warm;
+
+        double coldAvgMs = cold == 0 ? 0 : coldNanos.get() / 1e6 / cold;
+        double warmAvgMs = warm == 0 ? 0 : warmNanos.get() / 1e6 / warm;
+
+        // before: every acquisition pays the cold start price
+        double beforeStartupMs = coldAvgMs * total;
+        // after: what we actually paid, including the resets done between tests
+        double afterStartupMs = (coldNanos.get() + warmNanos.get() + resetNanos.get()) / 1e6;
+        double suiteMs = (System.nanoTime() - suiteStart) / 1e6;
+
+        StringBuilder report = new StringBuilder();
+        report.append("=== WebDriver pool report ===\n");
+        report.append(String.format("acquisitions          : %d (%d cold, %d warm)%n", total, cold, warm));
+        report.append(String.format("avg cold start        : %.1f ms%n", coldAvgMs));
+        report.append(String.format("avg warm acquire      : %.1f ms%n", warmAvgMs));
+        report.append(String.format("total reset time      : %.1f ms%n", resetNanos.get() / 1e6));
+        report.append(String.format("recycled / unhealthy  : %d / %d%n", recycled.get(), unhealthy.get()));
+        report.append(String.format("startup before (est.) : %.1f ms%n", beforeStartupMs));
+        report.append(String.format("startup after         : %.1f ms%n", afterStartupMs));
+        report.append(String.format("suite time after      : %.1f ms%n", suiteMs));
+        report.append(String.format("suite time before (est.): %.1f ms%n", suiteMs - afterStartupMs + beforeStartupMs));
+        return report.toString();
+    }
+
+
+    /**
+     * Writes the report to the given file, creating parent directories when needed.
+     *
+     * @param file where the report should be written.
+     */
+    public void writeTo(Path file){
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, render().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e){
+            System.err.println("Could not write the driver pool report: " + e.getMessage());
+        }
+    }
+}
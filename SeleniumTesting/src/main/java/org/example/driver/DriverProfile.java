@@ -0,0 +1,277 @@
+package org.example.driver;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.UnexpectedAlertBehaviour;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Locale;
+
+/**
+ * Describes how a browser should be launched: which browser, headed or headless, and which costly
+ * features (images, web fonts, extensions) are turned off.
+ *
+ * Profiles are built with {@link #builder()} or read from system properties with {@link #fromSystemProperties()}:
+ * browser (edge, chrome or firefox, default edge), browser.headless (default false), browser.lightweight
+ * (turns off images, fonts and extensions and uses the eager page-load strategy, default false),
+ * browser.pageLoadStrategy (normal, eager or none, overrides the lightweight one), browser.bidi (opens the
+ * WebDriver BiDi connection, default false), browser.viewport (for example 1280x800, default unset),
+ * browser.unhandledPrompt (what the driver does with a dialog no test expected: accept, dismiss, accept and notify,
+ * dismiss and notify or ignore, default unset: the driver default, dismiss and notify) and grid.url (a Selenium
+ * Grid or any remote WebDriver endpoint to open the sessions on, default unset: local browsers).
+ */
+public final class DriverProfile {
+
+    /**
+     * The browsers a profile can launch.
+     */
+    public enum Browser {
+        EDGE, CHROME, FIREFOX
+    }
+
+    private final String name;
+    private final Browser browser;
+    private final boolean headless;
+    private final boolean imagesDisabled;
+    private final boolean fontsDisabled;
+    private final boolean extensionsDisabled;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final boolean bidi;
+    private final Dimension viewport;
+    private final UnexpectedAlertBehaviour unhandledPrompt;
+    private final URL gridUrl;
+
+    private DriverProfile(Builder builder){
+        this.name = builder.name;
+        this.browser = builder.browser;
+        this.headless = builder.headless;
+        this.imagesDisabled = builder.imagesDisabled;
+        this.fontsDisabled = builder.fontsDisabled;
+        this.extensionsDisabled = builder.extensionsDisabled;
+        this.pageLoadStrategy = builder.pageLoadStrategy;
+        this.bidi = builder.bidi;
+        this.viewport = builder.viewport;
+        this.unhandledPrompt = builder.unhandledPrompt;
+        this.gridUrl = builder.gridUrl;
+    }
+
+
+    public static Builder builder(){
+        return new Builder();
+    }
+
+
+    /**
+     * Reads the profile from the system properties described in the class comment.
+     *
+     * @return the configured profile, a headed Edge with default settings when nothing is set.
+     */
+    public static DriverProfile fromSystemProperties(){
+        Builder builder = builder()
+                .browser(Browser.valueOf(System.getProperty("browser", "edge").trim().toUpperCase(Locale.ROOT)))
+                .headless(Boolean.getBoolean("browser.headless"));
+
+        if (Boolean.getBoolean("browser.lightweight")){
+            builder.lightweight();
+        }
+        String pageLoadStrategy = System.getProperty("browser.pageLoadStrategy");
+        if (pageLoadStrategy != null && !pageLoadStrategy.trim().isEmpty()){
+            PageLoadStrategy strategy = PageLoadStrategy.fromString(pageLoadStrategy.trim().toLowerCase(Locale.ROOT));
+            if (strategy == null){
+                throw new IllegalArgumentException("Unknown page load strategy " + pageLoadStrategy);
+            }
+            builder.pageLoadStrategy(strategy);
+        }
+        builder.bidi(Boolean.getBoolean("browser.bidi"));
+
+        String viewport = System.getProperty("browser.viewport");
+        if (viewport != null && !viewport.trim().isEmpty()){
+            String[] size = viewport.trim().toLowerCase(Locale.ROOT).split("x");
+            builder.viewport(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+        }
+
+        String unhandledPrompt = System.getProperty("browser.unhandledPrompt");
+        if (unhandledPrompt != null && !unhandledPrompt.trim().isEmpty()){
+            UnexpectedAlertBehaviour behaviour =
+                    UnexpectedAlertBehaviour.fromString(unhandledPrompt.trim().toLowerCase(Locale.ROOT));
+            if (behaviour == null){
+                throw new IllegalArgumentException("Unknown unhandled prompt behaviour " + unhandledPrompt);
+            }
+            builder.unhandledPrompt(behaviour);
+        }
+
+        String gridUrl = System.getProperty("grid.url");
+        if (gridUrl != null && !gridUrl.trim().isEmpty()){
+            try {
+                builder.grid(new URL(gridUrl.trim()));
+            } catch (MalformedURLException e){
+                throw new IllegalArgumentException("Invalid grid.url " + gridUrl, e);
+            }
+        }
+        return builder.build();
+    }
+
+
+    public String getName(){
+        return name;
+    }
+
+    public Browser getBrowser(){
+        return browser;
+    }
+
+    public boolean isHeadless(){
+        return headless;
+    }
+
+    public boolean isImagesDisabled(){
+        return imagesDisabled;
+    }
+
+    public boolean isFontsDisabled(){
+        return fontsDisabled;
+    }
+
+    public boolean isExtensionsDisabled(){
+        return extensionsDisabled;
+    }
+
+    public PageLoadStrategy getPageLoadStrategy(){
+        return pageLoadStrategy;
+    }
+
+    /**
+     * @return true if the session opens a WebDriver BiDi connection, for commands that must not block such as
+     *         navigations in several tabs at once.
+     */
+    public boolean isBiDi(){
+        return bidi;
+    }
+
+    /**
+     * @return the window size to launch with, null to keep the browser default.
+     */
+    public Dimension getViewport(){
+        return viewport;
+    }
+
+    /**
+     * @return what the driver does with a dialog open when a command is sent, null for the driver default.
+     */
+    public UnexpectedAlertBehaviour getUnhandledPrompt(){
+        return unhandledPrompt;
+    }
+
+    /**
+     * @return the remote endpoint the sessions are opened on, null to launch local browsers.
+     */
+    public URL getGridUrl(){
+        return gridUrl;
+    }
+
+
+    @Override
+    public String toString(){
+        return name != null ? name : browser.name().toLowerCase(Locale.ROOT) + (headless ? "-headless" : "-headed");
+    }
+
+
+    /**
+     * Builds a {@link DriverProfile}, every option defaults to the plain headed Edge.
+     */
+    public static final class Builder {
+        private String name;
+        private Browser browser = Browser.EDGE;
+        private boolean headless;
+        private boolean imagesDisabled;
+        private boolean fontsDisabled;
+        private boolean extensionsDisabled;
+        private PageLoadStrategy pageLoadStrategy = PageLoadStrategy.NORMAL;
+        private boolean bidi;
+        private Dimension viewport;
+        private UnexpectedAlertBehaviour unhandledPrompt;
+        private URL gridUrl;
+
+        private Builder(){
+        }
+
+        /**
+         * Names the profile in reports, the default name is derived from the browser and the headless flag.
+         */
+        public Builder name(String name){
+            this.name = name;
+            return this;
+        }
+
+        public Builder browser(Browser browser){
+            this.browser = browser;
+            return this;
+        }
+
+        public Builder headless(boolean headless){
+            this.headless = headless;
+            return this;
+        }
+
+        public Builder imagesDisabled(boolean imagesDisabled){
+            this.imagesDisabled = imagesDisabled;
+            return this;
+        }
+
+        public Builder fontsDisabled(boolean fontsDisabled){
+            this.fontsDisabled = fontsDisabled;
+            return this;
+        }
+
+        public Builder extensionsDisabled(boolean extensionsDisabled){
+            this.extensionsDisabled = extensionsDisabled;
+            return this;
+        }
+
+        public Builder pageLoadStrategy(PageLoadStrategy pageLoadStrategy){
+            this.pageLoadStrategy = pageLoadStrategy;
+            return this;
+        }
+
+        public Builder bidi(boolean bidi){
+            this.bidi = bidi;
+            return this;
+        }
+
+        public Builder viewport(int width, int height){
+            this.viewport = new Dimension(width, height);
+            return this;
+        }
+
+        /**
+         * Sets what the driver does with a dialog that is open when a command is sent, instead of failing it.
+         */
+        public Builder unhandledPrompt(UnexpectedAlertBehaviour unhandledPrompt){
+            this.unhandledPrompt = unhandledPrompt;
+            return this;
+        }
+
+        /**
+         * Opens the sessions on a Selenium Grid, or any remote WebDriver endpoint, instead of local browsers.
+         */
+        public Builder grid(URL gridUrl){
+            this.gridUrl = gridUrl;
+            return this;
+        }
+
+        /**
+         * Turns off images, web fonts and extensions and returns from navigations once the DOM is ready.
+         */
+        public Builder lightweight(){
+            return imagesDisabled(true)
+                    .fontsDisabled(true)
+                    .extensionsDisabled(true)
+                    .pageLoadStrategy(PageLoadStrategy.EAGER);
+        }
+
+        public DriverProfile build(){
+            return new DriverProfile(this);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.driver;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Helpers for the dynamic proxies that decorate a driver (locator profiling, page load metrics...).
+ */
+public final class DriverProxies {
+
+    private DriverProxies(){
+    }
+
+
+    /**
+     * Lists every public interface of an object so its proxy can be cast to the same types
+     * (JavascriptExecutor, HasDevTools, HasCdp...).
+     *
+     * @param target the object to proxy.
+     * @param extra  interfaces the proxy must implement as well.
+     * @return the interfaces for {@link java.lang.reflect.Proxy#newProxyInstance}.
+     */
+    public static Class<?>[] interfacesOf(Object target, Class<?>... extra){
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()){
+            for (Class<?> implemented : type.getInterfaces()){
+                if (Modifier.isPublic(implemented.getModifiers())){
+                    interfaces.add(implemented);
+                }
+            }
+        }
+        Collections.addAll(interfaces, extra);
+        return interfaces.toArray(new Class<?>[0]);
+    }
+
+
+    /**
+     * Calls a method on the proxied object, rethrowing what the method threw instead of a reflection exception.
+     */
+    public static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e){
+            throw e.getCause();
+        }
+    }
+}
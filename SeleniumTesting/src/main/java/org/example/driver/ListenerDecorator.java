@@ -0,0 +1,124 @@
+package org.example.driver;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fires the beforeAnyCall, afterAnyCall and onError events of {@link WebDriverListener}s around every call made
+ * on a driver and on the objects it returns (elements, navigation, windows, alerts...).
+ *
+ * It does what Selenium's EventFiringDecorator does for these three events at a fraction of the cost: the
+ * EventFiringDecorator of Selenium 4.20 generates a new class for every element it returns, which adds
+ * milliseconds to every findElement. This one uses JDK proxies, whose classes are generated once per set of
+ * interfaces. The specific events (beforeClick, afterGet...) are not fired.
+ */
+public final class ListenerDecorator {
+
+    private ListenerDecorator(){
+    }
+
+
+    /**
+     * @param driver    the driver to decorate.
+     * @param listeners the listeners to notify, in order before a call and in reverse order after it.
+     * @return the decorated driver, which implements every interface of the original and {@link WrapsDriver}.
+     */
+    public static WebDriver decorate(WebDriver driver, WebDriverListener... listeners){
+        return new Decoration(driver, listeners).driverProxy;
+    }
+
+
+    private static class Decoration {
+
+        private final WebDriver driver;
+        private final WebDriverListener[] listeners;
+        private final WebDriver driverProxy;
+
+        private Decoration(WebDriver driver, WebDriverListener[] listeners){
+            this.driver = driver;
+            this.listeners = listeners;
+            this.driverProxy = (WebDriver) proxy(driver, WebDriver.class, WrapsDriver.class);
+        }
+
+        private Object proxy(Object target, Class<?>... extra){
+            return Proxy.newProxyInstance(ListenerDecorator.class.getClassLoader(),
+                    DriverProxies.interfacesOf(target, extra), new Listening(target));
+        }
+
+        // the drivers, elements and other objects a call returned, decorated as well
+        private Object decorateResult(Object result){
+            if (result == driver){
+                return driverProxy;
+            }
+            if (result instanceof WebElement){
+                return proxy(result, WebElement.class, WrapsElement.class);
+            }
+            if (result instanceof List && !((List<?>) result).isEmpty() && ((List<?>) result).get(0) instanceof WebElement){
+                List<Object> elements = new ArrayList<>();
+                for (Object element : (List<?>) result){
+                    elements.add(decorateResult(element));
+                }
+                return elements;
+            }
+            if (result instanceof WebDriver.Navigation || result instanceof WebDriver.Options
+                    || result instanceof WebDriver.TargetLocator || result instanceof WebDriver.Window
+                    || result instanceof WebDriver.Timeouts || result instanceof Alert){
+                return proxy(result);
+            }
+            return result;
+        }
+
+
+        private class Listening implements InvocationHandler {
+
+            private final Object target;
+
+            private Listening(Object target){
+                this.target = target;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getDeclaringClass() == Object.class){
+                    return DriverProxies.invoke(target, method, args);
+                }
+                if (method.getParameterCount() == 0){
+                    if (target instanceof WebDriver && "getWrappedDriver".equals(method.getName())){
+                        return target;
+                    }
+                    if (target instanceof WebElement && "getWrappedElement".equals(method.getName())){
+                        return target;
+                    }
+                }
+
+                for (WebDriverListener listener : listeners){
+                    listener.beforeAnyCall(target, method, args);
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e){
+                    for (int i = listeners.length - 1; i >= 0; i--){
+                        listeners[i].onError(target, method, args, e);
+                    }
+                    throw e.getCause();
+                }
+                for (int i = listeners.length - 1; i >= 0; i--){
+                    listeners[i].afterAnyCall(target, method, args, result);
+                }
+                return decorateResult(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package org.example.fixture;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process HTTP server that serves recorded copies of the pages the tests visit.
+ *
+ * Every {@link Site} gets its own host, http://&lt;site&gt;.localhost:&lt;port&gt;/, so each one keeps its own origin,
+ * cookies and storage exactly like the real site. Browsers resolve *.localhost to the loopback address on their own.
+ * The pages are read from fixtures/&lt;site&gt;/ on the classpath once, when the server starts, and every response
+ * is a prepared byte array written as is: no file access and no copying per request. Unchanged pages are answered
+ * with 304 Not Modified when the browser revalidates them.
+ *
+ * The shared server is started on first use, on the port given by fixture.port (default 0, any free port), and
+ * stopped when the JVM exits. Its request counts are written to target/fixture-server.txt.
+ */
+public class FixtureServer {
+
+    private static FixtureServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Map<String, Resource>> sites = new HashMap<>();
+    private final Map<String, Resource> singlePageIndexes = new HashMap<>();
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong notFound = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+
+    /**
+     * Loads the pages of every site and starts listening on the loopback address.
+     *
+     * @param port the port to listen on, 0 for any free port.
+     * @throws UncheckedIOException if a page is missing or the port cannot be bound.
+     */
+    public FixtureServer(int port){
+        for (Site site : Site.values()){
+            Map<String, Resource> pages = new HashMap<>();
+            for (String page : site.getPages()){
+                pages.put("/" + page, load("fixtures/" + site.getName() + "/" + page));
+            }
+            // the root of every site is its index page
+            Resource index = pages.get("/index.html");
+            if (index != null){
+                pages.put("/", index);
+                if (site.isSinglePage()){
+                    singlePageIndexes.put(site.getName(), index);
+                }
+            }
+            sites.put(site.getName(), pages);
+        }
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 64);
+        } catch (IOException e){
+            throw new UncheckedIOException("Could not start the fixture server on port " + port, e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+
+        // the dispatcher thread inherits the daemon flag of the thread that starts it, so it never keeps the JVM alive
+        Thread starter = new Thread(server::start, "fixture-server-start");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * @return the server shared by all the test classes of the JVM, started on first use.
+     */
+    public static synchronized FixtureServer shared(){
+        if (shared == null){
+            FixtureServer server = new FixtureServer(Integer.getInteger("fixture.port", 0));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                server.writeTo(Paths.get("target", "fixture-server.txt"));
+            }));
+            shared = server;
+        }
+        return shared;
+    }
+
+
+    /**
+     * @return the port the server listens on.
+     */
+    public int getPort(){
+        return server.getAddress().getPort();
+    }
+
+
+    /**
+     * @param site a site.
+     * @return the root URL of the local copy of the site, ending with a slash.
+     */
+    public String baseUrl(Site site){
+        return "http://" + site.getName() + ".localhost:" + getPort() + "/";
+    }
+
+
+    /**
+     * Stops listening, the requests being answered are given one second to complete.
+     */
+    public void stop(){
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+
+    /**
+     * @return the number of requests answered, by outcome, and the bytes sent.
+     */
+    public String render(){
+        return "=== Fixture server ===\n"
+                + "port:          " + getPort() + "\n"
+                + "served:        " + served.get() + "\n"
+                + "not modified:  " + notModified.get() + "\n"
+                + "not found:     " + notFound.get() + "\n"
+                + "bytes sent:    " + bytes.get() + "\n";
+    }
+
+
+    /**
+     * Writes the report to the given file, nothing is written if no request was answered.
+     */
+    public void writeTo(Path file){
+        if (served.get() + notModified.get() + notFound.get() == 0){
+            return;
+        }
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, render().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e){
+            System.err.println("Could not write the fixture server report: " + e.getMessage());
+        }
+    }
+
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Resource resource = resolve(exchange.getRequestHeaders().getFirst("Host"), exchange.getRequestURI().getPath());
+            if (resource == null){
+                notFound.incrementAndGet();
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("Content-Type", resource.contentType);
+            headers.set("ETag", resource.etag);
+            headers.set("Cache-Control", "no-cache");
+
+            if (resource.etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))){
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            boolean head = "HEAD".equals(exchange.getRequestMethod());
+            exchange.sendResponseHeaders(200, head ? -1 : resource.body.length);
+            if (!head){
+                try (OutputStream body = exchange.getResponseBody()){
+                    body.write(resource.body);
+                }
+                bytes.addAndGet(resource.body.length);
+            }
+            served.incrementAndGet();
+        } finally {
+            exchange.close();
+        }
+    }
+
+
+    /**
+     * Finds the page of a request from the site in its host name and its path.
+     */
+    private Resource resolve(String host, String path){
+        if (host == null){
+            return null;
+        }
+        String name = host.toLowerCase(Locale.ROOT);
+        int colon = name.lastIndexOf(':');
+        if (colon >= 0){
+            name = name.substring(0, colon);
+        }
+        if (!name.endsWith(".localhost")){
+            return null;
+        }
+        String site = name.substring(0, name.length() - ".localhost".length());
+        Map<String, Resource> pages = sites.get(site);
+        if (pages == null){
+            return null;
+        }
+        Resource resource = pages.get(path);
+        if (resource == null && path.endsWith(".html")){
+            // the routes of a single page application all load the same page
+            resource = singlePageIndexes.get(site);
+        }
+        return resource;
+    }
+
+
+    private static Resource load(String name){
+        try (InputStream in = FixtureServer.class.getClassLoader().getResourceAsStream(name)){
+            if (in == null){
+                throw new UncheckedIOException(new IOException("Missing fixture " + name));
+            }
+            byte[] body = in.readAllBytes();
+            return new Resource(body, contentType(name), "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"");
+        } catch (IOException e){
+            throw new UncheckedIOException("Could not read the fixture " + name, e);
+        }
+    }
+
+
+    private static String contentType(String name){
+        if (name.endsWith(".html")){
+            return "text/html; charset=utf-8";
+        }
+        if (name.endsWith(".css")){
+            return "text/css; charset=utf-8";
+        }
+        if (name.endsWith(".js")){
+            return "application/javascript; charset=utf-8";
+        }
+        if (name.endsWith(".svg")){
+            return "image/svg+xml";
+        }
+        if (name.endsWith(".png")){
+            return "image/png";
+        }
+        return "application/octet-stream";
+    }
+
+
+    private static class Resource {
+        private final byte[] body;
+        private final String contentType;
+        private final String etag;
+
+        private Resource(byte[] body, String contentType, String etag){
+            this.body = body;
+            this.contentType = contentType;
+            this.etag = etag;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.fixture;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * The web sites the tests visit, with the pages of each one that are mirrored by the {@link FixtureServer}.
+ *
+ * The tests build their URLs with {@link #url(String)} instead of hard-coding them. By default the URLs point at the
+ * local fixture server, so the suites run offline against recorded copies of the pages; with -Dsites.live=true they
+ * point at the real sites again. A single site can also be redirected with -Dsite.&lt;name&gt;.baseUrl, for example
+ * -Dsite.saucedemo.baseUrl=https://www.saucedemo.com/.
+ */
+public enum Site {
+
+    SAUCEDEMO("saucedemo", "https://www.saucedemo.com/", true,
+            "index.html", "swag.css", "swag.js"),
+    TESTING_BLOG("testing-blog", "https://only-testing-blog.blogspot.com/", false,
+            "index.html"),
+    SELENIUM_WEB("selenium-web", "https://www.selenium.dev/selenium/web/", false,
+            "alerts.html"),
+    GOOGLE("google", "https://google.com/", false,
+            "index.html");
+
+    private final String name;
+    private final String liveUrl;
+    private final boolean singlePage;
+    private final String[] pages;
+
+    Site(String name, String liveUrl, boolean singlePage, String... pages){
+        this.name = name;
+        this.liveUrl = liveUrl;
+        this.singlePage = singlePage;
+        this.pages = pages;
+    }
+
+
+    /**
+     * @return the short name of the site, also the name of its fixture directory and of its local host.
+     */
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * @return the URL of the real site.
+     */
+    public String getLiveUrl(){
+        return liveUrl;
+    }
+
+    /**
+     * @return true when the site is a single page application, whose every HTML path is answered with index.html.
+     */
+    public boolean isSinglePage(){
+        return singlePage;
+    }
+
+    /**
+     * @return the files mirrored under fixtures/&lt;name&gt;/ on the classpath.
+     */
+    public String[] getPages(){
+        return pages.clone();
+    }
+
+
+    /**
+     * Returns the base URL the tests must use for this site, ending with a slash.
+     *
+     * @return the configured URL, the fixture server by default.
+     */
+    public String baseUrl(){
+        String configured = System.getProperty("site." + name + ".baseUrl");
+        if (configured != null && !configured.trim().isEmpty()){
+            configured = configured.trim();
+            return configured.endsWith("/") ? configured : configured + "/";
+        }
+        if (Boolean.getBoolean("sites.live")){
+            return liveUrl;
+        }
+        return FixtureServer.shared().baseUrl(this);
+    }
+
+
+    /**
+     * @param path a path relative to the site root, without a leading slash, for example "inventory.html".
+     * @return the absolute URL of the page.
+     */
+    public String url(String path){
+        return baseUrl() + path;
+    }
+
+
+    /**
+     * Finds the page of this site an absolute URL points at, on the fixture server or on the real site.
+     *
+     * @param url an absolute URL.
+     * @return the path of the page relative to the site root, "" for the root, null when the URL is not on this site.
+     */
+    public String pathOf(String url){
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e){
+            return null;
+        }
+        if (uri.getHost() == null || uri.getRawPath() == null){
+            return null;
+        }
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        String path = uri.getRawPath();
+        if (host.equals(name + ".localhost")){
+            return path.startsWith("/") ? path.substring(1) : path;
+        }
+        URI live = URI.create(liveUrl);
+        if (host.equals(live.getHost()) && path.startsWith(live.getPath())){
+            return path.substring(live.getPath().length());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.impact;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The files changed since a git revision, with the lines changed in each one.
+ *
+ * Paths are relative to the working directory, the project directory, and changes outside of it are left out.
+ */
+public class Diff {
+
+    private static final Pattern HUNK = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+
+    private final Map<String, File> files = new LinkedHashMap<>();
+
+
+    /**
+     * Diffs the working tree, uncommitted changes included, against a revision.
+     *
+     * @param base the revision, for example origin/main or HEAD~1.
+     * @return the changes.
+     * @throws IOException if git cannot be run or fails, for example on an unknown revision.
+     */
+    public static Diff since(String base) throws IOException {
+        Process git = new ProcessBuilder("git", "diff", "--unified=0", "--no-color", "--no-renames", "--relative", base)
+                .redirectErrorStream(true)
+                .start();
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(git.getInputStream(), StandardCharsets.UTF_8))){
+            for (String line = reader.readLine(); line != null; line = reader.readLine()){
+                output.add(line);
+            }
+        }
+        try {
+            if (!git.waitFor(1, TimeUnit.MINUTES) || git.exitValue() != 0){
+                throw new IOException("git diff " + base + " failed: " + String.join("\n", output));
+            }
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while diffing against " + base, e);
+        }
+        return parse(output);
+    }
+
+
+    /**
+     * @param lines the output of git diff --unified=0.
+     * @return the changes it describes.
+     */
+    public static Diff parse(List<String> lines){
+        Diff diff = new Diff();
+        File file = null;
+        for (String line : lines){
+            if (line.startsWith("diff --git ")){
+                // diff --git a/<path> b/<path>, binary files have no other line naming them
+                String path = line.substring(line.lastIndexOf(" b/") + 3);
+                file = new File(path);
+                diff.files.put(path, file);
+            } else if (file == null){
+                continue;
+            } else if (line.startsWith("new file mode")){
+                file.added = true;
+            } else if (line.startsWith("deleted file mode")){
+                file.deleted = true;
+            } else {
+                Matcher hunk = HUNK.matcher(line);
+                if (hunk.find()){
+                    int start = Integer.parseInt(hunk.group(1));
+                    int count = hunk.group(2) == null ? 1 : Integer.parseInt(hunk.group(2));
+                    // a pure deletion is reported after line start, the lines around it are taken as changed
+                    file.lines.add(count == 0 ? new int[]{start, start + 1} : new int[]{start, start + count - 1});
+                }
+            }
+        }
+        return diff;
+    }
+
+
+    /**
+     * @return the changed files by path.
+     */
+    public Map<String, File> getFiles(){
+        return Collections.unmodifiableMap(files);
+    }
+
+
+    public boolean isEmpty(){
+        return files.isEmpty();
+    }
+
+
+    /**
+     * One changed file.
+     */
+    public static class File {
+
+        private final String path;
+        private final List<int[]> lines = new ArrayList<>();
+        private boolean added;
+        private boolean deleted;
+
+        File(String path){
+            this.path = path;
+        }
+
+        public String getPath(){
+            return path;
+        }
+
+        /**
+         * @return true if the file did not exist in the base revision.
+         */
+        public boolean isAdded(){
+            return added;
+        }
+
+        /**
+         * @return true if the file no longer exists.
+         */
+        public boolean isDeleted(){
+            return deleted;
+        }
+
+        /**
+         * @return the changed line ranges of the new file, first and last line included.
+         */
+        public List<int[]> getLines(){
+            return Collections.unmodifiableList(lines);
+        }
+    }
+}
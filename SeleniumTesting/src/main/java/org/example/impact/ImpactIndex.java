@@ -0,0 +1,158 @@
+package org.example.impact;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * What every test method uses: the methods of the framework and of the tests on its call stacks, the locators it
+ * looks up and the pages it opens.
+ *
+ * Every use is a key of the form method:ClassName#methodName, locator:By.id: user-name or
+ * url:saucedemo/inventory.html (url:host/path for pages that are not fixtures). The index is stored compactly:
+ * every key is written once and numbered, and each test is one line listing the numbers of its keys.
+ */
+public class ImpactIndex {
+
+    public static final String METHOD = "method:";
+    public static final String LOCATOR = "locator:";
+    public static final String URL = "url:";
+
+    private static final String HEADER = "# test impact index v1: k <key> lines, then t <test id> <key numbers> lines";
+
+    private final Map<String, Set<String>> tests = new TreeMap<>();
+
+
+    /**
+     * Loads an index, an absent or unreadable file gives an empty one.
+     *
+     * @param file the index file.
+     * @return the index.
+     */
+    public static ImpactIndex load(Path file){
+        ImpactIndex index = new ImpactIndex();
+        if (!Files.exists(file)){
+            return index;
+        }
+        List<String> keys = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+            for (String line = reader.readLine(); line != null; line = reader.readLine()){
+                if (line.startsWith("k ")){
+                    keys.add(line.substring(2));
+                } else if (line.startsWith("t ")){
+                    String[] fields = line.substring(2).split(" ");
+                    Set<String> used = new TreeSet<>();
+                    for (int i = 1; i < fields.length; i++){
+                        used.add(keys.get(Integer.parseInt(fields[i], 36)));
+                    }
+                    index.tests.put(fields[0], used);
+                }
+            }
+        } catch (IOException | RuntimeException e){
+            System.err.println("Ignoring unreadable test impact index " + file + ": " + e.getMessage());
+            return new ImpactIndex();
+        }
+        return index;
+    }
+
+
+    /**
+     * Writes the index, replacing the file.
+     *
+     * @param file the index file.
+     */
+    public void save(Path file){
+        // numbering the keys in order of first use, so the keys of one test are mostly close together
+        Map<String, Integer> numbers = new LinkedHashMap<>();
+        tests.values().forEach(used -> used.forEach(key -> numbers.putIfAbsent(key, numbers.size())));
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)){
+                writer.write(HEADER + "\n");
+                for (String key : numbers.keySet()){
+                    writer.write("k " + key + "\n");
+                }
+                for (Map.Entry<String, Set<String>> test : tests.entrySet()){
+                    StringBuilder line = new StringBuilder("t ").append(test.getKey());
+                    for (String key : test.getValue()){
+                        line.append(' ').append(Integer.toString(numbers.get(key), 36));
+                    }
+                    writer.write(line.append('\n').toString());
+                }
+            }
+        } catch (IOException e){
+            System.err.println("Could not save the test impact index: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * Replaces what a test is known to use.
+     *
+     * @param testId the ClassName#methodName id.
+     * @param used   the keys of everything it used.
+     */
+    public void put(String testId, Set<String> used){
+        tests.put(testId, new TreeSet<>(used));
+    }
+
+
+    public boolean isEmpty(){
+        return tests.isEmpty();
+    }
+
+
+    public boolean contains(String testId){
+        return tests.containsKey(testId);
+    }
+
+
+    /**
+     * @return the ids of the indexed tests.
+     */
+    public Set<String> getTests(){
+        return Collections.unmodifiableSet(tests.keySet());
+    }
+
+
+    /**
+     * @param testId the ClassName#methodName id.
+     * @return the keys the test used, empty for an unknown test.
+     */
+    public Set<String> keysOf(String testId){
+        Set<String> used = tests.get(testId);
+        return used == null ? Collections.emptySet() : Collections.unmodifiableSet(used);
+    }
+
+
+    /**
+     * @param prefix a key or the start of keys, for example method:org.example.page.LoginPage# for every method
+     *               of the class.
+     * @return the tests using a key starting with the prefix.
+     */
+    public Set<String> testsUsing(String prefix){
+        Set<String> using = new TreeSet<>();
+        for (Map.Entry<String, Set<String>> test : tests.entrySet()){
+            for (String key : test.getValue()){
+                if (key.startsWith(prefix)){
+                    using.add(test.getKey());
+                    break;
+                }
+            }
+        }
+        return using;
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.impact;
+
+import org.example.fixture.Site;
+import org.example.metrics.CommandLatencyListener;
+import org.example.metrics.CommandMetrics;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records into the {@link ImpactIndex} what every test uses, as seen from the WebDriver commands it issues.
+ *
+ * On every command of a test (the one the thread declared in the {@link CommandMetrics}), the recorder notes the
+ * methods of the framework and of the tests on the call stack, the locator looked up and the page opened. Methods
+ * that never issue a command while a test runs are not seen; the {@link TestSelector} treats a change to such a
+ * method as a change to its whole class.
+ *
+ * Recording walks the stack on every command, so it is only on with -Dimpact.record=true, typically on the full
+ * runs of the main branch. The tests that ran replace their entry in the index file, -Dimpact.index
+ * (default target/test-impact.idx), when the JVM exits; the entries of the other tests are kept.
+ */
+public class ImpactRecorder implements WebDriverListener {
+
+    public static final Path INDEX_FILE = Paths.get(System.getProperty("impact.index", "target/test-impact.idx"));
+
+    private static final StackWalker STACK = StackWalker.getInstance();
+
+    private static final ImpactRecorder SHARED = new ImpactRecorder(Boolean.getBoolean("impact.record"));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> SHARED.saveTo(INDEX_FILE)));
+    }
+
+    private final boolean enabled;
+    private final Map<String, Set<String>> tests = new ConcurrentHashMap<>();
+
+
+    /**
+     * @param enabled false to record nothing.
+     */
+    public ImpactRecorder(boolean enabled){
+        this.enabled = enabled;
+    }
+
+
+    /**
+     * @return the recorder shared by all the sessions of the JVM.
+     */
+    public static ImpactRecorder shared(){
+        return SHARED;
+    }
+
+
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args){
+        String test = CommandMetrics.shared().currentTest();
+        if (!enabled || test == null){
+            return;
+        }
+        Set<String> used = tests.computeIfAbsent(test, key -> Collections.newSetFromMap(new ConcurrentHashMap<>()));
+
+        STACK.forEach(frame -> {
+            String key = methodKey(frame.getClassName(), frame.getMethodName());
+            if (key != null){
+                used.add(key);
+            }
+        });
+        if (args == null){
+            return;
+        }
+        String command = CommandLatencyListener.command(target, method);
+        for (Object arg : args){
+            if (arg instanceof By){
+                used.add(ImpactIndex.LOCATOR + arg);
+            } else if (arg != null && ("get".equals(command) || "navigation.to".equals(command))){
+                used.add(ImpactIndex.URL + page(String.valueOf(arg)));
+            }
+        }
+    }
+
+
+    /**
+     * Names a method the way the {@link TestSelector} names the methods of a diff: by its top-level class, lambdas
+     * and anonymous or nested classes belonging to the method of the top-level class they appear in.
+     *
+     * @return the key of the method, null for a method outside the framework and the tests.
+     */
+    static String methodKey(String className, String methodName){
+        // the tests live in the default package, the framework under org.example
+        boolean ours = className.indexOf('.') < 0 || className.startsWith("org.example.");
+        if (!ours || className.startsWith("org.example.impact.")){
+            return null;
+        }
+        int nested = className.indexOf('$');
+        String topLevel = nested < 0 ? className : className.substring(0, nested);
+
+        String name = methodName;
+        if (name.startsWith("lambda$")){
+            // lambda$<enclosing method>$<n>
+            int end = name.indexOf('$', "lambda$".length());
+            name = end < 0 ? name.substring("lambda$".length()) : name.substring("lambda$".length(), end);
+        } else if ("<init>".equals(name)){
+            String declaring = className.substring(className.lastIndexOf('.') + 1);
+            name = declaring.substring(declaring.lastIndexOf('$') + 1);
+        }
+        // static initializers and anonymous classes belong to their class or to the method creating them
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))){
+            return null;
+        }
+        return ImpactIndex.METHOD + topLevel + "#" + name;
+    }
+
+
+    /**
+     * @param url an absolute URL.
+     * @return site/path for a page of one of the {@link Site}s, host/path for any other page.
+     */
+    static String page(String url){
+        for (Site site : Site.values()){
+            String path = site.pathOf(url);
+            if (path != null){
+                return site.getName() + "/" + (path.isEmpty() ? "index.html" : path);
+            }
+        }
+        try {
+            URI uri = URI.create(url);
+            return uri.getHost() == null ? url : uri.getHost() + (uri.getRawPath() == null ? "" : uri.getRawPath());
+        } catch (IllegalArgumentException e){
+            return url;
+        }
+    }
+
+
+    /**
+     * Merges the tests recorded so far into an index file.
+     *
+     * @param file the index file, created when absent.
+     */
+    public void saveTo(Path file){
+        if (tests.isEmpty()){
+            return;
+        }
+        ImpactIndex index = ImpactIndex.load(file);
+        tests.forEach(index::put);
+        index.save(file);
+    }
+}
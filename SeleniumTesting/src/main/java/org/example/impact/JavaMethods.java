@@ -0,0 +1,145 @@
+package org.example.impact;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds which method every line of a Java source file belongs to, without compiling it.
+ *
+ * A light scanner is enough for the sources of this project: it skips comments, strings and characters, follows
+ * the braces, and takes a block as a method when the text before its brace ends like a method declaration. The
+ * comments and annotations above a method belong to it, so editing a javadoc selects the tests of that method.
+ */
+final class JavaMethods {
+
+    // <name>(<parameters>) [throws <types>], the parameters may hold one level of parentheses (annotations)
+    private static final Pattern DECLARATION = Pattern.compile(
+            "(?:^|[\\s>\\]])(\\w+)\\s*\\((?:[^()]|\\([^()]*\\))*\\)\\s*(?:throws\\s+[\\w.,\\s]+)?$");
+
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "if", "for", "while", "switch", "catch", "synchronized", "try", "return", "new", "else", "do", "throw"));
+
+    private final List<Extent> methods = new ArrayList<>();
+
+
+    private JavaMethods(){
+    }
+
+
+    /**
+     * @param source the lines of a source file.
+     * @return the methods of the file.
+     */
+    static JavaMethods of(List<String> source){
+        JavaMethods result = new JavaMethods();
+        Deque<Extent> blocks = new ArrayDeque<>();
+        StringBuilder header = new StringBuilder();
+        // the first line after the end of the previous statement or block, where a declaration can start
+        int headerLine = 1;
+        boolean inComment = false;
+
+        for (int number = 1; number <= source.size(); number++){
+            String line = source.get(number - 1);
+            for (int i = 0; i < line.length(); i++){
+                char c = line.charAt(i);
+                char next = i + 1 < line.length() ? line.charAt(i + 1) : 0;
+                if (inComment){
+                    if (c == '*' && next == '/'){
+                        inComment = false;
+                        i++;
+                    }
+                } else if (c == '/' && next == '*'){
+                    inComment = true;
+                    i++;
+                } else if (c == '/' && next == '/'){
+                    break;
+                } else if (c == '"' || c == '\''){
+                    i = skipLiteral(line, i);
+                    header.append(c).append(c);
+                } else if (c == '{'){
+                    blocks.push(new Extent(methodName(header.toString().trim()), headerLine));
+                    header.setLength(0);
+                    headerLine = number + 1;
+                } else if (c == '}'){
+                    Extent block = blocks.poll();
+                    if (block != null && block.name != null){
+                        block.last = number;
+                        result.methods.add(block);
+                    }
+                    header.setLength(0);
+                    headerLine = number + 1;
+                } else if (c == ';'){
+                    header.setLength(0);
+                    headerLine = number + 1;
+                } else {
+                    header.append(c);
+                }
+            }
+            header.append(' ');
+        }
+        return result;
+    }
+
+
+    /**
+     * @param line a line number, starting at 1.
+     * @return the innermost method containing the line, null for a line outside every method.
+     */
+    String methodAt(int line){
+        Extent innermost = null;
+        for (Extent method : methods){
+            if (method.first <= line && line <= method.last && (innermost == null || method.first > innermost.first)){
+                innermost = method;
+            }
+        }
+        return innermost == null ? null : innermost.name;
+    }
+
+
+    private static String methodName(String header){
+        Matcher declaration = DECLARATION.matcher(header);
+        if (!declaration.find()){
+            return null;
+        }
+        String name = declaration.group(1);
+        String before = header.substring(0, declaration.start(1)).trim();
+        // if (...) {, catch (...) {, new Type() { and calls like foo.bar() { are not declarations
+        if (KEYWORDS.contains(name) || before.endsWith("new") || before.endsWith(".")){
+            return null;
+        }
+        return name;
+    }
+
+
+    private static int skipLiteral(String line, int start){
+        char quote = line.charAt(start);
+        for (int i = start + 1; i < line.length(); i++){
+            char c = line.charAt(i);
+            if (c == '\\'){
+                i++;
+            } else if (c == quote){
+                return i;
+            }
+        }
+        return line.length();
+    }
+
+
+    private static class Extent {
+        private final String name;
+        private final int first;
+        private int last;
+
+        private Extent(String name, int first){
+            this.name = name;
+            this.first = first;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package org.example.impact;
+
+import org.example.fixture.Site;
+import org.example.runner.ParallelTestRunner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Picks the tests a change can break, from the {@link ImpactIndex} recorded on a previous full run.
+ *
+ * A changed Java method selects the tests that had it on their call stack; a change outside of any method, or to
+ * a method the index never saw, selects the tests using any method of its class. A changed fixture selects the
+ * tests that opened its page, or any page of the site for single page sites. Tests missing from the index are
+ * always selected, and files nothing depends on (the benchmarks, documentation) are ignored.
+ *
+ * Everything else falls back to running the whole suite: no index, a diff git cannot compute, a change to the
+ * build or to a class no indexed test used.
+ *
+ * From the command line, it prints the selection as a -Dtest filter for Maven Surefire:
+ * java -cp &lt;classpath&gt; org.example.impact.TestSelector origin/main Dropdowns XpathMethods LoginPageTest
+ */
+public class TestSelector {
+
+    private static final String MAIN_SOURCES = "src/main/java/";
+    private static final String TEST_SOURCES = "src/test/java/";
+    private static final String FIXTURES = "src/main/resources/fixtures/";
+
+    private final ImpactIndex index;
+    private final Path projectDir;
+
+
+    /**
+     * @param index      the index of a previous run.
+     * @param projectDir the directory the paths of the diffs are relative to.
+     */
+    public TestSelector(ImpactIndex index, Path projectDir){
+        this.index = index;
+        this.projectDir = projectDir;
+    }
+
+
+    /**
+     * Selects the tests affected by the changes since a revision, using the index of
+     * {@link ImpactRecorder#INDEX_FILE}.
+     *
+     * @param candidates the ClassName#methodName ids of the tests that could run.
+     * @param base       the revision to diff against.
+     * @return the selection, every candidate when the changes cannot be analysed.
+     */
+    public static Selection since(List<String> candidates, String base){
+        Diff diff;
+        try {
+            diff = Diff.since(base);
+        } catch (IOException e){
+            return Selection.all(candidates, "cannot diff against " + base + ": " + e.getMessage());
+        }
+        return new TestSelector(ImpactIndex.load(ImpactRecorder.INDEX_FILE), Paths.get("")).select(candidates, diff);
+    }
+
+
+    /**
+     * @param candidates the ClassName#methodName ids of the tests that could run.
+     * @param diff       the changes.
+     * @return the candidates the changes can affect.
+     */
+    public Selection select(List<String> candidates, Diff diff){
+        if (index.isEmpty()){
+            return Selection.all(candidates, "no test impact index, record one with -Dimpact.record=true");
+        }
+
+        Map<String, String> affected = new LinkedHashMap<>();
+        for (String test : candidates){
+            if (!index.contains(test)){
+                affected.put(test, "not in the index");
+            }
+        }
+        for (Diff.File file : diff.getFiles().values()){
+            String path = file.getPath();
+            String reason;
+            if (path.startsWith(MAIN_SOURCES) || path.startsWith(TEST_SOURCES)){
+                reason = javaChange(file, affected);
+            } else if (path.startsWith(FIXTURES)){
+                reason = fixtureChange(path, affected);
+            } else if (path.startsWith("benchmarks/") || path.endsWith(".md")){
+                reason = null;
+            } else {
+                reason = path + " is not covered by the index";
+            }
+            if (reason != null){
+                return Selection.all(candidates, reason);
+            }
+        }
+
+        List<String> selected = new ArrayList<>();
+        List<String> reasons = new ArrayList<>();
+        for (String test : candidates){
+            String reason = affected.get(test);
+            if (reason != null){
+                selected.add(test);
+                reasons.add(test + ": " + reason);
+            }
+        }
+        return new Selection(false, selected, reasons);
+    }
+
+
+    /**
+     * Adds the tests affected by a changed source file.
+     *
+     * @return why the whole suite must run, null when the affected tests are known.
+     */
+    private String javaChange(Diff.File file, Map<String, String> affected){
+        String path = file.getPath();
+        if (!path.endsWith(".java")){
+            return path + " is not covered by the index";
+        }
+        String root = path.startsWith(MAIN_SOURCES) ? MAIN_SOURCES : TEST_SOURCES;
+        String className = path.substring(root.length(), path.length() - ".java".length()).replace('/', '.');
+        String classPrefix = ImpactIndex.METHOD + className + "#";
+
+        Set<String> users = index.testsUsing(classPrefix);
+        if (users.isEmpty()){
+            // nothing could use a new class before this change, and the tests of a new test class are not indexed
+            if (file.isAdded() || path.startsWith(TEST_SOURCES)){
+                return null;
+            }
+            return className + " was not used by any indexed test";
+        }
+        if (file.isDeleted()){
+            addAll(affected, users, className + " deleted");
+            return null;
+        }
+
+        List<String> source;
+        try {
+            source = Files.readAllLines(projectDir.resolve(path), StandardCharsets.UTF_8);
+        } catch (IOException e){
+            addAll(affected, users, className + " changed");
+            return null;
+        }
+        JavaMethods methods = JavaMethods.of(source);
+        Set<String> changed = new LinkedHashSet<>();
+        for (int[] range : file.getLines()){
+            for (int line = range[0]; line <= range[1] && line <= source.size(); line++){
+                changed.add(methods.methodAt(line));
+            }
+        }
+
+        for (String method : changed){
+            Set<String> using = method == null ? Collections.emptySet() : index.testsUsing(classPrefix + method);
+            if (using.isEmpty()){
+                // a field, an import, or a method that never issued a command while a test ran
+                addAll(affected, users, className + (method == null ? " changed" : "#" + method + " changed"));
+            } else {
+                addAll(affected, using, className + "#" + method + " changed");
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Adds the tests that opened a changed fixture.
+     */
+    private String fixtureChange(String path, Map<String, String> affected){
+        String relative = path.substring(FIXTURES.length());
+        int slash = relative.indexOf('/');
+        String siteName = slash < 0 ? relative : relative.substring(0, slash);
+        for (Site site : Site.values()){
+            if (site.getName().equals(siteName)){
+                // a single page site loads all of its files on every page
+                String page = site.isSinglePage() ? siteName + "/" : siteName + "/" + relative.substring(slash + 1);
+                addAll(affected, index.testsUsing(ImpactIndex.URL + page), "fixture " + relative + " changed");
+                return null;
+            }
+        }
+        return path + " is not the fixture of a known site";
+    }
+
+
+    private static void addAll(Map<String, String> affected, Set<String> tests, String reason){
+        for (String test : tests){
+            affected.putIfAbsent(test, reason);
+        }
+    }
+
+
+    /**
+     * Prints the tests of the given classes affected by the changes since a revision, as a Surefire -Dtest filter.
+     *
+     * Usage: TestSelector &lt;revision&gt; &lt;test class&gt; [&lt;test class&gt; ...]
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2){
+            System.err.println("usage: TestSelector <revision> <test class> [<test class> ...]");
+            System.exit(2);
+        }
+        List<String> candidates = new ArrayList<>();
+        for (int i = 1; i < args.length; i++){
+            candidates.addAll(ParallelTestRunner.testIds(Class.forName(args[i])));
+        }
+        Selection selection = since(candidates, args[0]);
+        selection.getReasons().forEach(reason -> System.err.println("[impact] " + reason));
+        System.out.println(selection.toSurefireFilter());
+    }
+
+
+    /**
+     * The tests to run, with the reason each one was selected.
+     */
+    public static class Selection {
+
+        private final boolean fullRun;
+        private final List<String> tests;
+        private final List<String> reasons;
+
+        Selection(boolean fullRun, List<String> tests, List<String> reasons){
+            this.fullRun = fullRun;
+            this.tests = Collections.unmodifiableList(new ArrayList<>(tests));
+            this.reasons = Collections.unmodifiableList(new ArrayList<>(reasons));
+        }
+
+        static Selection all(List<String> candidates, String reason){
+            return new Selection(true, candidates, Collections.singletonList("running every test, " + reason));
+        }
+
+        /**
+         * @return true when the changes could not be analysed and every candidate is selected.
+         */
+        public boolean isFullRun(){
+            return fullRun;
+        }
+
+        /**
+         * @return the ClassName#methodName ids to run, in the order of the candidates.
+         */
+        public List<String> getTests(){
+            return tests;
+        }
+
+        public List<String> getReasons(){
+            return reasons;
+        }
+
+        /**
+         * @return the tests in the Class#method1+method2,Class2#method syntax of -Dtest, empty when none is selected.
+         */
+        public String toSurefireFilter(){
+            Map<String, List<String>> byClass = new LinkedHashMap<>();
+            for (String test : tests){
+                int hash = test.indexOf('#');
+                byClass.computeIfAbsent(test.substring(0, hash), key -> new ArrayList<>()).add(test.substring(hash + 1));
+            }
+            List<String> filters = new ArrayList<>();
+            byClass.forEach((className, methods) -> filters.add(className + "#" + String.join("+", methods)));
+            return String.join(",", filters);
+        }
+    }
+}
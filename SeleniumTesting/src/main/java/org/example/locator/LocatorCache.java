@@ -0,0 +1,165 @@
+package org.example.locator;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the elements a locator resolved to, so repeated lookups on an unchanged page cost no round-trip.
+ *
+ * Entries are keyed by (page, locator), where the page is a name chosen by the caller (page objects use their
+ * own name, plain tests can use {@link #find(By)}); {@link #lazy(String, By)} defers the lookup to the first use.
+ * The returned elements are proxies: when the cached reference turns out to be stale, because the page navigated
+ * or re-rendered, the proxy re-resolves the locator once and repeats the call, so callers never see the
+ * StaleElementReferenceException of a cached reference.
+ *
+ * A cache lives as long as one test; references cannot survive the browser reset between tests anyway.
+ */
+public class LocatorCache {
+
+    private static final String DEFAULT_PAGE = "";
+
+    private final SearchContext context;
+    private final Map<String, WebElement> elements = new ConcurrentHashMap<>();
+
+
+    /**
+     * @param context where the locators are resolved, usually the driver.
+     */
+    public LocatorCache(SearchContext context){
+        this.context = context;
+    }
+
+
+    /**
+     * Returns the element matching the locator, from the cache when it was already resolved.
+     *
+     * @param by the locator.
+     * @return a proxy of the element that survives re-rendering.
+     * @throws org.openqa.selenium.NoSuchElementException if the locator is not cached and matches nothing.
+     */
+    public WebElement find(By by){
+        return find(DEFAULT_PAGE, by);
+    }
+
+
+    /**
+     * Returns the element matching the locator on the given page, from the cache when it was already resolved.
+     *
+     * @param page the identity of the page, for example the name of its page object.
+     * @param by   the locator.
+     * @return a proxy of the element that survives re-rendering.
+     * @throws org.openqa.selenium.NoSuchElementException if the locator is not cached and matches nothing.
+     */
+    public WebElement find(String page, By by){
+        // resolving eagerly so a missing element fails here, like driver.findElement does
+        resolve(page + "|" + by, by);
+        return lazy(page, by);
+    }
+
+
+    /**
+     * Returns an element of the given page that is only looked up the first time it is used.
+     *
+     * Page objects declare their elements with it: building a page costs no round-trip, and an element the test
+     * never touches is never looked up.
+     *
+     * @param page the identity of the page, for example the name of its page object.
+     * @param by   the locator.
+     * @return a proxy of the element, a missing element fails on its first use.
+     */
+    public WebElement lazy(String page, By by){
+        return (WebElement) Proxy.newProxyInstance(
+                LocatorCache.class.getClassLoader(),
+                new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                new CachedElement(page + "|" + by, by));
+    }
+
+
+    /**
+     * Drops every cached element, for example after a navigation the caller knows about.
+     */
+    public void clear(){
+        elements.clear();
+    }
+
+
+    private WebElement resolve(String key, By by){
+        WebElement element = elements.get(key);
+        if (element != null){
+            LocatorCacheReport.shared().hit(by.toString());
+            return element;
+        }
+
+        LocatorCacheReport.shared().miss(by.toString());
+        element = context.findElement(by);
+        elements.put(key, element);
+        return element;
+    }
+
+
+    /**
+     * Forwards the calls to the cached element, re-resolving it once when it is stale.
+     */
+    private class CachedElement implements InvocationHandler {
+
+        private final String key;
+        private final By by;
+
+        private CachedElement(String key, By by){
+            this.key = key;
+            this.by = by;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()){
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + by + "]";
+                default:
+                    break;
+            }
+
+            WebElement element = current();
+            if ("getWrappedElement".equals(method.getName())){
+                return element;
+            }
+
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e){
+                if (!(e.getCause() instanceof StaleElementReferenceException)){
+                    throw e.getCause();
+                }
+            }
+
+            // the page changed under the cached reference, resolving it again and retrying once
+            LocatorCacheReport.shared().stale(by.toString());
+            elements.remove(key, element);
+            try {
+                return method.invoke(current(), args);
+            } catch (InvocationTargetException e){
+                throw e.getCause();
+            }
+        }
+
+        private WebElement current(){
+            WebElement element = elements.get(key);
+            return element != null ? element : resolve(key, by);
+        }
+    }
+}
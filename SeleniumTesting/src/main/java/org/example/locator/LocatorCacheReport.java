@@ -0,0 +1,114 @@
+package org.example.locator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit, miss and staleness counters of every {@link LocatorCache}, per locator.
+ *
+ * The shared report is written to target/locator-cache-report.txt when the JVM exits.
+ */
+public class LocatorCacheReport {
+
+    private static final LocatorCacheReport SHARED = new LocatorCacheReport();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> SHARED.writeTo(Paths.get("target", "locator-cache-report.txt"))));
+    }
+
+    private final Map<String, Counters> locators = new ConcurrentHashMap<>();
+
+
+    /**
+     * @return the report shared by every cache.
+     */
+    public static LocatorCacheReport shared(){
+        return SHARED;
+    }
+
+
+    void hit(String locator){
+        counters(locator).hits.incrementAndGet();
+    }
+
+    void miss(String locator){
+        counters(locator).misses.incrementAndGet();
+    }
+
+    void stale(String locator){
+        counters(locator).stale.incrementAndGet();
+    }
+
+
+    /**
+     * @return the share of lookups served from a cache, between 0 and 1.
+     */
+    public double hitRate(){
+        long hits = 0;
+        long lookups = 0;
+        for (Counters counters : locators.values()){
+            hits += counters.hits.get();
+            lookups += counters.hits.get() + counters.misses.get();
+        }
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+
+    /**
+     * Builds the human readable report, one line per locator plus the overall hit rate.
+     *
+     * @return the report text.
+     */
+    public String render(){
+        StringBuilder report = new StringBuilder("=== Locator cache report ===\n");
+        report.append(String.format("%8s %8s %8s %8s  %s%n", "hits", "misses", "stale", "hit %", "locator"));
+        for (Map.Entry<String, Counters> entry : new TreeMap<>(locators).entrySet()){
+            Counters counters = entry.getValue();
+            long hits = counters.hits.get();
+            long lookups = hits + counters.misses.get();
+            report.append(String.format("%8d %8d %8d %7.1f%%  %s%n", hits, counters.misses.get(), counters.stale.get(),
+                    lookups == 0 ? 0 : 100.0 * hits / lookups, entry.getKey()));
+        }
+        report.append(String.format("overall hit rate: %.1f%%%n", 100 * hitRate()));
+        return report.toString();
+    }
+
+
+    /**
+     * Writes the report to the given file, nothing is written if no lookup was recorded.
+     *
+     * @param file where the report should be written.
+     */
+    public void writeTo(Path file){
+        if (locators.isEmpty()){
+            return;
+        }
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, render().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e){
+            System.err.println("Could not write the locator cache report: " + e.getMessage());
+        }
+    }
+
+
+    private Counters counters(String locator){
+        return locators.computeIfAbsent(locator, key -> new Counters());
+    }
+
+
+    private static class Counters {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong stale = new AtomicLong();
+    }
+}
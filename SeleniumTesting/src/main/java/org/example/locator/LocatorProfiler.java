@@ -0,0 +1,299 @@
+package org.example.locator;
+
+import org.example.driver.DriverProxies;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Times every locator the tests resolve through the driver and, on request, replaces XPath forms with CSS.
+ *
+ * {@link #wrap(WebDriver)} returns a driver whose findElement and findElements calls are timed per locator. The
+ * elements it returns are wrapped as well, so the lookups made from an element are timed too; they are reported
+ * apart, marked "(in an element)".
+ *
+ * With -Dlocator.rewrite=true, the first time an XPath locator with a CSS equivalent ({@link XPathToCss}) is used,
+ * both are resolved and compared; when they find the same elements the CSS form is used from then on, for every
+ * page. The comparison only holds for the page it ran on, so the rewriting is off by default: a rewrite is trusted
+ * for the rest of the run, and a later page where it selects other elements would change what a test finds. A
+ * rewrite that finds nothing falls back to the XPath and is dropped. Lookups made from an element are never
+ * rewritten: from an element, an XPath starting with // still searches the whole document while CSS only searches
+ * below the element.
+ *
+ * The profile is written to target/locator-profile.txt when the JVM exits. A locator is flagged as slow when its
+ * average lookup takes more than locator.profile.slowMs milliseconds (default 50).
+ */
+public class LocatorProfiler {
+
+    private static final LocatorProfiler SHARED = new LocatorProfiler(Long.getLong("locator.profile.slowMs", 50),
+            Boolean.getBoolean("locator.rewrite"));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> SHARED.writeTo(Paths.get("target", "locator-profile.txt"))));
+    }
+
+    private final long slowMillis;
+    private final boolean rewrite;
+    private final Map<String, Timing> timings = new ConcurrentHashMap<>();
+    private final Map<By, By> verified = new ConcurrentHashMap<>();
+    private final Set<By> rejected = ConcurrentHashMap.newKeySet();
+
+
+    /**
+     * Creates a profiler that only times the lookups.
+     *
+     * @param slowMillis the average lookup time above which a locator is flagged.
+     */
+    public LocatorProfiler(long slowMillis){
+        this(slowMillis, false);
+    }
+
+
+    /**
+     * @param slowMillis the average lookup time above which a locator is flagged.
+     * @param rewrite    true to replace the XPath locators by their verified CSS rewrite.
+     */
+    public LocatorProfiler(long slowMillis, boolean rewrite){
+        this.slowMillis = slowMillis;
+        this.rewrite = rewrite;
+    }
+
+
+    /**
+     * @return the profiler shared by all the test classes of the JVM.
+     */
+    public static LocatorProfiler shared(){
+        return SHARED;
+    }
+
+
+    /**
+     * Wraps a driver so its lookups are profiled and rewritten.
+     *
+     * The returned driver implements every interface of the wrapped one (JavascriptExecutor, HasDevTools...)
+     * and {@link WrapsDriver}.
+     *
+     * @param driver the driver to wrap.
+     * @return the profiling driver.
+     */
+    public WebDriver wrap(WebDriver driver){
+        return (WebDriver) Proxy.newProxyInstance(LocatorProfiler.class.getClassLoader(),
+                DriverProxies.interfacesOf(driver, WebDriver.class, WrapsDriver.class),
+                (proxy, method, args) -> {
+                    if ("getWrappedDriver".equals(method.getName()) && method.getParameterCount() == 0){
+                        return driver;
+                    }
+                    if (args != null && args.length == 1 && args[0] instanceof By){
+                        if ("findElement".equals(method.getName())){
+                            return wrap(findElement(driver, (By) args[0]));
+                        }
+                        if ("findElements".equals(method.getName())){
+                            return wrap(findElements(driver, (By) args[0]));
+                        }
+                    }
+                    return DriverProxies.invoke(driver, method, args);
+                });
+    }
+
+
+    /**
+     * Wraps an element so the lookups made from it are timed, and so are the elements they return.
+     */
+    private WebElement wrap(WebElement element){
+        return (WebElement) Proxy.newProxyInstance(LocatorProfiler.class.getClassLoader(),
+                DriverProxies.interfacesOf(element, WebElement.class, WrapsElement.class),
+                (proxy, method, args) -> {
+                    if ("getWrappedElement".equals(method.getName()) && method.getParameterCount() == 0){
+                        return element;
+                    }
+                    if (args != null && args.length == 1 && args[0] instanceof By){
+                        By by = (By) args[0];
+                        String key = by + "  (in an element)";
+                        if ("findElement".equals(method.getName())){
+                            return wrap(timed(key, () -> element.findElement(by)));
+                        }
+                        if ("findElements".equals(method.getName())){
+                            return wrap(timed(key, () -> element.findElements(by)));
+                        }
+                    }
+                    return DriverProxies.invoke(element, method, args);
+                });
+    }
+
+
+    private List<WebElement> wrap(List<WebElement> elements){
+        List<WebElement> wrapped = new ArrayList<>(elements.size());
+        for (WebElement element : elements){
+            wrapped.add(wrap(element));
+        }
+        return wrapped;
+    }
+
+
+    /**
+     * Resolves a locator, through its verified CSS rewrite when there is one.
+     */
+    public WebElement findElement(WebDriver driver, By by){
+        By rewritten = verified.get(by);
+        if (rewritten != null){
+            try {
+                return timed(rewritten, () -> driver.findElement(rewritten));
+            } catch (NoSuchElementException e){
+                // wrong on this page, back to the XPath for good
+                drop(by);
+            }
+        }
+
+        WebElement element = timed(by, () -> driver.findElement(by));
+
+        By candidate = candidate(by);
+        if (candidate != null){
+            try {
+                verify(by, candidate, element.equals(timed(candidate, () -> driver.findElement(candidate))));
+            } catch (NoSuchElementException e){
+                verify(by, candidate, false);
+            }
+        }
+        return element;
+    }
+
+
+    /**
+     * Resolves a locator to all its elements, through its verified CSS rewrite when there is one.
+     */
+    public List<WebElement> findElements(WebDriver driver, By by){
+        By rewritten = verified.get(by);
+        if (rewritten != null){
+            List<WebElement> elements = timed(rewritten, () -> driver.findElements(rewritten));
+            if (!elements.isEmpty()){
+                return elements;
+            }
+            // wrong on this page or nothing to find, the XPath decides
+            drop(by);
+        }
+
+        List<WebElement> elements = timed(by, () -> driver.findElements(by));
+
+        // an empty result proves nothing about the rewrite
+        By candidate = elements.isEmpty() ? null : candidate(by);
+        if (candidate != null){
+            verify(by, candidate, elements.equals(timed(candidate, () -> driver.findElements(candidate))));
+        }
+        return elements;
+    }
+
+
+    /**
+     * Builds the report: every locator with its number of lookups, average and maximum time, slowest first.
+     *
+     * @return the report text.
+     */
+    public String render(){
+        List<Map.Entry<String, Timing>> entries = new ArrayList<>(timings.entrySet());
+        entries.sort(Comparator.comparingDouble((Map.Entry<String, Timing> entry) -> entry.getValue().averageMillis()).reversed());
+
+        StringBuilder report = new StringBuilder("=== Locator profile ===\n");
+        report.append(String.format("%6s %10s %10s %5s  %s%n", "count", "avg (ms)", "max (ms)", "", "locator"));
+        for (Map.Entry<String, Timing> entry : entries){
+            Timing timing = entry.getValue();
+            report.append(String.format("%6d %10.2f %10.2f %5s  %s%n", timing.count.get(), timing.averageMillis(),
+                    timing.maxNanos.get() / 1e6, timing.averageMillis() > slowMillis ? "SLOW" : "", entry.getKey()));
+        }
+
+        report.append("\nRewrites in use:\n");
+        verified.forEach((from, to) -> report.append("  ").append(from).append("  ->  ").append(to).append('\n'));
+        report.append("Rewrites rejected (different elements):\n");
+        rejected.forEach(by -> report.append("  ").append(by).append('\n'));
+        return report.toString();
+    }
+
+
+    /**
+     * Writes the report to the given file, nothing is written if no lookup was profiled.
+     */
+    public void writeTo(Path file){
+        if (timings.isEmpty()){
+            return;
+        }
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, render().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e){
+            System.err.println("Could not write the locator profile: " + e.getMessage());
+        }
+    }
+
+
+    private By candidate(By by){
+        if (!rewrite || rejected.contains(by)){
+            return null;
+        }
+        return XPathToCss.rewrite(by);
+    }
+
+
+    private void drop(By original){
+        verified.remove(original);
+        rejected.add(original);
+    }
+
+
+    private void verify(By original, By candidate, boolean same){
+        if (same){
+            verified.put(original, candidate);
+        } else {
+            rejected.add(original);
+        }
+    }
+
+
+    private <T> T timed(By by, Supplier<T> lookup){
+        return timed(by.toString(), lookup);
+    }
+
+
+    private <T> T timed(String locator, Supplier<T> lookup){
+        long start = System.nanoTime();
+        try {
+            return lookup.get();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            Timing timing = timings.computeIfAbsent(locator, key -> new Timing());
+            timing.count.incrementAndGet();
+            timing.totalNanos.addAndGet(nanos);
+            timing.maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+
+    private static class Timing {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private double averageMillis(){
+            long lookups = count.get();
+            return lookups == 0 ? 0 : totalNanos.get() / 1e6 / lookups;
+        }
+    }
+}
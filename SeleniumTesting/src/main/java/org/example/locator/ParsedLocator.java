@@ -0,0 +1,137 @@
+package org.example.locator;
+
+import org.openqa.selenium.By;
+
+import java.util.Objects;
+
+/**
+ * A {@link By} split into its strategy and its value, so it can be evaluated inside the browser by a script.
+ *
+ * Selenium renders the standard locators as "By.strategy: value", for example "By.id: user-name".
+ * Only the strategies a page script can evaluate directly are supported, the others parse to null.
+ */
+public final class ParsedLocator {
+
+    public static final String ID = "id";
+    public static final String NAME = "name";
+    public static final String CLASS_NAME = "className";
+    public static final String TAG_NAME = "tagName";
+    public static final String CSS = "cssSelector";
+    public static final String XPATH = "xpath";
+
+    /**
+     * A script function returning the first element matching (strategy, value) below a root node,
+     * used by every script that locates elements itself.
+     */
+    public static final String FIND_FUNCTION =
+            "function __find(strategy, value, root) {"
+            + "  root = root || document;"
+            + "  switch (strategy) {"
+            + "    case 'id': return root === document ? document.getElementById(value) : root.querySelector('#' + CSS.escape(value));"
+            + "    case 'name': return root.querySelector('[name=\"' + CSS.escape(value) + '\"]');"
+            + "    case 'className': return root.getElementsByClassName(value)[0] || null;"
+            + "    case 'tagName': return root.getElementsByTagName(value)[0] || null;"
+            + "    case 'cssSelector': return root.querySelector(value);"
+            + "    case 'xpath': return document.evaluate(value, root, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "  }"
+            + "  return null;"
+            + "}";
+
+    private final String strategy;
+    private final String value;
+
+    private ParsedLocator(String strategy, String value){
+        this.strategy = strategy;
+        this.value = value;
+    }
+
+
+    /**
+     * Splits a locator into strategy and value.
+     *
+     * @param by the locator.
+     * @return the parsed locator, or null when the strategy cannot be evaluated by a script (link texts, chained locators...).
+     */
+    public static ParsedLocator parse(By by){
+        String text = by.toString();
+        if (!text.startsWith("By.")){
+            return null;
+        }
+        int colon = text.indexOf(": ");
+        if (colon < 0){
+            return null;
+        }
+
+        String strategy = text.substring(3, colon);
+        String value = text.substring(colon + 2);
+        switch (strategy){
+            case ID:
+            case NAME:
+            case CLASS_NAME:
+            case TAG_NAME:
+            case CSS:
+            case XPATH:
+                return new ParsedLocator(strategy, value);
+            default:
+                return null;
+        }
+    }
+
+
+    /**
+     * @return the strategy, one of the constants of this class.
+     */
+    public String getStrategy(){
+        return strategy;
+    }
+
+    public String getValue(){
+        return value;
+    }
+
+
+    /**
+     * Rebuilds the Selenium locator.
+     *
+     * @return an equivalent {@link By}.
+     */
+    public By toBy(){
+        switch (strategy){
+            case ID:
+                return By.id(value);
+            case NAME:
+                return By.name(value);
+            case CLASS_NAME:
+                return By.className(value);
+            case TAG_NAME:
+                return By.tagName(value);
+            case CSS:
+                return By.cssSelector(value);
+            default:
+                return By.xpath(value);
+        }
+    }
+
+
+    @Override
+    public boolean equals(Object o){
+        if (this == o){
+            return true;
+        }
+        if (!(o instanceof ParsedLocator)){
+            return false;
+        }
+        ParsedLocator that = (ParsedLocator) o;
+        return strategy.equals(that.strategy) && value.equals(that.value);
+    }
+
+    @Override
+    public int hashCode(){
+        return Objects.hash(strategy, value);
+    }
+
+    @Override
+    public String toString(){
+        return "By." + strategy + ": " + value;
+    }
+}
@@ -0,0 +1,266 @@
+package org.example.locator;
+
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Rewrites the simple XPath forms that have an exact CSS equivalent.
+ *
+ * Supported: descendant (//) and child (/) steps with a tag name or *, and predicates made of
+ * [@a='v'], [contains(@a, 'v')] and [starts-with(@a, 'v')] joined by "and". A single step whose conditions are
+ * joined by "or" becomes a CSS selector list. Anything else (positions, axes, text(), functions, parentheses,
+ * mixed and/or) is left alone and {@link #rewrite(By)} returns null.
+ *
+ * Two cases look simple but are left alone as well, because CSS would select other elements: empty values
+ * (contains(@a, '') holds for every element with the attribute, [a*=''] matches nothing), and the attributes whose
+ * values HTML compares without case in CSS selectors (type, method, lang...), which XPath compares exactly.
+ *
+ * Examples:
+ * //input[contains(@name, 'user')]           becomes input[name*='user']
+ * //button[starts-with(@class, 'error')]     becomes button[class^='error']
+ * //div[@class='cart_item']//div/a           becomes div[class='cart_item'] div > a
+ */
+public final class XPathToCss {
+
+    // attributes whose values CSS selectors match without case in HTML documents, see "case-sensitivity of selectors"
+    // in the HTML specification
+    private static final Set<String> CASE_INSENSITIVE = new HashSet<>(Arrays.asList(
+            "accept", "accept-charset", "align", "alink", "axis", "bgcolor", "charset", "checked", "clear", "codetype",
+            "color", "compact", "declare", "defer", "dir", "direction", "disabled", "enctype", "face", "frame",
+            "hreflang", "http-equiv", "lang", "language", "link", "media", "method", "multiple", "nohref", "noresize",
+            "noshade", "nowrap", "readonly", "rel", "rev", "rules", "scope", "scrolling", "selected", "shape", "target",
+            "text", "type", "valign", "valuetype", "vlink"));
+
+    private final String xpath;
+    private int position;
+
+    private XPathToCss(String xpath){
+        this.xpath = xpath;
+    }
+
+
+    /**
+     * Rewrites an XPath locator into a CSS one.
+     *
+     * @param by any locator.
+     * @return the equivalent CSS locator, or null when the locator is not an XPath or has no exact CSS equivalent.
+     */
+    public static By rewrite(By by){
+        ParsedLocator locator = ParsedLocator.parse(by);
+        if (locator == null || !ParsedLocator.XPATH.equals(locator.getStrategy())){
+            return null;
+        }
+        String css = toCss(locator.getValue());
+        return css == null ? null : By.cssSelector(css);
+    }
+
+
+    /**
+     * @param xpath an XPath expression.
+     * @return the equivalent CSS selector, or null.
+     */
+    public static String toCss(String xpath){
+        try {
+            return new XPathToCss(xpath.trim()).parse();
+        } catch (IllegalArgumentException e){
+            return null;
+        }
+    }
+
+
+    private String parse(){
+        StringBuilder prefix = new StringBuilder();
+        List<String> alternatives = null;
+
+        if (!xpath.startsWith("//")){
+            throw unsupported();
+        }
+
+        while (position < xpath.length()){
+            String combinator;
+            if (xpath.startsWith("//", position)){
+                position += 2;
+                combinator = " ";
+            } else if (xpath.startsWith("/", position)){
+                position += 1;
+                combinator = " > ";
+            } else {
+                throw unsupported();
+            }
+            if (alternatives != null){
+                // an "or" step must be the last one
+                throw unsupported();
+            }
+            if (prefix.length() > 0){
+                prefix.append(combinator);
+            }
+
+            String tag = name(true);
+            List<String> andConditions = new ArrayList<>();
+            List<String> orConditions = new ArrayList<>();
+            while (peek('[')){
+                position++;
+                predicate(andConditions, orConditions);
+                expect(']');
+            }
+
+            if (!orConditions.isEmpty()){
+                if (!andConditions.isEmpty()){
+                    throw unsupported();
+                }
+                alternatives = new ArrayList<>();
+                for (String condition : orConditions){
+                    alternatives.add(prefix + tag + condition);
+                }
+            } else {
+                prefix.append(tag);
+                for (String condition : andConditions){
+                    prefix.append(condition);
+                }
+            }
+        }
+
+        return alternatives == null ? prefix.toString() : String.join(", ", alternatives);
+    }
+
+
+    /**
+     * Parses the inside of one [...] predicate.
+     */
+    private void predicate(List<String> andConditions, List<String> orConditions){
+        List<String> conditions = new ArrayList<>();
+        String joiner = null;
+
+        conditions.add(condition());
+        while (true){
+            skipSpaces();
+            String keyword = peek('a') ? "and" : peek('o') ? "or" : null;
+            if (keyword == null || !xpath.startsWith(keyword + " ", position)){
+                break;
+            }
+            if (joiner != null && !joiner.equals(keyword)){
+                throw unsupported();
+            }
+            joiner = keyword;
+            position += keyword.length();
+            conditions.add(condition());
+        }
+
+        if ("or".equals(joiner)){
+            if (!orConditions.isEmpty()){
+                throw unsupported();
+            }
+            orConditions.addAll(conditions);
+        } else {
+            andConditions.addAll(conditions);
+        }
+    }
+
+
+    /**
+     * Parses @a='v', contains(@a, 'v') or starts-with(@a, 'v').
+     */
+    private String condition(){
+        skipSpaces();
+        String operator;
+        boolean function = true;
+        if (xpath.startsWith("contains(", position)){
+            position += "contains(".length();
+            operator = "*=";
+        } else if (xpath.startsWith("starts-with(", position)){
+            position += "starts-with(".length();
+            operator = "^=";
+        } else {
+            operator = "=";
+            function = false;
+        }
+
+        skipSpaces();
+        expect('@');
+        String attribute = name(false);
+        if (CASE_INSENSITIVE.contains(attribute.toLowerCase(Locale.ROOT))){
+            throw unsupported();
+        }
+        skipSpaces();
+        if (function){
+            expect(',');
+        } else {
+            expect('=');
+        }
+        skipSpaces();
+        String value = literal();
+        skipSpaces();
+        if (function){
+            expect(')');
+        }
+
+        String quote = value.contains("'") ? "\"" : "'";
+        return "[" + attribute + operator + quote + value + quote + "]";
+    }
+
+
+    private String name(boolean allowStar){
+        if (allowStar && peek('*')){
+            position++;
+            return "*";
+        }
+        int start = position;
+        while (position < xpath.length()){
+            char c = xpath.charAt(position);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_'){
+                break;
+            }
+            position++;
+        }
+        if (start == position || !Character.isLetter(xpath.charAt(start))){
+            throw unsupported();
+        }
+        return xpath.substring(start, position);
+    }
+
+
+    private String literal(){
+        if (!peek('\'') && !peek('"')){
+            throw unsupported();
+        }
+        char quote = xpath.charAt(position++);
+        int end = xpath.indexOf(quote, position);
+        if (end < 0){
+            throw unsupported();
+        }
+        String value = xpath.substring(position, end);
+        position = end + 1;
+        if (value.isEmpty() || value.contains("'") && value.contains("\"") || value.contains("\\")){
+            throw unsupported();
+        }
+        return value;
+    }
+
+
+    private boolean peek(char c){
+        return position < xpath.length() && xpath.charAt(position) == c;
+    }
+
+    private void expect(char c){
+        if (!peek(c)){
+            throw unsupported();
+        }
+        position++;
+    }
+
+    private void skipSpaces(){
+        while (peek(' ')){
+            position++;
+        }
+    }
+
+    private IllegalArgumentException unsupported(){
+        return new IllegalArgumentException("No CSS equivalent for " + xpath);
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.metrics;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Times every call made through a driver decorated with this listener and records it in the {@link CommandMetrics}.
+ *
+ * Works with Selenium's EventFiringDecorator and with the lighter {@link org.example.driver.ListenerDecorator}
+ * the {@link org.example.driver.DriverHolder} uses.
+ *
+ * Commands of the driver and of its elements are named after their method (get, findElement, getText, click,
+ * executeScript...); the others are prefixed with their object, e.g. navigation.to, window.maximize or
+ * alert.accept. A failed call is recorded too, a findElement that times out costs as much as one that finds.
+ */
+public class CommandLatencyListener implements WebDriverListener {
+
+    // start times of the calls in progress on this thread, innermost last
+    private final ThreadLocal<Deque<Long>> started = ThreadLocal.withInitial(ArrayDeque::new);
+    private final CommandMetrics metrics;
+
+
+    /**
+     * @param metrics where the latencies are recorded.
+     */
+    public CommandLatencyListener(CommandMetrics metrics){
+        this.metrics = metrics;
+    }
+
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args){
+        started.get().push(System.nanoTime());
+    }
+
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result){
+        finish(target, method);
+    }
+
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e){
+        finish(target, method);
+    }
+
+
+    private void finish(Object target, Method method){
+        Long start = started.get().poll();
+        if (start != null){
+            metrics.record(command(target, method), System.nanoTime() - start);
+        }
+    }
+
+
+    /**
+     * @return the name the command of a call is recorded under, e.g. findElement or navigation.to.
+     */
+    public static String command(Object target, Method method){
+        if (target instanceof WebDriver || target instanceof WebElement){
+            return method.getName();
+        }
+        if (target instanceof WebDriver.Navigation){
+            return "navigation." + method.getName();
+        }
+        if (target instanceof WebDriver.Window){
+            return "window." + method.getName();
+        }
+        if (target instanceof WebDriver.TargetLocator){
+            return "switchTo." + method.getName();
+        }
+        if (target instanceof WebDriver.Options){
+            return "manage." + method.getName();
+        }
+        if (target instanceof WebDriver.Timeouts){
+            return "timeouts." + method.getName();
+        }
+        if (target instanceof Alert){
+            return "alert." + method.getName();
+        }
+        return target.getClass().getSimpleName() + "." + method.getName();
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.metrics;
+
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency of every WebDriver command, per command and per test.
+ *
+ * The {@link CommandLatencyListener} records the commands; the test a command belongs to is the one the
+ * calling thread declared with {@link #startTest(String)}, which the {@link CommandMetricsRule} and the
+ * parallel runner do for every test method. Commands issued outside a test (the pool warming up a session,
+ * for example) only count in the per-command totals.
+ *
+ * The shared metrics are written by the {@link CommandMetricsReport} to target/command-metrics.json,
+ * target/command-metrics.csv and target/command-metrics.prom when the JVM exits.
+ */
+public class CommandMetrics {
+
+    private static final CommandMetrics SHARED = new CommandMetrics();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                new CommandMetricsReport(SHARED).writeTo(Paths.get("target"), "command-metrics")));
+    }
+
+    private final Map<String, LatencyHistogram> commands = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LatencyHistogram>> tests = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentTest = new ThreadLocal<>();
+
+
+    /**
+     * @return the metrics shared by all the sessions of the JVM.
+     */
+    public static CommandMetrics shared(){
+        return SHARED;
+    }
+
+
+    /**
+     * Attributes the commands of the calling thread to a test until {@link #endTest()}.
+     *
+     * @param testId the ClassName#methodName id of the test.
+     */
+    public void startTest(String testId){
+        currentTest.set(testId);
+    }
+
+
+    public void endTest(){
+        currentTest.remove();
+    }
+
+
+    /**
+     * @return the ClassName#methodName id of the test the calling thread runs, null outside a test.
+     */
+    public String currentTest(){
+        return currentTest.get();
+    }
+
+
+    /**
+     * Records one command issued by the calling thread.
+     *
+     * @param command the command, e.g. findElement or click.
+     * @param nanos   how long it took.
+     */
+    public void record(String command, long nanos){
+        long micros = nanos / 1_000;
+        commands.computeIfAbsent(command, key -> new LatencyHistogram()).record(micros);
+        String test = currentTest.get();
+        if (test != null){
+            tests.computeIfAbsent(test, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(command, key -> new LatencyHistogram()).record(micros);
+        }
+    }
+
+
+    /**
+     * @return the histogram of every command, all tests together.
+     */
+    public Map<String, LatencyHistogram> getCommands(){
+        return commands;
+    }
+
+
+    /**
+     * @return the histograms of every test, by command.
+     */
+    public Map<String, Map<String, LatencyHistogram>> getTests(){
+        return tests;
+    }
+
+
+    public boolean isEmpty(){
+        return commands.isEmpty();
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.metrics;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exports the {@link CommandMetrics} as JSON, CSV and Prometheus text.
+ *
+ * The JSON and CSV files hold count, mean, p50, p90, p99 and max of every command, all tests together and per
+ * test, in milliseconds. The Prometheus file only holds the per-command summaries, in seconds, so it can be
+ * scraped or pushed from CI and the p50/p99 of every command followed from build to build; per-test labels
+ * would make too many series.
+ */
+public class CommandMetricsReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+    private static final String ALL_TESTS = "*";
+
+    private final CommandMetrics metrics;
+
+
+    public CommandMetricsReport(CommandMetrics metrics){
+        this.metrics = metrics;
+    }
+
+
+    /**
+     * @return the metrics as a JSON document: {"commands": {...}, "tests": {"Class#method": {...}}}.
+     */
+    public String json(){
+        Map<String, Object> tests = new TreeMap<>();
+        for (Map.Entry<String, Map<String, LatencyHistogram>> test : metrics.getTests().entrySet()){
+            tests.put(test.getKey(), summaries(test.getValue()));
+        }
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("unit", "ms");
+        document.put("commands", summaries(metrics.getCommands()));
+        document.put("tests", tests);
+        return new Json().toJson(document);
+    }
+
+
+    /**
+     * @return one line per command and test, the per-command totals having the test "*".
+     */
+    public String csv(){
+        StringBuilder csv = new StringBuilder("test,command,count,mean_ms,p50_ms,p90_ms,p99_ms,max_ms\n");
+        appendCsv(csv, ALL_TESTS, metrics.getCommands());
+        for (Map.Entry<String, Map<String, LatencyHistogram>> test : new TreeMap<>(metrics.getTests()).entrySet()){
+            appendCsv(csv, test.getKey(), test.getValue());
+        }
+        return csv.toString();
+    }
+
+
+    /**
+     * @return the per-command summaries in the Prometheus text exposition format.
+     */
+    public String prometheus(){
+        String name = "webdriver_command_latency_seconds";
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP ").append(name).append(" Latency of the WebDriver commands issued by the tests.\n");
+        text.append("# TYPE ").append(name).append(" summary\n");
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(metrics.getCommands()).entrySet()){
+            String command = label(entry.getKey());
+            LatencyHistogram histogram = entry.getValue();
+            for (double percentile : PERCENTILES){
+                text.append(String.format(Locale.ROOT, "%s{%s,quantile=\"%s\"} %.6f%n", name, command,
+                        percentile / 100, histogram.percentile(percentile) / 1e6));
+            }
+            text.append(String.format(Locale.ROOT, "%s_sum{%s} %.6f%n", name, command, histogram.getSumMicros() / 1e6));
+            text.append(String.format(Locale.ROOT, "%s_count{%s} %d%n", name, command, histogram.getCount()));
+        }
+        text.append("# HELP webdriver_command_latency_max_seconds Slowest call of every WebDriver command.\n");
+        text.append("# TYPE webdriver_command_latency_max_seconds gauge\n");
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(metrics.getCommands()).entrySet()){
+            text.append(String.format(Locale.ROOT, "webdriver_command_latency_max_seconds{%s} %.6f%n",
+                    label(entry.getKey()), entry.getValue().getMaxMicros() / 1e6));
+        }
+        return text.toString();
+    }
+
+
+    /**
+     * Writes the three files, nothing is written if no command was recorded.
+     *
+     * @param directory where the files are written.
+     * @param baseName  the name of the files without extension.
+     */
+    public void writeTo(Path directory, String baseName){
+        if (metrics.isEmpty()){
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(baseName + ".json"), json().getBytes(StandardCharsets.UTF_8));
+            Files.write(directory.resolve(baseName + ".csv"), csv().getBytes(StandardCharsets.UTF_8));
+            Files.write(directory.resolve(baseName + ".prom"), prometheus().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e){
+            System.err.println("Could not write the command metrics: " + e.getMessage());
+        }
+    }
+
+
+    private static Map<String, Object> summaries(Map<String, LatencyHistogram> histograms){
+        Map<String, Object> summaries = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()){
+            LatencyHistogram histogram = entry.getValue();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", histogram.getCount());
+            summary.put("mean", millis(histogram.getMeanMicros()));
+            for (double percentile : PERCENTILES){
+                summary.put("p" + (int) percentile, millis(histogram.percentile(percentile)));
+            }
+            summary.put("max", millis(histogram.getMaxMicros()));
+            summaries.put(entry.getKey(), summary);
+        }
+        return summaries;
+    }
+
+
+    private static void appendCsv(StringBuilder csv, String test, Map<String, LatencyHistogram> histograms){
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()){
+            LatencyHistogram histogram = entry.getValue();
+            List<String> cells = new ArrayList<>();
+            cells.add(test);
+            cells.add(entry.getKey());
+            cells.add(String.valueOf(histogram.getCount()));
+            cells.add(String.format(Locale.ROOT, "%.3f", millis(histogram.getMeanMicros())));
+            for (double percentile : PERCENTILES){
+                cells.add(String.format(Locale.ROOT, "%.3f", millis(histogram.percentile(percentile))));
+            }
+            cells.add(String.format(Locale.ROOT, "%.3f", millis(histogram.getMaxMicros())));
+            csv.append(String.join(",", cells)).append('\n');
+        }
+    }
+
+
+    private static String label(String command){
+        return "command=\"" + command.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+
+    private static double millis(double micros){
+        return Math.round(micros) / 1000.0;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.metrics;
+
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+/**
+ * Attributes the WebDriver commands of every test method to that test in the {@link CommandMetrics}.
+ *
+ * Tests run by the ParallelTestRunner are attributed by the runner itself; the rule does the same under any
+ * other runner (Maven, the IDE).
+ */
+public class CommandMetricsRule extends TestWatcher {
+
+    @Override
+    protected void starting(Description description){
+        CommandMetrics.shared().startTest(description.getClassName() + "#" + description.getMethodName());
+    }
+
+
+    @Override
+    protected void finished(Description description){
+        CommandMetrics.shared().endTest();
+    }
+}
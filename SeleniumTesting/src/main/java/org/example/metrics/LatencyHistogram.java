@@ -0,0 +1,112 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with a bounded relative error, in the spirit of HdrHistogram.
+ *
+ * Values are microseconds. Below 32 every value has its own bucket; above, every power of two is split into
+ * 32 buckets, so a percentile is off by at most 1/32 (about 3%) of its value whatever the range, and the
+ * whole range up to 2^40 µs (12 days) fits in about 1200 counters. Recording is a few atomic increments,
+ * safe from any number of threads; reading while others record gives a slightly stale but usable picture.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(MAX_VALUE) + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+
+    /**
+     * @param micros the latency to record, negative values count as 0 and huge ones are capped.
+     */
+    public void record(long micros){
+        long value = Math.max(0, Math.min(micros, MAX_VALUE));
+        counts.incrementAndGet(index(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+
+    public long getCount(){
+        return count.get();
+    }
+
+    public long getSumMicros(){
+        return sum.get();
+    }
+
+    public long getMaxMicros(){
+        return max.get();
+    }
+
+    public double getMeanMicros(){
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+
+    /**
+     * @param percentile between 0 and 100, e.g. 99 for the p99.
+     * @return the highest value of the bucket holding the percentile, never above the recorded maximum.
+     */
+    public long percentile(double percentile){
+        long n = count.get();
+        if (n == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++){
+            seen += counts.get(i);
+            if (seen >= rank){
+                return Math.min(highestValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+
+    /**
+     * Adds the counts of another histogram to this one.
+     */
+    public void add(LatencyHistogram other){
+        for (int i = 0; i < counts.length(); i++){
+            long bucket = other.counts.get(i);
+            if (bucket != 0){
+                counts.addAndGet(i, bucket);
+            }
+        }
+        count.addAndGet(other.count.get());
+        sum.addAndGet(other.sum.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+
+    static int index(long value){
+        if (value < SUB_BUCKETS){
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+
+    static long highestValue(int index){
+        if (index < SUB_BUCKETS){
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.network;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the resources the browser must not download during a test, on a test class or on a single test method.
+ *
+ * The annotation is applied by the {@link ResourcePolicyRule}; an annotation on a method replaces the one of its
+ * class. URL patterns use * as a wildcard, for example "*google-analytics.com*". Without types and URLs the
+ * annotation blocks {@link ResourcePolicy#DEFAULT}: images, fonts and analytics.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface BlockResources {
+
+    /**
+     * @return the resource types to block.
+     */
+    ResourceType[] types() default {};
+
+    /**
+     * @return the URL patterns to block.
+     */
+    String[] urls() default {};
+
+    /**
+     * @return true to answer the matching requests with an empty response instead of failing them, for pages
+     * whose scripts break when a resource is missing.
+     */
+    boolean stub() default false;
+}
@@ -0,0 +1,76 @@
+package org.example.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shares one DevTools request interceptor between everything that needs to see the requests of a session.
+ *
+ * A session can only have one active Fetch interception, so the {@link NetworkCache} and the stubbing
+ * {@link ResourcePolicy} add their filters to the chain of the session instead of each starting an interceptor.
+ * Filters run in the order they were added. The interceptor is started with the first filter and stopped with
+ * the last one, so a session without filters pays no interception round-trip.
+ */
+public final class InterceptorChain {
+
+    private static final Map<WebDriver, InterceptorChain> CHAINS = new WeakHashMap<>();
+
+    private final WebDriver session;
+    private final List<Filter> filters = new CopyOnWriteArrayList<>();
+    private NetworkInterceptor interceptor;
+
+    private InterceptorChain(WebDriver session){
+        this.session = session;
+    }
+
+
+    /**
+     * @param session a raw session, not a decorated driver.
+     * @return the chain of the session.
+     */
+    public static synchronized InterceptorChain of(WebDriver session){
+        return CHAINS.computeIfAbsent(session, InterceptorChain::new);
+    }
+
+
+    /**
+     * Adds a filter, starting the interception if it is the first one.
+     *
+     * @param filter the filter to add.
+     * @throws IllegalArgumentException if the session does not support the DevTools protocol.
+     */
+    public synchronized void add(Filter filter){
+        if (interceptor == null){
+            interceptor = new NetworkInterceptor(session, (Filter) next -> request -> {
+                HttpHandler handler = next;
+                // wrapping from the last filter so the first one added sees the request first
+                for (int i = filters.size() - 1; i >= 0; i--){
+                    handler = filters.get(i).apply(handler);
+                }
+                return handler.execute(request);
+            });
+        }
+        filters.add(filter);
+    }
+
+
+    /**
+     * Removes a filter, stopping the interception if it was the last one.
+     *
+     * @param filter the filter to remove.
+     */
+    public synchronized void remove(Filter filter){
+        filters.remove(filter);
+        if (filters.isEmpty() && interceptor != null){
+            interceptor.close();
+            interceptor = null;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Records the responses the browser fetches and replays them on the following runs.
+ *
+ * Once {@link #attach(WebDriver)} is called on a session, every GET the browser makes (pages, scripts, styles,
+ * images, fonts) goes through the DevTools {@link InterceptorChain} of the session. In record mode the real
+ * response is fetched and, when it is cacheable (200, 203 or 204 without Cache-Control: no-store), stored in the
+ * {@link ResponseStore}; errors and redirects are passed on but never stored, so a temporary failure is not
+ * replayed. In replay mode a stored response is served straight from disk, after an optional artificial latency,
+ * and the network is only used for requests that were never recorded. The fixture server is already local, its
+ * requests are always let through.
+ *
+ * The shared cache is configured with system properties:
+ * network.cache (off, record, replay or auto which replays what it has and records the rest, default off),
+ * network.cache.dir (default target/network-cache) and network.cache.latencyMs (default 0).
+ * Interception needs the Chrome DevTools protocol, so only Edge and Chrome sessions are cached.
+ * The index is saved and a report is written to target/network-cache-report.txt when the JVM exits.
+ */
+public class NetworkCache {
+
+    /**
+     * What the cache does with the requests.
+     */
+    public enum Mode {
+        OFF(false, false), RECORD(true, false), REPLAY(false, true), AUTO(true, true);
+
+        private final boolean records;
+        private final boolean replays;
+
+        Mode(boolean records, boolean replays){
+            this.records = records;
+            this.replays = replays;
+        }
+    }
+
+    // the headers worth replaying, the others describe the original transfer (encoding, length, dates)
+    private static final String[] REPLAYED_HEADERS = {"Content-Type", "Access-Control-Allow-Origin"};
+
+    private static final NetworkCache SHARED = new NetworkCache(
+            Mode.valueOf(System.getProperty("network.cache", "off").trim().toUpperCase(Locale.ROOT)),
+            new ResponseStore(Paths.get(System.getProperty("network.cache.dir", "target/network-cache"))),
+            Long.getLong("network.cache.latencyMs", 0));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            SHARED.store.flush();
+            SHARED.report.writeTo(Paths.get("target", "network-cache-report.txt"));
+        }));
+    }
+
+    private final Mode mode;
+    private final ResponseStore store;
+    private final long latencyMillis;
+    private final NetworkCacheReport report = new NetworkCacheReport();
+    private final Set<WebDriver> attached = Collections.newSetFromMap(new WeakHashMap<>());
+
+
+    /**
+     * @param mode          what to do with the requests.
+     * @param store         where the responses are recorded.
+     * @param latencyMillis the delay added before every replayed response.
+     */
+    public NetworkCache(Mode mode, ResponseStore store, long latencyMillis){
+        this.mode = mode;
+        this.store = store;
+        this.latencyMillis = latencyMillis;
+    }
+
+
+    /**
+     * @return the cache shared by all the sessions of the JVM.
+     */
+    public static NetworkCache shared(){
+        return SHARED;
+    }
+
+
+    public boolean isEnabled(){
+        return mode != Mode.OFF;
+    }
+
+    public NetworkCacheReport getReport(){
+        return report;
+    }
+
+
+    /**
+     * Starts recording or replaying the requests of a session.
+     *
+     * Does nothing when the cache is off, when the session is already attached or when it does not speak the
+     * DevTools protocol. The interception stops when the session is quit.
+     *
+     * @param driver the raw session, not a decorated driver.
+     */
+    public synchronized void attach(WebDriver driver){
+        // a session that cannot be intercepted is not tried again either
+        if (!isEnabled() || !attached.add(driver)){
+            return;
+        }
+        try {
+            InterceptorChain.of(driver).add(filter());
+        } catch (IllegalArgumentException | WebDriverException e){
+            System.err.println("[network] " + driver.getClass().getSimpleName() + " cannot be intercepted, not caching it: "
+                    + e.getMessage());
+        }
+    }
+
+
+    private Filter filter(){
+        return next -> request -> {
+            String host = host(request);
+            if (request.getMethod() != HttpMethod.GET || host.equals("localhost") || host.endsWith(".localhost")
+                    || host.equals("127.0.0.1")){
+                return next.execute(request);
+            }
+
+            String key = ResponseStore.key(request.getMethod().name(), request.getUri());
+            ResponseStore.Entry entry = mode.replays ? store.lookup(key) : null;
+            if (entry != null){
+                pause();
+                report.replayed(host, entry.getLength(), entry.getFetchMillis() - latencyMillis);
+                return store.toResponse(entry);
+            }
+
+            if (!mode.records){
+                report.passedThrough(host);
+                return next.execute(request);
+            }
+            long started = System.nanoTime();
+            HttpResponse response = next.execute(request);
+            return record(response, key, host, started);
+        };
+    }
+
+
+    private HttpResponse record(HttpResponse response, String key, String host, long started){
+        if (!isCacheable(response)){
+            report.passedThrough(host);
+            return response;
+        }
+
+        // the body has been read by the interceptor at this point, measuring up to now covers the whole fetch
+        byte[] body = Contents.bytes(response.getContent());
+        long fetchMillis = (System.nanoTime() - started) / 1_000_000;
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : REPLAYED_HEADERS){
+            String value = response.getHeader(name);
+            if (value != null){
+                headers.put(name, value);
+            }
+        }
+        store.put(key, response.getStatus(), headers, body, fetchMillis);
+        report.recorded(host, body.length);
+
+        // the content supplier may only be readable once
+        response.setContent(Contents.bytes(body));
+        return response;
+    }
+
+
+    /**
+     * @return true for the successful responses a cache may keep: 200, 203 and 204, unless marked no-store.
+     */
+    static boolean isCacheable(HttpResponse response){
+        int status = response.getStatus();
+        if (status != 200 && status != 203 && status != 204){
+            return false;
+        }
+        for (String cacheControl : response.getHeaders("Cache-Control")){
+            if (cacheControl.toLowerCase(Locale.ROOT).contains("no-store")){
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private void pause(){
+        if (latencyMillis <= 0){
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private static String host(HttpRequest request){
+        try {
+            String host = URI.create(request.getUri()).getHost();
+            return host == null ? "" : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e){
+            return "";
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.network;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts, per host, the responses the {@link NetworkCache} recorded, replayed or let through, with the bytes that
+ * were not downloaded and the fetch time that was saved by replaying.
+ */
+public class NetworkCacheReport {
+
+    private final Map<String, Counters> hosts = new ConcurrentHashMap<>();
+
+
+    void recorded(String host, long bytes){
+        Counters counters = counters(host);
+        counters.recorded.incrementAndGet();
+        counters.recordedBytes.addAndGet(bytes);
+    }
+
+    /**
+     * @param savedMillis the recorded fetch time minus the artificial latency of the replay.
+     */
+    void replayed(String host, long bytes, long savedMillis){
+        Counters counters = counters(host);
+        counters.replayed.incrementAndGet();
+        counters.replayedBytes.addAndGet(bytes);
+        counters.savedMillis.addAndGet(Math.max(0, savedMillis));
+    }
+
+    void passedThrough(String host){
+        counters(host).passedThrough.incrementAndGet();
+    }
+
+
+    /**
+     * @return the total fetch time saved by the replayed responses, in milliseconds.
+     */
+    public long savedMillis(){
+        return hosts.values().stream().mapToLong(counters -> counters.savedMillis.get()).sum();
+    }
+
+    /**
+     * @return the total size of the replayed bodies, in bytes.
+     */
+    public long savedBytes(){
+        return hosts.values().stream().mapToLong(counters -> counters.replayedBytes.get()).sum();
+    }
+
+
+    /**
+     * Builds the human readable report, one line per host plus the totals.
+     *
+     * @return the report text.
+     */
+    public String render(){
+        StringBuilder report = new StringBuilder("=== Network cache report ===\n");
+        report.append(String.format("%9s %12s %9s %12s %10s %8s  %s%n",
+                "recorded", "rec. KB", "replayed", "saved KB", "saved (s)", "passed", "host"));
+        for (Map.Entry<String, Counters> entry : new TreeMap<>(hosts).entrySet()){
+            Counters counters = entry.getValue();
+            report.append(String.format("%9d %12.1f %9d %12.1f %10.2f %8d  %s%n",
+                    counters.recorded.get(), counters.recordedBytes.get() / 1024.0,
+                    counters.replayed.get(), counters.replayedBytes.get() / 1024.0,
+                    counters.savedMillis.get() / 1000.0, counters.passedThrough.get(), entry.getKey()));
+        }
+        report.append(String.format("saved %.1f KB and %.2f s of fetching%n", savedBytes() / 1024.0, savedMillis() / 1000.0));
+        return report.toString();
+    }
+
+
+    /**
+     * Writes the report to the given file, nothing is written if no response went through the cache.
+     *
+     * @param file where the report should be written.
+     */
+    public void writeTo(Path file){
+        if (hosts.isEmpty()){
+            return;
+        }
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, render().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e){
+            System.err.println("Could not write the network cache report: " + e.getMessage());
+        }
+    }
+
+
+    private Counters counters(String host){
+        return hosts.computeIfAbsent(host, key -> new Counters());
+    }
+
+
+    private static class Counters {
+        private final AtomicLong recorded = new AtomicLong();
+        private final AtomicLong recordedBytes = new AtomicLong();
+        private final AtomicLong replayed = new AtomicLong();
+        private final AtomicLong replayedBytes = new AtomicLong();
+        private final AtomicLong savedMillis = new AtomicLong();
+        private final AtomicLong passedThrough = new AtomicLong();
+    }
+}
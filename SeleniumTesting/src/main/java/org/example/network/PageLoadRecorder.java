@@ -0,0 +1,99 @@
+package org.example.network;
+
+import org.example.driver.DriverProxies;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Measures every page the tests navigate to and records it in the {@link PageLoadReport}.
+ *
+ * {@link #wrap(WebDriver)} returns a driver whose get() and navigate() calls are followed by one script that reads
+ * the Navigation and Resource Timing entries of the new page: time to DOMContentLoaded and to the load event,
+ * number of resources and bytes transferred.
+ *
+ * That script is one more round-trip per navigation, so {@link org.example.driver.DriverHolder} only wraps its
+ * sessions with -Dpage.metrics=true.
+ */
+public final class PageLoadRecorder {
+
+    private static final String METRICS_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0];"
+            + "var resources = performance.getEntriesByType('resource');"
+            + "var bytes = nav ? nav.transferSize : 0;"
+            + "for (var i = 0; i < resources.length; i++) { bytes += resources[i].transferSize; }"
+            + "return [nav ? nav.domContentLoadedEventEnd : 0, nav ? nav.loadEventEnd : 0, resources.length, bytes,"
+            + " location.origin + location.pathname];";
+
+    private PageLoadRecorder(){
+    }
+
+
+    /**
+     * Wraps a driver so its navigations are measured.
+     *
+     * The returned driver implements every interface of the wrapped one and {@link WrapsDriver}.
+     *
+     * @param driver the driver to wrap.
+     * @return the measuring driver.
+     */
+    public static WebDriver wrap(WebDriver driver){
+        return (WebDriver) Proxy.newProxyInstance(PageLoadRecorder.class.getClassLoader(),
+                DriverProxies.interfacesOf(driver, WebDriver.class, WrapsDriver.class),
+                (proxy, method, args) -> {
+                    if ("getWrappedDriver".equals(method.getName()) && method.getParameterCount() == 0){
+                        return driver;
+                    }
+                    Object result = DriverProxies.invoke(driver, method, args);
+                    if ("get".equals(method.getName())){
+                        measure(driver);
+                    } else if ("navigate".equals(method.getName())){
+                        return navigation(driver, (WebDriver.Navigation) result);
+                    }
+                    return result;
+                });
+    }
+
+
+    private static WebDriver.Navigation navigation(WebDriver driver, WebDriver.Navigation navigation){
+        return (WebDriver.Navigation) Proxy.newProxyInstance(PageLoadRecorder.class.getClassLoader(),
+                new Class<?>[]{WebDriver.Navigation.class},
+                (proxy, method, args) -> {
+                    Object result = DriverProxies.invoke(navigation, method, args);
+                    measure(driver);
+                    return result;
+                });
+    }
+
+
+    private static void measure(WebDriver driver){
+        if (!(driver instanceof JavascriptExecutor)){
+            return;
+        }
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(METRICS_SCRIPT);
+            if (!(result instanceof List)){
+                return;
+            }
+            List<?> metrics = (List<?>) result;
+            String page = String.valueOf(metrics.get(4));
+            // about:blank and other pages without an origin are not worth reporting
+            if (page.startsWith("null") || page.startsWith("about:")){
+                return;
+            }
+            PageLoadReport.shared().record(page, ResourcePolicy.activeOn(driver),
+                    number(metrics.get(0)), number(metrics.get(1)), number(metrics.get(2)), number(metrics.get(3)));
+        } catch (WebDriverException e){
+            // an alert or a closed window, the page is simply not measured
+        }
+    }
+
+
+    private static long number(Object value){
+        return value instanceof Number ? Math.round(((Number) value).doubleValue()) : 0;
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.network;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load times and downloaded bytes of every page the tests navigated to, per page and per {@link ResourcePolicy}.
+ *
+ * Running the suites with -Dpage.metrics=true once with -Dresource.policy=false and once without shows what the
+ * policies save.
+ * The shared report is written to target/page-load-report.txt when the JVM exits.
+ *
+ * A page can still be loading when the test moves on, with the eager page load strategy of the lightweight
+ * profile for example. Such a load only counts for the time to DOMContentLoaded; the load time, requests and
+ * bytes are averaged over the complete loads alone, since its resources were not all fetched yet.
+ */
+public class PageLoadReport {
+
+    private static final PageLoadReport SHARED = new PageLoadReport();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> SHARED.writeTo(Paths.get("target", "page-load-report.txt"))));
+    }
+
+    private final Map<String, Loads> pages = new ConcurrentHashMap<>();
+
+
+    /**
+     * @return the report shared by every session.
+     */
+    public static PageLoadReport shared(){
+        return SHARED;
+    }
+
+
+    /**
+     * Records one page load.
+     *
+     * @param page            the page, without its query string.
+     * @param policy          the resource policy in force.
+     * @param domReadyMillis  time to DOMContentLoaded from the start of the navigation.
+     * @param loadMillis      time to the load event, 0 when the page was not fully loaded yet.
+     * @param requests        the number of resources the page fetched so far.
+     * @param bytes           the bytes transferred so far for the page and its resources.
+     */
+    public void record(String page, ResourcePolicy policy, long domReadyMillis, long loadMillis, long requests, long bytes){
+        Loads loads = pages.computeIfAbsent(page + "  [" + policy + "]", key -> new Loads());
+        loads.count.incrementAndGet();
+        loads.domReadyMillis.addAndGet(domReadyMillis);
+        if (loadMillis <= 0){
+            // still loading, its resources are incomplete
+            return;
+        }
+        loads.complete.incrementAndGet();
+        loads.loadMillis.addAndGet(loadMillis);
+        loads.requests.addAndGet(requests);
+        loads.bytes.addAndGet(bytes);
+    }
+
+
+    /**
+     * Builds the human readable report, the averages of every page and policy.
+     *
+     * @return the report text.
+     */
+    public String render(){
+        StringBuilder report = new StringBuilder("=== Page load report ===\n");
+        report.append(String.format("%6s %9s %12s %10s %10s %10s  %s%n",
+                "loads", "complete", "DOM (ms)", "load (ms)", "requests", "KB", "page [policy]"));
+        for (Map.Entry<String, Loads> entry : new TreeMap<>(pages).entrySet()){
+            Loads loads = entry.getValue();
+            double count = loads.count.get();
+            double complete = loads.complete.get();
+            report.append(String.format("%6d %9d %12.0f ", loads.count.get(), loads.complete.get(),
+                    loads.domReadyMillis.get() / count));
+            if (complete == 0){
+                report.append(String.format("%10s %10s %10s  %s%n", "-", "-", "-", entry.getKey()));
+            } else {
+                report.append(String.format("%10.0f %10.1f %10.1f  %s%n", loads.loadMillis.get() / complete,
+                        loads.requests.get() / complete, loads.bytes.get() / complete / 1024, entry.getKey()));
+            }
+        }
+        report.append("Load time, requests and KB are averaged over the complete loads only.\n");
+        report.append("Bytes of cross-origin resources are only counted when their server allows it (Timing-Allow-Origin).\n");
+        return report.toString();
+    }
+
+
+    /**
+     * Writes the report to the given file, nothing is written if no page load was recorded.
+     *
+     * @param file where the report should be written.
+     */
+    public void writeTo(Path file){
+        if (pages.isEmpty()){
+            return;
+        }
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, render().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e){
+            System.err.println("Could not write the page load report: " + e.getMessage());
+        }
+    }
+
+
+    private static class Loads {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong complete = new AtomicLong();
+        private final AtomicLong domReadyMillis = new AtomicLong();
+        private final AtomicLong loadMillis = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which requests of a page the browser must not make: resource types (images, fonts...) and URL patterns
+ * (analytics, third-party assets).
+ *
+ * A blocking policy is handed to the browser itself through the Network.setBlockedURLs DevTools command, so the
+ * matching requests fail immediately inside the browser and cost no round-trip. A stubbing policy answers them
+ * with an empty response of the right type (a transparent pixel for images) through the {@link InterceptorChain},
+ * for pages whose scripts break when a resource fails to load.
+ *
+ * Policies need the Chrome DevTools protocol; on other browsers they are logged and ignored.
+ */
+public final class ResourcePolicy {
+
+    /**
+     * The policy that lets every request through.
+     */
+    public static final ResourcePolicy NONE = new ResourcePolicy(EnumSet.noneOf(ResourceType.class), Collections.emptyList(), false);
+
+    /**
+     * The policy of a {@link BlockResources} annotation without types or URLs: the pictures, the fonts and the
+     * analytics, which none of the tests look at.
+     */
+    public static final ResourcePolicy DEFAULT = new ResourcePolicy(EnumSet.of(ResourceType.IMAGE, ResourceType.FONT),
+            Arrays.asList("*google-analytics.com*", "*googletagmanager.com*", "*backtrace.io*"), false);
+
+    // a 1x1 transparent GIF
+    private static final byte[] PIXEL = Base64.getDecoder().decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAICRAEAOw==");
+
+    // the policy in force on every session, with the filter installed for stubbing policies
+    private static final Map<WebDriver, Applied> ACTIVE = new WeakHashMap<>();
+
+    private final Set<ResourceType> types;
+    private final List<String> urls;
+    private final boolean stub;
+    private final List<Pattern> matchers = new ArrayList<>();
+
+
+    /**
+     * @param types the resource types to block.
+     * @param urls  URL patterns to block, * is a wildcard.
+     * @param stub  true to answer the matching requests with empty responses instead of failing them.
+     */
+    public ResourcePolicy(Set<ResourceType> types, List<String> urls, boolean stub){
+        this.types = types.isEmpty() ? EnumSet.noneOf(ResourceType.class) : EnumSet.copyOf(types);
+        this.urls = new ArrayList<>(urls);
+        this.stub = stub;
+        for (String pattern : patterns()){
+            matchers.add(Pattern.compile(Arrays.stream(pattern.split("\\*", -1))
+                    .map(Pattern::quote)
+                    .collect(Collectors.joining(".*"))));
+        }
+    }
+
+
+    /**
+     * @param annotation the annotation of a test.
+     * @return the policy it declares, {@link #DEFAULT} when it names no type and no URL.
+     */
+    public static ResourcePolicy of(BlockResources annotation){
+        if (annotation.types().length == 0 && annotation.urls().length == 0){
+            return annotation.stub() ? new ResourcePolicy(DEFAULT.types, DEFAULT.urls, true) : DEFAULT;
+        }
+        Set<ResourceType> types = EnumSet.noneOf(ResourceType.class);
+        Collections.addAll(types, annotation.types());
+        return new ResourcePolicy(types, Arrays.asList(annotation.urls()), annotation.stub());
+    }
+
+
+    /**
+     * @return every URL pattern the policy blocks, the ones of its resource types included.
+     */
+    public List<String> patterns(){
+        List<String> patterns = new ArrayList<>();
+        for (ResourceType type : types){
+            Collections.addAll(patterns, type.patterns());
+        }
+        patterns.addAll(urls);
+        return patterns;
+    }
+
+
+    /**
+     * @param url an absolute URL.
+     * @return true if the policy blocks the URL.
+     */
+    public boolean matches(String url){
+        for (Pattern matcher : matchers){
+            if (matcher.matcher(url).matches()){
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    public boolean isEmpty(){
+        return matchers.isEmpty();
+    }
+
+
+    /**
+     * Puts this policy in force on a session, replacing the previous one.
+     *
+     * @param driver the session, possibly decorated.
+     */
+    public void applyTo(WebDriver driver){
+        WebDriver session = unwrap(driver);
+        clear(session);
+        if (isEmpty()){
+            return;
+        }
+        if (!(session instanceof HasCdp)){
+            System.err.println("[resources] " + session.getClass().getSimpleName() + " has no DevTools, not applying " + this);
+            return;
+        }
+
+        Filter filter = null;
+        if (stub){
+            filter = next -> request -> matches(request.getUri()) ? stubFor(request.getUri()) : next.execute(request);
+            InterceptorChain.of(session).add(filter);
+        } else {
+            HasCdp cdp = (HasCdp) session;
+            cdp.executeCdpCommand("Network.enable", new HashMap<>());
+            Map<String, Object> blocked = new HashMap<>();
+            blocked.put("urls", patterns());
+            cdp.executeCdpCommand("Network.setBlockedURLs", blocked);
+        }
+        synchronized (ACTIVE){
+            ACTIVE.put(session, new Applied(this, filter));
+        }
+    }
+
+
+    /**
+     * Lifts the policy in force on a session, if any.
+     *
+     * @param driver the session, possibly decorated.
+     */
+    public static void clear(WebDriver driver){
+        WebDriver session = unwrap(driver);
+        Applied applied;
+        synchronized (ACTIVE){
+            applied = ACTIVE.remove(session);
+        }
+        if (applied == null){
+            return;
+        }
+        try {
+            if (applied.filter != null){
+                InterceptorChain.of(session).remove(applied.filter);
+            } else {
+                Map<String, Object> blocked = new HashMap<>();
+                blocked.put("urls", Collections.emptyList());
+                ((HasCdp) session).executeCdpCommand("Network.setBlockedURLs", blocked);
+            }
+        } catch (WebDriverException e){
+            System.err.println("[resources] Could not lift " + applied.policy + ": " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * @param driver the session, possibly decorated.
+     * @return the policy in force on the session, {@link #NONE} when there is none.
+     */
+    public static ResourcePolicy activeOn(WebDriver driver){
+        synchronized (ACTIVE){
+            Applied applied = ACTIVE.get(unwrap(driver));
+            return applied == null ? NONE : applied.policy;
+        }
+    }
+
+
+    /**
+     * Builds the empty response that replaces a stubbed request.
+     */
+    HttpResponse stubFor(String url){
+        ResourceType type = ResourceType.of(url);
+        if (type == ResourceType.IMAGE){
+            return new HttpResponse().setStatus(200).setHeader("Content-Type", "image/gif").setContent(Contents.bytes(PIXEL));
+        }
+        if (type == ResourceType.STYLESHEET){
+            return new HttpResponse().setStatus(200).setHeader("Content-Type", "text/css").setContent(Contents.empty());
+        }
+        if (type == ResourceType.SCRIPT){
+            return new HttpResponse().setStatus(200).setHeader("Content-Type", "application/javascript")
+                    .setContent(Contents.empty());
+        }
+        return new HttpResponse().setStatus(204).setContent(Contents.empty());
+    }
+
+
+    @Override
+    public String toString(){
+        if (isEmpty()){
+            return "none";
+        }
+        List<String> parts = new ArrayList<>();
+        for (ResourceType type : types){
+            parts.add(type.name().toLowerCase(Locale.ROOT));
+        }
+        parts.addAll(urls);
+        return (stub ? "stub " : "block ") + String.join(", ", parts);
+    }
+
+
+    private static WebDriver unwrap(WebDriver driver){
+        WebDriver session = driver;
+        while (session instanceof WrapsDriver){
+            session = ((WrapsDriver) session).getWrappedDriver();
+        }
+        return session;
+    }
+
+
+    private static class Applied {
+        private final ResourcePolicy policy;
+        private final Filter filter;
+
+        private Applied(ResourcePolicy policy, Filter filter){
+            this.policy = policy;
+            this.filter = filter;
+        }
+    }
+}
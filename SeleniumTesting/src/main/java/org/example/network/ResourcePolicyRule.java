@@ -0,0 +1,32 @@
+package org.example.network;
+
+import org.example.driver.DriverHolder;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+/**
+ * Applies the {@link BlockResources} annotation of a test to the driver of the current thread before the test starts.
+ *
+ * Usage, in a JUnit 4 test class:
+ * &#64;Rule public ResourcePolicyRule resources = new ResourcePolicyRule();
+ *
+ * The annotation of the test method wins over the one of the class; a test without any runs with no policy.
+ * The policy is lifted when {@link DriverHolder#release()} gives the session back to the pool.
+ * -Dresource.policy=false ignores the annotations, to measure the pages with every resource.
+ */
+public class ResourcePolicyRule extends TestWatcher {
+
+    @Override
+    protected void starting(Description description){
+        if (!Boolean.parseBoolean(System.getProperty("resource.policy", "true"))){
+            return;
+        }
+
+        BlockResources annotation = description.getAnnotation(BlockResources.class);
+        if (annotation == null && description.getTestClass() != null){
+            annotation = description.getTestClass().getAnnotation(BlockResources.class);
+        }
+        ResourcePolicy policy = annotation == null ? ResourcePolicy.NONE : ResourcePolicy.of(annotation);
+        policy.applyTo(DriverHolder.get());
+    }
+}
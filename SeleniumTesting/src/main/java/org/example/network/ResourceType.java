@@ -0,0 +1,63 @@
+package org.example.network;
+
+import java.util.Locale;
+
+/**
+ * The kinds of resources a {@link ResourcePolicy} can block, recognised by the extension of their URL.
+ */
+public enum ResourceType {
+
+    IMAGE("png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico"),
+    FONT("woff", "woff2", "ttf", "otf", "eot"),
+    STYLESHEET("css"),
+    SCRIPT("js", "mjs"),
+    MEDIA("mp4", "webm", "ogg", "mp3", "wav");
+
+    private final String[] extensions;
+
+    ResourceType(String... extensions){
+        this.extensions = extensions;
+    }
+
+
+    /**
+     * @return the URL patterns matching this type, with and without a query string.
+     */
+    public String[] patterns(){
+        String[] patterns = new String[extensions.length * 2];
+        for (int i = 0; i < extensions.length; i++){
+            patterns[2 * i] = "*." + extensions[i];
+            patterns[2 * i + 1] = "*." + extensions[i] + "?*";
+        }
+        return patterns;
+    }
+
+
+    /**
+     * @param url an absolute URL.
+     * @return the type of the resource, null when the extension is not a known one.
+     */
+    public static ResourceType of(String url){
+        String path = url;
+        int end = path.indexOf('?');
+        if (end < 0){
+            end = path.indexOf('#');
+        }
+        if (end >= 0){
+            path = path.substring(0, end);
+        }
+        int dot = path.lastIndexOf('.');
+        if (dot < 0 || dot < path.lastIndexOf('/')){
+            return null;
+        }
+        String extension = path.substring(dot + 1).toLowerCase(Locale.ROOT);
+        for (ResourceType type : values()){
+            for (String candidate : type.extensions){
+                if (candidate.equals(extension)){
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,287 @@
+package org.example.network;
+
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An on-disk, content-addressed store of recorded HTTP responses.
+ *
+ * Every body is written once under blobs/&lt;first two hex digits&gt;/&lt;sha-256&gt;, so the same script or image
+ * fetched from several URLs is stored a single time. index.properties maps each request ("GET https://...") to its
+ * status, body hash, a few headers and the time the real fetch took. When replaying, the bodies are memory-mapped
+ * instead of read into the heap, and every mapping is kept for the life of the store.
+ */
+public class ResponseStore {
+
+    private static final String INDEX = "index.properties";
+
+    private final Path directory;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+
+
+    /**
+     * Opens the store in the given directory, loading its index if there is one.
+     *
+     * @param directory where the index and the bodies are kept, created on the first recording.
+     * @throws UncheckedIOException if the index exists but cannot be read.
+     */
+    public ResponseStore(Path directory){
+        this.directory = directory;
+        Path index = directory.resolve(INDEX);
+        if (Files.exists(index)){
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)){
+                properties.load(reader);
+            } catch (IOException e){
+                throw new UncheckedIOException("Could not read " + index, e);
+            }
+            for (String key : properties.stringPropertyNames()){
+                entries.put(key, Entry.parse(properties.getProperty(key)));
+            }
+        }
+    }
+
+
+    /**
+     * @param key the request, see {@link #key(String, String)}.
+     * @return the recorded response, null when the request was never recorded.
+     */
+    public Entry lookup(String key){
+        return entries.get(key);
+    }
+
+
+    /**
+     * Records a response, its body is written to disk right away.
+     *
+     * @param key         the request, see {@link #key(String, String)}.
+     * @param status      the HTTP status.
+     * @param headers     the headers to replay with the response.
+     * @param body        the decoded body.
+     * @param fetchMillis how long the real fetch took.
+     * @return the new entry.
+     */
+    public Entry put(String key, int status, Map<String, String> headers, byte[] body, long fetchMillis){
+        String sha = sha256(body);
+        Path blob = blob(sha);
+        try {
+            if (!Files.exists(blob)){
+                Files.createDirectories(blob.getParent());
+                Path temporary = Files.createTempFile(blob.getParent(), sha, ".tmp");
+                Files.write(temporary, body);
+                Files.move(temporary, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException("Could not store the body of " + key, e);
+        }
+
+        Entry entry = new Entry(status, sha, body.length, fetchMillis, headers);
+        entries.put(key, entry);
+        return entry;
+    }
+
+
+    /**
+     * Builds the response to replay for an entry, its body is read from the memory-mapped blob.
+     *
+     * @param entry a recorded response.
+     * @return a new response.
+     */
+    public HttpResponse toResponse(Entry entry){
+        HttpResponse response = new HttpResponse().setStatus(entry.status);
+        entry.headers.forEach(response::setHeader);
+        response.setContent(new MappedContents(map(entry.sha)));
+        return response;
+    }
+
+
+    /**
+     * Writes the index, the bodies are already on disk.
+     */
+    public synchronized void flush(){
+        if (entries.isEmpty()){
+            return;
+        }
+        Properties properties = new Properties();
+        entries.forEach((key, entry) -> properties.setProperty(key, entry.format()));
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(INDEX), StandardCharsets.UTF_8)){
+                properties.store(writer, "Recorded responses: request = status, sha-256, length, fetch ms, headers");
+            }
+        } catch (IOException e){
+            System.err.println("Could not write the response store index: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * @return the number of recorded requests.
+     */
+    public int size(){
+        return entries.size();
+    }
+
+
+    /**
+     * @param method the HTTP method.
+     * @param url    the absolute URL.
+     * @return the key of the request in the store.
+     */
+    public static String key(String method, String url){
+        return method + " " + url;
+    }
+
+
+    private MappedByteBuffer map(String sha){
+        return mapped.computeIfAbsent(sha, key -> {
+            try (FileChannel channel = FileChannel.open(blob(key), StandardOpenOption.READ)){
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e){
+                throw new UncheckedIOException("Could not map the recorded body " + key, e);
+            }
+        });
+    }
+
+
+    private Path blob(String sha){
+        return directory.resolve("blobs").resolve(sha.substring(0, 2)).resolve(sha);
+    }
+
+
+    private static String sha256(byte[] body){
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(body)){
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e){
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+
+    /**
+     * A recorded response.
+     */
+    public static class Entry {
+        private final int status;
+        private final String sha;
+        private final int length;
+        private final long fetchMillis;
+        private final Map<String, String> headers;
+
+        private Entry(int status, String sha, int length, long fetchMillis, Map<String, String> headers){
+            this.status = status;
+            this.sha = sha;
+            this.length = length;
+            this.fetchMillis = fetchMillis;
+            this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        }
+
+        public int getStatus(){
+            return status;
+        }
+
+        public int getLength(){
+            return length;
+        }
+
+        /**
+         * @return how long the real fetch took when the response was recorded.
+         */
+        public long getFetchMillis(){
+            return fetchMillis;
+        }
+
+        // the fields are tab separated, headers are written as "name: value"
+        private String format(){
+            StringBuilder value = new StringBuilder()
+                    .append(status).append('\t').append(sha).append('\t').append(length).append('\t').append(fetchMillis);
+            headers.forEach((name, header) -> value.append('\t').append(name).append(": ").append(header));
+            return value.toString();
+        }
+
+        private static Entry parse(String value){
+            String[] fields = value.split("\t");
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (int i = 4; i < fields.length; i++){
+                int colon = fields[i].indexOf(": ");
+                headers.put(fields[i].substring(0, colon), fields[i].substring(colon + 2));
+            }
+            return new Entry(Integer.parseInt(fields[0]), fields[1], Integer.parseInt(fields[2]),
+                    Long.parseLong(fields[3]), headers);
+        }
+    }
+
+
+    /**
+     * Serves a memory-mapped body, every reader gets its own view of the shared mapping.
+     */
+    private static class MappedContents implements Contents.Supplier {
+        private final ByteBuffer buffer;
+
+        private MappedContents(ByteBuffer buffer){
+            this.buffer = buffer;
+        }
+
+        @Override
+        public InputStream get(){
+            ByteBuffer view = buffer.duplicate();
+            return new InputStream(){
+                @Override
+                public int read(){
+                    return view.hasRemaining() ? view.get() & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length){
+                    if (!view.hasRemaining()){
+                        return -1;
+                    }
+                    int count = Math.min(length, view.remaining());
+                    view.get(bytes, offset, count);
+                    return count;
+                }
+
+                @Override
+                public int available(){
+                    return view.remaining();
+                }
+            };
+        }
+
+        @Override
+        public int length(){
+            return buffer.capacity();
+        }
+
+        @Override
+        public void close(){
+            // the mapping is shared and released with the store
+        }
+    }
+}
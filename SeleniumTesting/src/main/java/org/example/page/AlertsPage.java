@@ -0,0 +1,65 @@
+package org.example.page;
+
+import org.example.alert.Alerts;
+import org.example.alert.Dialog;
+import org.example.fixture.Site;
+import org.example.locator.LocatorCache;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * The alerts test page of the Selenium project.
+ *
+ * Every link returns the dialog it opens, already switched to, through the {@link Alerts} of the test.
+ */
+public class AlertsPage extends Page {
+
+    private final WebElement alertLink = element(By.xpath("//a[@id='alert']"));
+    private final WebElement promptLink = element(By.xpath("//a[@id='prompt']"));
+    private final WebElement confirmLink = element(By.xpath("//a[@id='confirm']"));
+    private final Alerts alerts;
+
+
+    public AlertsPage(WebDriver driver, LocatorCache elements, Alerts alerts){
+        super(driver, elements);
+        this.alerts = alerts;
+    }
+
+
+    /**
+     * Opens the page with a fresh element cache.
+     *
+     * @param driver the driver to open the page in.
+     * @param alerts   opens the dialogs of the page.
+     * @return the alerts page.
+     */
+    public static AlertsPage open(WebDriver driver, Alerts alerts){
+        driver.get(Site.SELENIUM_WEB.url("alerts.html"));
+        return new AlertsPage(driver, new LocatorCache(driver), alerts);
+    }
+
+
+    /**
+     * @return the simple alert, showing "cheese".
+     */
+    public Dialog openAlert(){
+        return alerts.opening(alertLink::click);
+    }
+
+
+    /**
+     * @return the prompt, whose answer is written in the page.
+     */
+    public Dialog openPrompt(){
+        return alerts.opening(promptLink::click);
+    }
+
+
+    /**
+     * @return the confirmation, asking "Are you sure?".
+     */
+    public Dialog openConfirm(){
+        return alerts.opening(confirmLink::click);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.page;
+
+import org.example.fixture.Site;
+import org.example.locator.LocatorCache;
+import org.example.query.BulkExtractor;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * The cart of a logged in user.
+ */
+public class CartPage extends Page {
+
+    private static final By ITEMS = By.xpath("//div[@class='cart_item']");
+    private static final By ITEM_NAMES = By.xpath("//div[@class='cart_item']//div/a/div[@class='inventory_item_name']");
+
+    private final WebElement continueShopping = element(By.id("continue-shopping"));
+
+
+    public CartPage(WebDriver driver, LocatorCache elements){
+        super(driver, elements);
+    }
+
+
+    /**
+     * @return the address of the page.
+     */
+    public static String url(){
+        return Site.SAUCEDEMO.url("cart.html");
+    }
+
+
+    /**
+     * @return the items of the cart, looked up on every call since the list changes.
+     */
+    public List<WebElement> getItems(){
+        return driver.findElements(ITEMS);
+    }
+
+
+    /**
+     * @return the names of the products in the cart, read in a single script call.
+     */
+    public List<String> getItemNames(){
+        return BulkExtractor.on(driver).texts(ITEM_NAMES);
+    }
+
+
+    /**
+     * @return the inventory page.
+     */
+    public InventoryPage continueShopping(){
+        continueShopping.click();
+        return new InventoryPage(driver, elements);
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.page;
+
+import org.example.fixture.Site;
+import org.example.locator.LocatorCache;
+import org.example.query.BulkExtractor;
+import org.example.session.LoginStateCache;
+import org.example.wait.WaitEngine;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+
+/**
+ * The product list a logged in user lands on.
+ */
+public class InventoryPage extends Page {
+
+    private static final By PRICES = By.className("inventory_item_price");
+
+    private final WebElement sortContainer = element(By.xpath("//select[@class='product_sort_container']"));
+    private final WebElement activeSort = element(By.xpath("//span[@class='active_option']"));
+    private final WebElement menuButton = element(By.id("react-burger-menu-btn"));
+    private final WebElement logoutLink = element(By.id("logout_sidebar_link"));
+
+
+    public InventoryPage(WebDriver driver, LocatorCache elements){
+        super(driver, elements);
+    }
+
+
+    /**
+     * @return the address of the page.
+     */
+    public static String url(){
+        return Site.SAUCEDEMO.url("inventory.html");
+    }
+
+
+    /**
+     * @return the sorting dropdown.
+     */
+    public Select getSortSelect(){
+        return new Select(sortContainer);
+    }
+
+
+    /**
+     * Sorts the products by one of the values of the dropdown (az, za, lohi, hilo).
+     *
+     * @return this page.
+     */
+    public InventoryPage sortBy(String value){
+        getSortSelect().selectByValue(value);
+        return this;
+    }
+
+
+    /**
+     * Sorts the products by the option at the given position of the dropdown.
+     *
+     * @return this page.
+     */
+    public InventoryPage sortByIndex(int index){
+        getSortSelect().selectByIndex(index);
+        return this;
+    }
+
+
+    /**
+     * @return the label of the sorting in force, e.g. "Name (Z to A)".
+     */
+    public String getActiveSort(){
+        return activeSort.getText();
+    }
+
+
+    /**
+     * @return the prices of the products in page order, read in a single script call.
+     */
+    public double[] getPrices(){
+        return BulkExtractor.on(driver).numbers(PRICES);
+    }
+
+
+    /**
+     * Adds the product of the n-th "Add to cart" button to the cart.
+     *
+     * @param position the position of the button among the ones still showing "Add to cart", from 1.
+     * @return this page.
+     */
+    public InventoryPage addToCart(int position){
+        // not cached, the n-th button is another one once a product was added
+        driver.findElement(By.xpath("(//button[text()='Add to cart'])[" + position + "]")).click();
+        return this;
+    }
+
+
+    /**
+     * @return the cart page.
+     */
+    public CartPage openCart(){
+        driver.navigate().to(CartPage.url());
+        return new CartPage(driver, elements);
+    }
+
+
+    /**
+     * Logs out through the side menu and forgets the login state the {@link LoginStateCache} kept for the user,
+     * so the next test of that user logs in through the form again.
+     *
+     * @return the login page the site goes back to.
+     */
+    public LoginPage logout(){
+        // the site keeps the logged in user in this cookie, the same key the login states are cached under
+        Cookie session = driver.manage().getCookieNamed("session-username");
+
+        menuButton.click();
+        // the menu slides in, the link cannot be clicked before
+        new WaitEngine(driver, getClass().getSimpleName()).untilClickable(logoutLink).click();
+
+        if (session != null){
+            LoginStateCache.shared().invalidate(session.getValue());
+        }
+        return new LoginPage(driver, elements);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.page;
+
+import org.example.fixture.Site;
+import org.example.locator.LocatorCache;
+import org.example.session.LoginStateCache;
+import org.example.trace.Span;
+import org.example.trace.Tracer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * The login form of Swag Labs.
+ */
+public class LoginPage extends Page {
+
+    private final WebElement usernameField = element(By.id("user-name"));
+    private final WebElement passwordField = element(By.id("password"));
+    private final WebElement loginButton = element(By.id("login-button"));
+    private final WebElement errorMessage = element(By.cssSelector("h3[data-test='error']"));
+    private final WebElement errorButton = element(By.cssSelector("button.error-button"));
+
+
+    public LoginPage(WebDriver driver, LocatorCache elements){
+        super(driver, elements);
+    }
+
+
+    /**
+     * Opens the login page with a fresh element cache.
+     *
+     * @param driver the driver to open the page in.
+     * @return the login page.
+     */
+    public static LoginPage open(WebDriver driver){
+        driver.get(Site.SAUCEDEMO.baseUrl());
+        return new LoginPage(driver, new LocatorCache(driver));
+    }
+
+
+    /**
+     * Fills the form and submits it, replacing whatever the fields held.
+     *
+     * @param username the username to type.
+     * @param password the password to type.
+     * @return this page, still displayed when the credentials are rejected.
+     */
+    public LoginPage submit(String username, String password){
+        usernameField.clear();
+        usernameField.sendKeys(username);
+        passwordField.clear();
+        passwordField.sendKeys(password);
+        loginButton.submit();
+        return this;
+    }
+
+
+    /**
+     * Logs in through the form with valid credentials.
+     *
+     * @return the inventory page the user lands on.
+     */
+    public InventoryPage loginAs(String username, String password){
+        submit(username, password);
+        return new InventoryPage(driver, elements);
+    }
+
+
+    /**
+     * Reaches the inventory page as a logged in user, submitting the form only when the {@link LoginStateCache}
+     * has no state for the user yet.
+     *
+     * @return the inventory page.
+     */
+    @SuppressWarnings("try")
+    public InventoryPage restoreOrLoginAs(String username, String password){
+        try (Span ignored = Tracer.shared().span("login", "page")){
+            LoginStateCache.shared().restoreOrLogin(driver, username, InventoryPage.url(),
+                    () -> submit(username, password));
+        }
+        return new InventoryPage(driver, elements);
+    }
+
+
+    /**
+     * @return the text of the error shown after a rejected login.
+     * @throws org.openqa.selenium.NoSuchElementException if no error is shown.
+     */
+    public String getErrorMessage(){
+        return errorMessage.getText();
+    }
+
+
+    /**
+     * Closes the error shown after a rejected login.
+     *
+     * @return this page.
+     */
+    public LoginPage dismissError(){
+        errorButton.click();
+        return this;
+    }
+
+
+    public WebElement getUsernameField(){
+        return usernameField;
+    }
+
+    public WebElement getPasswordField(){
+        return passwordField;
+    }
+
+    public WebElement getLoginButton(){
+        return loginButton;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.page;
+
+import org.example.locator.LocatorCache;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Base of the page objects.
+ *
+ * A page declares its elements with {@link #element(By)} as fields: they are lazy proxies that are looked up the
+ * first time they are used, kept in the {@link LocatorCache} of the test and looked up again only when they went
+ * stale. Building a page therefore costs no round-trip, and a navigation can hand the next page object the same
+ * cache without any lookup.
+ */
+public abstract class Page {
+
+    protected final WebDriver driver;
+    protected final LocatorCache elements;
+
+
+    /**
+     * @param driver   the driver the page is displayed in.
+     * @param elements the element cache of the test, shared by the pages it goes through.
+     */
+    protected Page(WebDriver driver, LocatorCache elements){
+        this.driver = driver;
+        this.elements = elements;
+    }
+
+
+    /**
+     * Declares an element of this page.
+     *
+     * @param by the locator of the element.
+     * @return a proxy that looks the element up on first use.
+     */
+    protected WebElement element(By by){
+        return elements.lazy(getClass().getSimpleName(), by);
+    }
+
+
+    public WebDriver getDriver(){
+        return driver;
+    }
+}
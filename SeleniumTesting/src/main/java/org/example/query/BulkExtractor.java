@@ -0,0 +1,197 @@
+package org.example.query;
+
+import org.example.locator.ParsedLocator;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the texts, attributes or numeric values of a whole list of elements in a single script call.
+ *
+ * Calling getText() on every element of a findElements result costs one driver round-trip per element. These
+ * methods locate the elements and read all their values inside the browser instead, so a list of hundreds of
+ * rows costs one round-trip. Locators that a script cannot evaluate (link texts) are located through
+ * findElements first, which adds one round-trip.
+ */
+public class BulkExtractor {
+
+    private static final String FIND_ALL_FUNCTION =
+            "function __findAll(strategy, value, root) {"
+            + "  root = root || document;"
+            + "  switch (strategy) {"
+            + "    case 'id': return Array.prototype.slice.call(root.querySelectorAll('#' + CSS.escape(value)));"
+            + "    case 'name': return Array.prototype.slice.call(root.querySelectorAll('[name=\"' + CSS.escape(value) + '\"]'));"
+            + "    case 'className': return Array.prototype.slice.call(root.getElementsByClassName(value));"
+            + "    case 'tagName': return Array.prototype.slice.call(root.getElementsByTagName(value));"
+            + "    case 'cssSelector': return Array.prototype.slice.call(root.querySelectorAll(value));"
+            + "    case 'xpath':"
+            + "      var found = [], result = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "      for (var i = 0; i < result.snapshotLength; i++) found.push(result.snapshotItem(i));"
+            + "      return found;"
+            + "  }"
+            + "  return [];"
+            + "}";
+
+    // arguments: strategy, value, elements (used when strategy is null), attribute name (null for the text)
+    private static final String VALUES_SCRIPT =
+            FIND_ALL_FUNCTION
+            + "var elements = arguments[0] ? __findAll(arguments[0], arguments[1]) : arguments[2];"
+            + "var attribute = arguments[3];"
+            + "return elements.map(function (e) { return attribute ? e.getAttribute(attribute) : e.innerText.trim(); });";
+
+    // arguments: containers, strategy, value of the relative locator
+    private static final String RELATIVE_TEXTS_SCRIPT =
+            ParsedLocator.FIND_FUNCTION
+            + "var containers = arguments[0], strategy = arguments[1], value = arguments[2];"
+            + "return containers.map(function (c) { var e = __find(strategy, value, c); return e ? e.innerText.trim() : null; });";
+
+    // a number, with or without thousands separators: "7.99", "-3", "1,299.99"
+    private static final Pattern NUMBER = Pattern.compile("-?(?:\\d{1,3}(?:,\\d{3})+|\\d+)(?:\\.\\d+)?");
+
+    private final WebDriver driver;
+
+    private BulkExtractor(WebDriver driver){
+        this.driver = driver;
+    }
+
+
+    /**
+     * @param driver a driver able to execute scripts.
+     * @return an extractor working on the page of the driver.
+     */
+    public static BulkExtractor on(WebDriver driver){
+        return new BulkExtractor(driver);
+    }
+
+
+    /**
+     * @return the trimmed rendered text of every element matching the locator, in document order.
+     */
+    public List<String> texts(By by){
+        return values(by, null);
+    }
+
+
+    /**
+     * @return the trimmed rendered text of every element, in the same order.
+     */
+    public List<String> texts(List<WebElement> elements){
+        return values(elements, null);
+    }
+
+
+    /**
+     * @return the value of the attribute for every element matching the locator, null where it is missing.
+     */
+    public List<String> attributes(By by, String attribute){
+        return values(by, attribute);
+    }
+
+
+    /**
+     * Reads, for every container, the text of the first element matching a locator relative to that container.
+     *
+     * @param containers the container elements, for example the rows of a list.
+     * @param relative   the locator evaluated inside each container, e.g. By.xpath(".//div[@class='name']").
+     * @return one text per container, null when nothing matched inside it.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> textsWithin(List<WebElement> containers, By relative){
+        if (containers.isEmpty()){
+            return new ArrayList<>();
+        }
+        ParsedLocator locator = ParsedLocator.parse(relative);
+        if (locator == null){
+            // not evaluable by a script, one round-trip per container
+            List<String> texts = new ArrayList<>();
+            for (WebElement container : containers){
+                texts.add(container.findElement(relative).getText());
+            }
+            return texts;
+        }
+        return (List<String>) script().executeScript(RELATIVE_TEXTS_SCRIPT,
+                containers, locator.getStrategy(), locator.getValue());
+    }
+
+
+    /**
+     * Parses the number held by the text of every element matching the locator, "$29.99" giving 29.99.
+     *
+     * The texts are read in one script call and parsed into a primitive array, one value per element.
+     *
+     * @param by the locator.
+     * @return the numbers, in document order.
+     * @throws NumberFormatException if the text of an element holds no number or more than one.
+     */
+    public double[] numbers(By by){
+        return parseNumbers(texts(by));
+    }
+
+
+    /**
+     * Parses the number held by the text of every element.
+     *
+     * @param elements the elements.
+     * @return the numbers, in the same order.
+     * @throws NumberFormatException if the text of an element holds no number or more than one.
+     */
+    public double[] numbers(List<WebElement> elements){
+        return parseNumbers(texts(elements));
+    }
+
+
+    /**
+     * Parses the single number of every text: "$29.99" gives 29.99 and "$1,299.00" gives 1299. A text with no
+     * number, or with several ("29,99", "Item 3 - $9.99"), is rejected rather than guessed.
+     */
+    static double[] parseNumbers(List<String> texts){
+        double[] numbers = new double[texts.size()];
+        for (int i = 0; i < numbers.length; i++){
+            numbers[i] = parseNumber(texts.get(i));
+        }
+        return numbers;
+    }
+
+
+    private static double parseNumber(String text){
+        Matcher matcher = NUMBER.matcher(text == null ? "" : text);
+        if (!matcher.find()){
+            throw new NumberFormatException("No number in the element text \"" + text + "\"");
+        }
+        String number = matcher.group();
+        if (matcher.find()){
+            throw new NumberFormatException("More than one number in the element text \"" + text + "\"");
+        }
+        return Double.parseDouble(number.replace(",", ""));
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private List<String> values(By by, String attribute){
+        ParsedLocator locator = ParsedLocator.parse(by);
+        if (locator == null){
+            return values(driver.findElements(by), attribute);
+        }
+        return (List<String>) script().executeScript(VALUES_SCRIPT, locator.getStrategy(), locator.getValue(), null, attribute);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private List<String> values(List<WebElement> elements, String attribute){
+        if (elements.isEmpty()){
+            return new ArrayList<>();
+        }
+        return (List<String>) script().executeScript(VALUES_SCRIPT, null, null, elements, attribute);
+    }
+
+
+    private JavascriptExecutor script(){
+        return (JavascriptExecutor) driver;
+    }
+}
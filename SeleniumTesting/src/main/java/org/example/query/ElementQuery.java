@@ -0,0 +1,178 @@
+package org.example.query;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fetches many attributes, CSS values and properties of many elements in a single driver round-trip.
+ *
+ * Every getAttribute, getCssValue or isDisplayed call is an HTTP request to the driver, which adds up fast on a
+ * remote grid. A query lists what it needs once and runs one executeScript for all the elements:
+ *
+ * ElementSnapshot field = ElementQuery.on(driver).attributes("placeholder", "type").displayed().fetch(element);
+ */
+public class ElementQuery {
+
+    private static final String SCRIPT =
+            "var elements = arguments[0], spec = arguments[1];"
+            + "function normalizeColor(value) {"
+            + "  var rgb = /^rgb\\((\\d+), (\\d+), (\\d+)\\)$/.exec(value);"
+            + "  return rgb ? 'rgba(' + rgb[1] + ', ' + rgb[2] + ', ' + rgb[3] + ', 1)' : value;"
+            + "}"
+            + "function plain(value) {"
+            + "  if (value === null || value === undefined) return null;"
+            + "  var type = typeof value;"
+            + "  return type === 'string' || type === 'number' || type === 'boolean' ? value : String(value);"
+            + "}"
+            + "function displayed(e) {"
+            + "  if (e.checkVisibility) return e.checkVisibility({checkOpacity: true, checkVisibilityCSS: true});"
+            + "  var style = window.getComputedStyle(e);"
+            + "  return e.getClientRects().length > 0 && style.visibility !== 'hidden' && style.display !== 'none';"
+            + "}"
+            + "return elements.map(function (e) {"
+            + "  var result = {attributes: {}, css: {}, properties: {}};"
+            + "  spec.attributes.forEach(function (name) { result.attributes[name] = e.getAttribute(name); });"
+            + "  if (spec.css.length) {"
+            + "    var style = window.getComputedStyle(e);"
+            + "    spec.css.forEach(function (name) { result.css[name] = normalizeColor(style.getPropertyValue(name)); });"
+            + "  }"
+            + "  spec.properties.forEach(function (name) { result.properties[name] = plain(e[name]); });"
+            + "  if (spec.displayed) result.displayed = displayed(e);"
+            + "  if (spec.text) result.text = e.innerText;"
+            + "  return result;"
+            + "});";
+
+    private final JavascriptExecutor executor;
+    private final Set<String> attributes = new LinkedHashSet<>();
+    private final Set<String> cssValues = new LinkedHashSet<>();
+    private final Set<String> properties = new LinkedHashSet<>();
+    private boolean displayed;
+    private boolean text;
+
+    private ElementQuery(JavascriptExecutor executor){
+        this.executor = executor;
+    }
+
+
+    /**
+     * Starts a query on the given driver.
+     *
+     * @param driver a driver able to execute scripts.
+     * @return an empty query.
+     */
+    public static ElementQuery on(WebDriver driver){
+        return new ElementQuery((JavascriptExecutor) driver);
+    }
+
+
+    /**
+     * Adds HTML attributes to fetch, read with Element.getAttribute.
+     */
+    public ElementQuery attributes(String... names){
+        attributes.addAll(Arrays.asList(names));
+        return this;
+    }
+
+
+    /**
+     * Adds computed CSS values to fetch.
+     */
+    public ElementQuery css(String... names){
+        cssValues.addAll(Arrays.asList(names));
+        return this;
+    }
+
+
+    /**
+     * Adds DOM properties to fetch, for example value or checked.
+     */
+    public ElementQuery properties(String... names){
+        properties.addAll(Arrays.asList(names));
+        return this;
+    }
+
+
+    /**
+     * Also fetches whether the elements are displayed.
+     */
+    public ElementQuery displayed(){
+        displayed = true;
+        return this;
+    }
+
+
+    /**
+     * Also fetches the rendered text of the elements.
+     */
+    public ElementQuery text(){
+        text = true;
+        return this;
+    }
+
+
+    /**
+     * Fetches the state of a single element.
+     *
+     * @param element the element.
+     * @return its snapshot.
+     */
+    public ElementSnapshot fetch(WebElement element){
+        return fetchAll(Arrays.asList(element)).get(0);
+    }
+
+
+    /**
+     * Fetches the state of every element in one script call.
+     *
+     * @param elements the elements.
+     * @return one snapshot per element, in the same order.
+     */
+    public List<ElementSnapshot> fetchAll(WebElement... elements){
+        return fetchAll(Arrays.asList(elements));
+    }
+
+
+    /**
+     * Fetches the state of every element in one script call.
+     *
+     * @param elements the elements.
+     * @return one snapshot per element, in the same order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<ElementSnapshot> fetchAll(List<WebElement> elements){
+        if (elements.isEmpty()){
+            return new ArrayList<>();
+        }
+
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("attributes", new ArrayList<>(attributes));
+        spec.put("css", new ArrayList<>(cssValues));
+        spec.put("properties", new ArrayList<>(properties));
+        spec.put("displayed", displayed);
+        spec.put("text", text);
+
+        List<Map<String, Object>> results = (List<Map<String, Object>>) executor.executeScript(SCRIPT, elements, spec);
+
+        List<ElementSnapshot> snapshots = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++){
+            Map<String, Object> result = results.get(i);
+            snapshots.add(new ElementSnapshot(
+                    elements.get(i),
+                    (Map<String, String>) result.get("attributes"),
+                    (Map<String, String>) result.get("css"),
+                    (Map<String, Object>) result.get("properties"),
+                    (Boolean) result.get("displayed"),
+                    (String) result.get("text")));
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.query;
+
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The state of one element as fetched by an {@link ElementQuery}.
+ *
+ * Reading a snapshot never talks to the driver. Asking for something the query did not fetch is a
+ * programming error and throws an IllegalArgumentException.
+ */
+public final class ElementSnapshot {
+
+    private final WebElement element;
+    private final Map<String, String> attributes;
+    private final Map<String, String> cssValues;
+    private final Map<String, Object> properties;
+    private final Boolean displayed;
+    private final String text;
+
+    ElementSnapshot(WebElement element, Map<String, String> attributes, Map<String, String> cssValues,
+                    Map<String, Object> properties, Boolean displayed, String text){
+        this.element = element;
+        this.attributes = Collections.unmodifiableMap(attributes);
+        this.cssValues = Collections.unmodifiableMap(cssValues);
+        this.properties = Collections.unmodifiableMap(properties);
+        this.displayed = displayed;
+        this.text = text;
+    }
+
+
+    /**
+     * @return the element the snapshot was taken of.
+     */
+    public WebElement getElement(){
+        return element;
+    }
+
+
+    /**
+     * @return the value of the attribute, null if the element does not have it.
+     */
+    public String attribute(String name){
+        requireFetched(attributes.containsKey(name), "attribute " + name);
+        return attributes.get(name);
+    }
+
+
+    /**
+     * @return the computed CSS value, colors normalized to rgba() like WebElement.getCssValue does.
+     */
+    public String css(String name){
+        requireFetched(cssValues.containsKey(name), "css value " + name);
+        return cssValues.get(name);
+    }
+
+
+    /**
+     * @return the DOM property value as a String, Boolean, Long or Double, or null.
+     */
+    public Object property(String name){
+        requireFetched(properties.containsKey(name), "property " + name);
+        return properties.get(name);
+    }
+
+
+    public boolean isDisplayed(){
+        requireFetched(displayed != null, "displayed state");
+        return displayed;
+    }
+
+
+    /**
+     * @return the rendered text of the element.
+     */
+    public String text(){
+        requireFetched(text != null, "text");
+        return text;
+    }
+
+
+    private static void requireFetched(boolean fetched, String what){
+        if (!fetched){
+            throw new IllegalArgumentException("The query did not fetch the " + what);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.runner;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Orders test methods so the longest ones start first.
+ *
+ * Starting the long tests first is the classic "longest processing time" rule: when the workers pull the next test
+ * from this order, the short tests fill the gaps at the end and all the workers finish at about the same time.
+ */
+public class DurationScheduler {
+
+    private final TestDurations durations;
+
+    public DurationScheduler(TestDurations durations){
+        this.durations = durations;
+    }
+
+
+    /**
+     * Sorts the tests by expected duration, longest first. Ties keep the discovery order.
+     *
+     * @param testIds the ClassName#methodName ids to run.
+     * @return a new list holding the tests in the order they should be started.
+     */
+    public List<String> order(List<String> testIds){
+        List<String> ordered = new ArrayList<>(testIds);
+        ordered.sort(Comparator.comparingLong(durations::expected).reversed());
+        return ordered;
+    }
+
+
+    /**
+     * Splits the tests into one shard per worker, always giving the next longest test to the least loaded shard.
+     *
+     * The workers pull from a shared queue at runtime, the shards are used to print the expected plan
+     * and the expected wall-clock time of the run.
+     *
+     * @param testIds the ClassName#methodName ids to run.
+     * @param workers the number of worker threads.
+     * @return the shards, each one in start order.
+     */
+    public List<List<String>> shards(List<String> testIds, int workers){
+        List<List<String>> shards = new ArrayList<>();
+        PriorityQueue<Shard> leastLoaded = new PriorityQueue<>(Comparator.comparingLong((Shard shard) -> shard.load));
+        for (int i = 0; i < workers; i++){
+            Shard shard = new Shard();
+            shards.add(shard.tests);
+            leastLoaded.add(shard);
+        }
+
+        for (String testId : order(testIds)){
+            Shard shard = leastLoaded.poll();
+            shard.tests.add(testId);
+            shard.load += durations.expected(testId);
+            leastLoaded.add(shard);
+        }
+        return shards;
+    }
+
+
+    /**
+     * @return the expected duration of a shard in milliseconds.
+     */
+    public long expectedDuration(List<String> shard){
+        return shard.stream().mapToLong(durations::expected).sum();
+    }
+
+
+    private static class Shard {
+        private final List<String> tests = new ArrayList<>();
+        private long load;
+    }
+}
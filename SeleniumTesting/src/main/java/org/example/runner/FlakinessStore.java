@@ -0,0 +1,103 @@
+package org.example.runner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flakiness score of every test method, stored as a properties file.
+ *
+ * Keys are test ids of the form ClassName#methodName and values are scores between 0 and 1: the exponentially
+ * weighted share of the recent runs in which the test failed and then passed on a retry. A test that fails every
+ * attempt is not flaky, it is broken, and its score is left as it was.
+ */
+public class FlakinessStore {
+
+    // weight given to the newest run, like the durations
+    private static final double NEW_WEIGHT = 0.3;
+    // scores that decayed below this are dropped from the file
+    private static final double FORGOTTEN = 0.001;
+
+    private final Path file;
+    private final Map<String, Double> scores = new ConcurrentHashMap<>();
+
+
+    /**
+     * Loads the scores stored in the given file, an absent file simply means no history yet.
+     *
+     * @param file the properties file holding the scores.
+     */
+    public FlakinessStore(Path file){
+        this.file = file;
+        if (Files.exists(file)){
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+                properties.load(reader);
+            } catch (IOException e){
+                System.err.println("Ignoring unreadable test flakiness: " + e.getMessage());
+            }
+            for (String testId : properties.stringPropertyNames()){
+                try {
+                    scores.put(testId, Double.parseDouble(properties.getProperty(testId).trim()));
+                } catch (NumberFormatException ignored){
+                    // a broken line only loses the history of one test
+                }
+            }
+        }
+    }
+
+
+    /**
+     * @param testId the ClassName#methodName id.
+     * @return the flakiness score of the test, 0 for a test that never needed a retry.
+     */
+    public double score(String testId){
+        return scores.getOrDefault(testId, 0.0);
+    }
+
+
+    /**
+     * Blends the outcome of a run into the history of a test.
+     *
+     * @param testId   the ClassName#methodName id.
+     * @param attempts how many attempts the run took.
+     * @param passed   true if the last attempt passed.
+     */
+    public void record(String testId, int attempts, boolean passed){
+        if (!passed){
+            return;
+        }
+        double now = attempts > 1 ? 1 : 0;
+        scores.merge(testId, now, (old, latest) -> old * (1 - NEW_WEIGHT) + latest * NEW_WEIGHT);
+    }
+
+
+    /**
+     * Writes the scores back to their file.
+     */
+    public void save(){
+        Properties properties = new Properties();
+        scores.forEach((testId, score) -> {
+            if (score >= FORGOTTEN){
+                properties.setProperty(testId, String.format(Locale.ROOT, "%.3f", score));
+            }
+        });
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)){
+                properties.store(writer, "per test flakiness, the recent share of runs passing only on a retry");
+            }
+        } catch (IOException e){
+            System.err.println("Could not save the test flakiness: " + e.getMessage());
+        }
+    }
+}
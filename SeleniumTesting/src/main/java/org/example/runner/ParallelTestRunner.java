@@ -0,0 +1,350 @@
+package org.example.runner;
+
+import org.example.driver.DriverHolder;
+import org.example.impact.TestSelector;
+import org.example.metrics.CommandMetrics;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs JUnit 4 test methods in parallel on a fixed number of worker threads.
+ *
+ * Every test method is its own unit of work, so the methods of one class can run on different workers.
+ * Each worker drives its own browser through {@link org.example.driver.DriverHolder}, the tests must not
+ * share a driver between threads. Tests are started longest first according to the durations of the
+ * previous runs, which are kept in target/test-durations.properties.
+ *
+ * A failed test is retried, in a newly launched browser, up to runner.retries times (default 2); the retries
+ * are queued behind the tests not started yet. Tests that passed only on a retry build up a flakiness score in
+ * target/test-flakiness.properties, and the tests known to be flaky start after all the stable ones. A test
+ * failing every attempt is reported as soon as it is known, and with -Drunner.failFast=true the tests not
+ * started yet are skipped.
+ *
+ * Usage, with the test classes compiled into target/test-classes:
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; -Drunner.threads=16
+ *      org.example.runner.ParallelTestRunner Dropdowns XpathMethods LoginPageTest
+ *
+ * runner.threads defaults to the number of available processors. With -Dimpact.base=&lt;revision&gt;, only the
+ * tests affected by the changes since that revision run, as selected by the {@link TestSelector}.
+ *
+ * With -Drunner.virtualThreads=true the workers are virtual threads, see {@link WorkerThreads}; the project must
+ * be built with the java21 profile. runner.threads then bounds the number of tests, and sessions, running at
+ * once, and can be raised to the hundreds or thousands a grid (-Dgrid.url) can serve.
+ */
+public class ParallelTestRunner {
+
+    public static final Path DURATIONS_FILE = Paths.get("target", "test-durations.properties");
+    public static final Path FLAKINESS_FILE = Paths.get("target", "test-flakiness.properties");
+
+    private final int threads;
+    private final TestDurations durations;
+    private final DurationScheduler scheduler;
+    private final RetryScheduler retries;
+    private final boolean failFast;
+    private final ThreadFactory threadFactory;
+
+
+    /**
+     * @param threads   the number of worker threads.
+     * @param durations the durations used to order the tests, updated with the new measurements.
+     * @param retries   the order of the tests and their retries, its flakiness history is updated as well.
+     * @param failFast  true to skip the tests not started yet once a test failed every attempt.
+     */
+    public ParallelTestRunner(int threads, TestDurations durations, RetryScheduler retries, boolean failFast){
+        this(threads, durations, retries, failFast, WorkerThreads.platform("test-worker-"));
+    }
+
+
+    /**
+     * @param threads       the number of worker threads.
+     * @param durations     the durations used to order the tests, updated with the new measurements.
+     * @param retries       the order of the tests and their retries, its flakiness history is updated as well.
+     * @param failFast      true to skip the tests not started yet once a test failed every attempt.
+     * @param threadFactory creates the worker threads, platform or virtual ones.
+     */
+    public ParallelTestRunner(int threads, TestDurations durations, RetryScheduler retries, boolean failFast,
+                              ThreadFactory threadFactory){
+        if (threads < 1){
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.threads = threads;
+        this.durations = durations;
+        this.scheduler = new DurationScheduler(durations);
+        this.retries = retries;
+        this.failFast = failFast;
+        this.threadFactory = threadFactory;
+    }
+
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0){
+            System.err.println("usage: ParallelTestRunner <test class> [<test class> ...]");
+            System.exit(2);
+        }
+
+        int threads = Integer.getInteger("runner.threads", Runtime.getRuntime().availableProcessors());
+        // keeping one warm session per worker, must be set before the pool is first used
+        if (System.getProperty("driver.pool.size") == null){
+            System.setProperty("driver.pool.size", Integer.toString(threads));
+        }
+
+        List<String> testIds = new ArrayList<>();
+        for (String className : args){
+            testIds.addAll(testIds(Class.forName(className)));
+        }
+        String base = System.getProperty("impact.base");
+        if (base != null && !base.trim().isEmpty()){
+            TestSelector.Selection selection = TestSelector.since(testIds, base.trim());
+            selection.getReasons().forEach(reason -> System.out.println("[impact] " + reason));
+            System.out.println("[impact] running " + selection.getTests().size() + " of " + testIds.size() + " tests");
+            testIds = selection.getTests();
+        }
+
+        TestDurations durations = new TestDurations(DURATIONS_FILE);
+        FlakinessStore flakiness = new FlakinessStore(FLAKINESS_FILE);
+        RetryScheduler retries = new RetryScheduler(new DurationScheduler(durations), flakiness,
+                Integer.getInteger("runner.retries", 2));
+        ThreadFactory threadFactory = Boolean.getBoolean("runner.virtualThreads")
+                ? WorkerThreads.virtual("test-worker-") : WorkerThreads.platform("test-worker-");
+        Map<String, Result> results = new ParallelTestRunner(threads, durations, retries,
+                Boolean.getBoolean("runner.failFast"), threadFactory).run(testIds);
+        durations.save();
+        flakiness.save();
+
+        System.exit(printSummary(results) ? 0 : 1);
+    }
+
+
+    /**
+     * Runs the given tests, retrying the failed ones, and waits for all of them.
+     *
+     * @param testIds the ClassName#methodName ids to run.
+     * @return the JUnit result of the last attempt of every test, in start order; the tests skipped by fail-fast
+     *         are left out.
+     */
+    public Map<String, Result> run(List<String> testIds) throws InterruptedException {
+        List<List<String>> shards = scheduler.shards(testIds, threads);
+        long expected = shards.stream().mapToLong(scheduler::expectedDuration).max().orElse(0);
+        System.out.printf("Running %d tests on %d threads, expected wall-clock time %d ms%n",
+                testIds.size(), threads, expected);
+
+        List<String> order = retries.order(testIds);
+        Progress progress = new Progress(order.size());
+        // a fixed pool even of virtual threads: it bounds the sessions open at once and keeps the FIFO start order;
+        // every test releases its driver in @After, the DriverPool resets it and hands it to the next test
+        ExecutorService workers = Executors.newFixedThreadPool(threads, threadFactory);
+        try {
+            // the pool queue is FIFO, so the workers pull the stable tests longest first, then the flaky ones,
+            // and the retries come after everything submitted before them
+            for (String testId : order){
+                submit(workers, progress, testId, 1);
+            }
+            progress.await();
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String testId : order){
+            Result result = progress.results.get(testId);
+            if (result != null){
+                results.put(testId, result);
+            }
+        }
+        if (progress.retried.get() > 0){
+            System.out.printf("Retried %d tests, %d passed on a retry%n", progress.retried.get(), progress.flaky.get());
+        }
+        if (results.size() < order.size()){
+            System.out.printf("Skipped %d tests after the first failure (runner.failFast)%n", order.size() - results.size());
+        }
+        return results;
+    }
+
+
+    private void submit(ExecutorService workers, Progress progress, String testId, int attempt){
+        workers.submit(() -> {
+            if (progress.stopped){
+                progress.done();
+                return;
+            }
+            Result result;
+            try {
+                result = runOne(testId, attempt);
+            } catch (RuntimeException | Error e){
+                progress.crash(testId, e);
+                return;
+            }
+
+            if (!result.wasSuccessful() && retries.shouldRetry(attempt) && !progress.stopped){
+                System.out.printf("RETRY %s, attempt %d failed: %s%n", testId, attempt, firstFailure(result));
+                progress.countRetry(attempt);
+                submit(workers, progress, testId, attempt + 1);
+                return;
+            }
+
+            retries.finished(testId, attempt, result.wasSuccessful());
+            if (result.wasSuccessful() && attempt > 1){
+                progress.flaky.incrementAndGet();
+                System.out.printf("FLAKY %s passed on attempt %d%n", testId, attempt);
+            } else if (!result.wasSuccessful()){
+                // reporting it now rather than in the summary, a broken test should not wait for the whole run
+                System.out.printf("FAILED %s after %d attempt(s): %s%n", testId, attempt, firstFailure(result));
+                if (failFast){
+                    progress.stopped = true;
+                }
+            }
+            progress.results.put(testId, result);
+            progress.done();
+        });
+    }
+
+
+    /**
+     * Runs a single test method on the calling thread and records how long it took.
+     *
+     * @param testId the ClassName#methodName id.
+     * @return the JUnit result.
+     */
+    public Result runOne(String testId){
+        return runOne(testId, 1);
+    }
+
+
+    /**
+     * Runs one attempt of a test method on the calling thread, a retry in a newly launched browser.
+     *
+     * @param testId  the ClassName#methodName id.
+     * @param attempt the number of the attempt, starting at 1.
+     * @return the JUnit result.
+     */
+    public Result runOne(String testId, int attempt){
+        int separator = testId.indexOf('#');
+        Class<?> testClass;
+        try {
+            testClass = Class.forName(testId.substring(0, separator));
+        } catch (ClassNotFoundException e){
+            throw new IllegalArgumentException("Unknown test class in " + testId, e);
+        }
+
+        // the WebDriver commands issued on this thread belong to the test until it ends
+        CommandMetrics.shared().startTest(testId);
+        DriverHolder.useFreshSession(attempt > 1);
+        Result result;
+        try {
+            result = new JUnitCore().run(Request.method(testClass, testId.substring(separator + 1)));
+        } finally {
+            DriverHolder.useFreshSession(false);
+            CommandMetrics.shared().endTest();
+        }
+        durations.record(testId, result.getRunTime());
+        return result;
+    }
+
+
+    private static String firstFailure(Result result){
+        return result.getFailures().isEmpty() ? "" : String.valueOf(result.getFailures().get(0).getMessage());
+    }
+
+
+    /**
+     * Lists the runnable test methods of a JUnit 4 class, skipping the @Ignore'd ones.
+     *
+     * @param testClass the test class.
+     * @return the ClassName#methodName ids, sorted by method name.
+     */
+    public static List<String> testIds(Class<?> testClass){
+        List<String> testIds = new ArrayList<>();
+        for (Method method : testClass.getMethods()){
+            if (method.isAnnotationPresent(Test.class)
+                    && !method.isAnnotationPresent(Ignore.class)
+                    && !Modifier.isStatic(method.getModifiers())){
+                testIds.add(testClass.getName() + "#" + method.getName());
+            }
+        }
+        Collections.sort(testIds);
+        return testIds;
+    }
+
+
+    /**
+     * Prints the failures and totals.
+     *
+     * @return true if every test passed.
+     */
+    static boolean printSummary(Map<String, Result> results){
+        int failed = 0;
+        for (Map.Entry<String, Result> entry : results.entrySet()){
+            Result result = entry.getValue();
+            if (!result.wasSuccessful()){
+                failed++;
+                for (Failure failure : result.getFailures()){
+                    System.out.println("FAILED " + entry.getKey() + ": " + failure.getMessage());
+                }
+            }
+        }
+        System.out.printf("Tests run: %d, Failed: %d%n", results.size(), failed);
+        return failed == 0;
+    }
+
+
+    /**
+     * Where the tests of one run stand: each test counts down once, when its last attempt finished or when it
+     * was skipped.
+     */
+    private static class Progress {
+        private final CountDownLatch remaining;
+        private final Map<String, Result> results = new ConcurrentHashMap<>();
+        private final AtomicInteger retried = new AtomicInteger();
+        private final AtomicInteger flaky = new AtomicInteger();
+        private volatile boolean stopped;
+        private volatile RuntimeException crash;
+
+        private Progress(int tests){
+            this.remaining = new CountDownLatch(tests);
+        }
+
+        private void countRetry(int attempt){
+            // counting tests, not attempts
+            if (attempt == 1){
+                retried.incrementAndGet();
+            }
+        }
+
+        private void crash(String testId, Throwable cause){
+            crash = new IllegalStateException("Runner failure in " + testId, cause);
+            stopped = true;
+            done();
+        }
+
+        private void done(){
+            remaining.countDown();
+        }
+
+        private void await() throws InterruptedException {
+            remaining.await();
+            if (crash != null){
+                throw crash;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides the start order of the tests and whether a failed test gets another attempt.
+ *
+ * Tests whose {@link FlakinessStore} score reaches {@link #FLAKY} go last, so a stable test that breaks fails in
+ * the first minutes of the run instead of behind a queue of flaky ones. Both groups keep the longest-first order
+ * of the {@link DurationScheduler}. A failed test is retried up to a bounded number of times; the retries are
+ * queued behind the tests not started yet.
+ */
+public class RetryScheduler {
+
+    /**
+     * The score from which a test is considered flaky: it needed a retry in about one of its last ten runs.
+     */
+    public static final double FLAKY = 0.1;
+
+    private final DurationScheduler durations;
+    private final FlakinessStore flakiness;
+    private final int retries;
+
+
+    /**
+     * @param durations orders the tests by expected duration.
+     * @param flakiness the history of the retries.
+     * @param retries   how many times a failed test is run again, 0 to never retry.
+     */
+    public RetryScheduler(DurationScheduler durations, FlakinessStore flakiness, int retries){
+        if (retries < 0){
+            throw new IllegalArgumentException("retries must not be negative");
+        }
+        this.durations = durations;
+        this.flakiness = flakiness;
+        this.retries = retries;
+    }
+
+
+    /**
+     * Sorts the tests stable first, then flaky, each group longest first.
+     *
+     * @param testIds the ClassName#methodName ids to run.
+     * @return a new list holding the tests in the order they should be started.
+     */
+    public List<String> order(List<String> testIds){
+        List<String> stable = new ArrayList<>();
+        List<String> flaky = new ArrayList<>();
+        for (String testId : durations.order(testIds)){
+            (isFlaky(testId) ? flaky : stable).add(testId);
+        }
+        stable.addAll(flaky);
+        return stable;
+    }
+
+
+    public boolean isFlaky(String testId){
+        return flakiness.score(testId) >= FLAKY;
+    }
+
+
+    /**
+     * @param attempt the number of the attempt that just failed, starting at 1.
+     * @return true if the test may run again.
+     */
+    public boolean shouldRetry(int attempt){
+        return attempt <= retries;
+    }
+
+
+    /**
+     * Records the final outcome of a test in the flakiness history.
+     *
+     * @param testId   the ClassName#methodName id.
+     * @param attempts how many attempts it took.
+     * @param passed   true if the last attempt passed.
+     */
+    public void finished(String testId, int attempts, boolean passed){
+        flakiness.record(testId, attempts, passed);
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.runner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historical duration of every test method, stored as a properties file.
+ *
+ * Keys are test ids of the form ClassName#methodName and values are milliseconds. A new measurement is blended
+ * with the stored one (exponentially weighted average) so a single slow run does not reorder the whole suite.
+ */
+public class TestDurations {
+
+    // weight given to the newest measurement
+    private static final double NEW_WEIGHT = 0.3;
+
+    private final Path file;
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+
+    /**
+     * Loads the durations stored in the given file, an absent file simply means no history yet.
+     *
+     * @param file the properties file holding the durations.
+     */
+    public TestDurations(Path file){
+        this.file = file;
+        if (Files.exists(file)){
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+                properties.load(reader);
+            } catch (IOException e){
+                System.err.println("Ignoring unreadable test durations: " + e.getMessage());
+            }
+            for (String testId : properties.stringPropertyNames()){
+                try {
+                    durations.put(testId, Long.parseLong(properties.getProperty(testId).trim()));
+                } catch (NumberFormatException ignored){
+                    // a broken line only loses the history of one test
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns the expected duration of a test.
+     *
+     * Tests that never ran get the average of the known durations, so they are neither starved nor favoured.
+     *
+     * @param testId the ClassName#methodName id.
+     * @return the expected duration in milliseconds.
+     */
+    public long expected(String testId){
+        Long known = durations.get(testId);
+        if (known != null){
+            return known;
+        }
+        return (long) durations.values().stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+
+
+    /**
+     * Blends a new measurement into the history of a test.
+     *
+     * @param testId the ClassName#methodName id.
+     * @param millis the measured duration.
+     */
+    public void record(String testId, long millis){
+        durations.merge(testId, millis, (old, now) -> Math.round(old * (1 - NEW_WEIGHT) + now * NEW_WEIGHT));
+    }
+
+
+    /**
+     * Writes the durations back to their file.
+     */
+    public void save(){
+        Properties properties = new Properties();
+        durations.forEach((testId, millis) -> properties.setProperty(testId, Long.toString(millis)));
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)){
+                properties.store(writer, "per test durations in ms, used to schedule the longest tests first");
+            }
+        } catch (IOException e){
+            System.err.println("Could not save the test durations: " + e.getMessage());
+        }
+    }
+}
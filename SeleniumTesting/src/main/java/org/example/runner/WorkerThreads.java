@@ -0,0 +1,65 @@
+package org.example.runner;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads the tests run on: platform threads, or virtual threads when the project was built with
+ * the java21 profile (mvn -Pjava21, on JDK 21 or later).
+ *
+ * A test spends nearly all of its time waiting for the browser to answer. On a platform thread that wait holds
+ * an OS thread and its stack, which caps a JVM at a few hundred sessions; a waiting virtual thread only keeps
+ * its stack on the heap and frees its carrier thread for another test, so thousands of remote sessions can share
+ * a handful of carriers.
+ */
+public final class WorkerThreads {
+
+    // compiled from src/main/java21 by the java21 profile only
+    private static final String VIRTUAL_THREADS = "org.example.runner.VirtualThreads";
+
+    private WorkerThreads(){
+    }
+
+
+    /**
+     * @param prefix the start of the thread names, followed by a number.
+     * @return a factory of platform threads.
+     */
+    public static ThreadFactory platform(String prefix){
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> new Thread(runnable, prefix + count.incrementAndGet());
+    }
+
+
+    /**
+     * @param prefix the start of the thread names, followed by a number.
+     * @return a factory of virtual threads.
+     * @throws IllegalStateException if the project was not built with the java21 profile.
+     */
+    public static ThreadFactory virtual(String prefix){
+        try {
+            return (ThreadFactory) Class.forName(VIRTUAL_THREADS).getDeclaredMethod("factory", String.class).invoke(null, prefix);
+        } catch (ClassNotFoundException | UnsupportedClassVersionError e){
+            throw new IllegalStateException("Virtual threads need a build with the java21 profile (mvn -Pjava21) "
+                    + "run on JDK 21 or later", e);
+        } catch (NoSuchMethodException | IllegalAccessException e){
+            throw new IllegalStateException("Unexpected " + VIRTUAL_THREADS, e);
+        } catch (InvocationTargetException e){
+            throw new IllegalStateException("Could not create virtual threads", e.getCause());
+        }
+    }
+
+
+    /**
+     * @return true if {@link #virtual(String)} can be used.
+     */
+    public static boolean isVirtualAvailable(){
+        try {
+            virtual("probe-");
+            return true;
+        } catch (IllegalStateException e){
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.session;
+
+import org.openqa.selenium.Cookie;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What a browser remembers after a login: its cookies and the content of localStorage and sessionStorage.
+ *
+ * A state expires at its time-to-live or when its first cookie expires, whichever comes first.
+ */
+public final class LoginState {
+
+    private final Set<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+    private final Instant expiresAt;
+
+
+    /**
+     * @param cookies        the cookies of the logged in origin.
+     * @param localStorage   the localStorage entries.
+     * @param sessionStorage the sessionStorage entries.
+     * @param expiresAt      the end of the time-to-live.
+     */
+    public LoginState(Set<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage,
+                      Instant expiresAt){
+        this.cookies = Collections.unmodifiableSet(new HashSet<>(cookies));
+        this.localStorage = Collections.unmodifiableMap(new HashMap<>(localStorage));
+        this.sessionStorage = Collections.unmodifiableMap(new HashMap<>(sessionStorage));
+
+        Instant expiry = expiresAt;
+        for (Cookie cookie : cookies){
+            Date cookieExpiry = cookie.getExpiry();
+            if (cookieExpiry != null && cookieExpiry.toInstant().isBefore(expiry)){
+                expiry = cookieExpiry.toInstant();
+            }
+        }
+        this.expiresAt = expiry;
+    }
+
+
+    /**
+     * @return true once the state can no longer be trusted to restore a login.
+     */
+    public boolean isExpired(){
+        return !Instant.now().isBefore(expiresAt);
+    }
+
+    public Set<Cookie> getCookies(){
+        return cookies;
+    }
+
+    public Map<String, String> getLocalStorage(){
+        return localStorage;
+    }
+
+    public Map<String, String> getSessionStorage(){
+        return sessionStorage;
+    }
+
+    public Instant getExpiresAt(){
+        return expiresAt;
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.session;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logs in through the UI once, then restores the captured login state into the next sessions.
+ *
+ * The first test that needs a user runs the real login form; the cookies and web storage of the logged in
+ * page are captured and kept per key (usually the username). The following tests inject them into their
+ * session and navigate straight to the landing page, skipping the form. A state is dropped when it expires,
+ * when {@link #invalidate(String)} is called, as InventoryPage.logout() does, or when a restore does not
+ * land on the expected page, in which case the UI login runs again.
+ *
+ * The shared cache keeps states for login.cache.ttlMinutes minutes (default 10).
+ */
+public class LoginStateCache {
+
+    private static final LoginStateCache SHARED =
+            new LoginStateCache(Duration.ofMinutes(Integer.getInteger("login.cache.ttlMinutes", 10)));
+
+    private static final String CAPTURE_SCRIPT =
+            "function dump(storage) {"
+            + "  var entries = {};"
+            + "  for (var i = 0; i < storage.length; i++) { var key = storage.key(i); entries[key] = storage.getItem(key); }"
+            + "  return entries;"
+            + "}"
+            + "return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+
+    private static final String RESTORE_SCRIPT =
+            "var local = arguments[0], session = arguments[1];"
+            + "Object.keys(local).forEach(function (key) { window.localStorage.setItem(key, local[key]); });"
+            + "Object.keys(session).forEach(function (key) { window.sessionStorage.setItem(key, session[key]); });";
+
+    private final Duration ttl;
+    private final Map<String, LoginState> states = new ConcurrentHashMap<>();
+
+
+    /**
+     * @param ttl how long a captured state may be reused.
+     */
+    public LoginStateCache(Duration ttl){
+        this.ttl = ttl;
+    }
+
+
+    /**
+     * @return the cache shared by all the test classes of the JVM.
+     */
+    public static LoginStateCache shared(){
+        return SHARED;
+    }
+
+
+    /**
+     * Brings the driver to the landing page of a logged in user.
+     *
+     * Restores the cached state when there is a valid one, otherwise runs the UI login and captures its state.
+     *
+     * @param driver     the driver, ideally already on a page of the landing page origin.
+     * @param key        identifies the user, for example the username.
+     * @param landingUrl the page a logged in user lands on, e.g. https://www.saucedemo.com/inventory.html
+     * @param uiLogin    performs the login through the form, starting from the page the driver is on.
+     */
+    public void restoreOrLogin(WebDriver driver, String key, String landingUrl, Runnable uiLogin){
+        if (restore(driver, key, landingUrl)){
+            return;
+        }
+
+        // after a failed restore the driver is back on the login page of the origin
+        uiLogin.run();
+        capture(driver, key);
+    }
+
+
+    /**
+     * Injects a cached state into the driver and opens the landing page.
+     *
+     * @return true if the driver ended on the landing page, false if there was no valid state or it was rejected.
+     */
+    public boolean restore(WebDriver driver, String key, String landingUrl){
+        LoginState state = states.get(key);
+        if (state == null){
+            return false;
+        }
+        if (state.isExpired()){
+            states.remove(key, state);
+            return false;
+        }
+
+        try {
+            // cookies and storage can only be written from a page of the same origin
+            String origin = origin(landingUrl);
+            if (!driver.getCurrentUrl().startsWith(origin)){
+                driver.get(origin + "/");
+            }
+
+            for (Cookie cookie : state.getCookies()){
+                driver.manage().addCookie(cookie);
+            }
+            ((JavascriptExecutor) driver).executeScript(RESTORE_SCRIPT, state.getLocalStorage(), state.getSessionStorage());
+
+            driver.get(landingUrl);
+            if (driver.getCurrentUrl().equals(landingUrl)){
+                return true;
+            }
+        } catch (WebDriverException e){
+            // a cookie the browser refuses, falling back to the UI login
+        }
+
+        // the site did not accept the state anymore
+        states.remove(key, state);
+        return false;
+    }
+
+
+    /**
+     * Captures the cookies and web storage of the logged in page the driver is on.
+     *
+     * @param driver the driver of a logged in session.
+     * @param key    identifies the user.
+     */
+    @SuppressWarnings("unchecked")
+    public void capture(WebDriver driver, String key){
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        states.put(key, new LoginState(
+                driver.manage().getCookies(),
+                asStrings(storage.get("local")),
+                asStrings(storage.get("session")),
+                Instant.now().plus(ttl)));
+    }
+
+
+    /**
+     * Forgets the state of a user, called when the user logs out or the account changes.
+     */
+    public void invalidate(String key){
+        states.remove(key);
+    }
+
+    public void invalidateAll(){
+        states.clear();
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> asStrings(Object entries){
+        return entries instanceof Map ? (Map<String, String>) entries : Collections.emptyMap();
+    }
+
+
+    private static String origin(String url){
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+}
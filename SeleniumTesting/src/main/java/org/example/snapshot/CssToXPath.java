@@ -0,0 +1,272 @@
+package org.example.snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rewrites a CSS selector as an XPath expression relative to the context node, so a {@link DomSnapshot} can
+ * evaluate both with the XPath engine of the JDK.
+ *
+ * Supported: type and universal selectors, #id, .class, attribute selectors with =, ~=, |=, ^=, $= and *=,
+ * :first-child, :last-child and :nth-child(n) with a number, the descendant, child (&gt;), next sibling (+) and
+ * subsequent sibling (~) combinators, and selector lists. Anything else throws an IllegalArgumentException.
+ *
+ * Empty values for ~=, ^=, $= and *= throw as well: they match nothing in CSS, while the XPath functions would hold
+ * for every element, a missing attribute reading as ''.
+ *
+ * Examples:
+ * div.login-box &gt; input[type='text']   becomes descendant::div[contains(concat(' ', normalize-space(@class), ' '), ' login-box ')]/input[@type='text']
+ * h3 + button                         becomes descendant::h3/following-sibling::*[1]/self::button
+ */
+final class CssToXPath {
+
+    private final String css;
+    private int position;
+
+    private CssToXPath(String css){
+        this.css = css;
+    }
+
+
+    /**
+     * @param css a CSS selector.
+     * @return the XPath selecting the same elements among the descendants of the context node.
+     * @throws IllegalArgumentException if the selector uses something not supported.
+     */
+    static String toXPath(String css){
+        return new CssToXPath(css.trim()).parse();
+    }
+
+
+    /**
+     * Quotes a string as an XPath literal, with concat() when it holds both kinds of quotes.
+     */
+    static String literal(String value){
+        if (value.indexOf('\'') < 0){
+            return "'" + value + "'";
+        }
+        if (value.indexOf('"') < 0){
+            return "\"" + value + "\"";
+        }
+        StringBuilder concat = new StringBuilder("concat(");
+        String[] parts = value.split("'", -1);
+        for (int i = 0; i < parts.length; i++){
+            if (i > 0){
+                concat.append(", \"'\", ");
+            }
+            concat.append('\'').append(parts[i]).append('\'');
+        }
+        return concat.append(')').toString();
+    }
+
+
+    private String parse(){
+        List<String> selectors = new ArrayList<>();
+        do {
+            selectors.add(selector());
+            skipSpaces();
+        } while (accept(','));
+        if (position < css.length()){
+            throw unsupported();
+        }
+        return String.join(" | ", selectors);
+    }
+
+
+    private String selector(){
+        skipSpaces();
+        StringBuilder xpath = new StringBuilder("descendant::").append(compound());
+        while (true){
+            boolean spaces = skipSpaces();
+            if (position >= css.length() || peek() == ','){
+                return xpath.toString();
+            }
+            if (accept('>')){
+                skipSpaces();
+                xpath.append('/').append(compound());
+            } else if (accept('+')){
+                skipSpaces();
+                xpath.append("/following-sibling::*[1]/self::").append(compound());
+            } else if (accept('~')){
+                skipSpaces();
+                xpath.append("/following-sibling::").append(compound());
+            } else if (spaces){
+                xpath.append("/descendant::").append(compound());
+            } else {
+                throw unsupported();
+            }
+        }
+    }
+
+
+    /**
+     * Parses a compound selector, a type followed by conditions, into a node test with predicates.
+     */
+    private String compound(){
+        int start = position;
+        StringBuilder step = new StringBuilder();
+        if (accept('*')){
+            step.append('*');
+        } else if (position < css.length() && isNameChar(peek())){
+            step.append(name().toLowerCase(Locale.ROOT));
+        } else {
+            step.append('*');
+        }
+
+        while (position < css.length()){
+            char c = peek();
+            if (c == '#'){
+                position++;
+                step.append("[@id=").append(literal(name())).append(']');
+            } else if (c == '.'){
+                position++;
+                step.append("[contains(concat(' ', normalize-space(@class), ' '), ").append(literal(" " + name() + " "))
+                        .append(")]");
+            } else if (c == '['){
+                position++;
+                step.append(attribute());
+            } else if (c == ':'){
+                position++;
+                step.append(pseudoClass());
+            } else {
+                break;
+            }
+        }
+        if (position == start){
+            throw unsupported();
+        }
+        return step.toString();
+    }
+
+
+    private String attribute(){
+        skipSpaces();
+        String name = name();
+        skipSpaces();
+        if (accept(']')){
+            return "[@" + name + "]";
+        }
+        String operator = "";
+        if (position < css.length() && "~|^$*".indexOf(peek()) >= 0){
+            operator = String.valueOf(css.charAt(position++));
+        }
+        if (!accept('=')){
+            throw unsupported();
+        }
+        skipSpaces();
+        String value = value();
+        skipSpaces();
+        if (!accept(']')){
+            throw unsupported();
+        }
+
+        if (value.isEmpty() && !operator.isEmpty() && !"|".equals(operator)){
+            throw unsupported();
+        }
+
+        String attribute = "@" + name;
+        String quoted = literal(value);
+        switch (operator){
+            case "~":
+                return "[contains(concat(' ', normalize-space(" + attribute + "), ' '), " + literal(" " + value + " ") + ")]";
+            case "|":
+                return "[" + attribute + "=" + quoted + " or starts-with(" + attribute + ", " + literal(value + "-") + ")]";
+            case "^":
+                return "[starts-with(" + attribute + ", " + quoted + ")]";
+            case "$":
+                return "[substring(" + attribute + ", string-length(" + attribute + ") - string-length(" + quoted
+                        + ") + 1) = " + quoted + "]";
+            case "*":
+                return "[contains(" + attribute + ", " + quoted + ")]";
+            default:
+                return "[" + attribute + "=" + quoted + "]";
+        }
+    }
+
+
+    private String pseudoClass(){
+        String name = name().toLowerCase(Locale.ROOT);
+        switch (name){
+            case "first-child":
+                return "[not(preceding-sibling::*)]";
+            case "last-child":
+                return "[not(following-sibling::*)]";
+            case "nth-child":
+                if (!accept('(')){
+                    throw unsupported();
+                }
+                int start = position;
+                while (position < css.length() && Character.isDigit(peek())){
+                    position++;
+                }
+                if (start == position || !accept(')')){
+                    throw unsupported();
+                }
+                int index = Integer.parseInt(css.substring(start, position - 1));
+                return "[count(preceding-sibling::*) = " + (index - 1) + "]";
+            default:
+                throw unsupported();
+        }
+    }
+
+
+    private String value(){
+        if (position < css.length() && (peek() == '\'' || peek() == '"')){
+            char quote = css.charAt(position++);
+            int end = css.indexOf(quote, position);
+            if (end < 0){
+                throw unsupported();
+            }
+            String value = css.substring(position, end);
+            position = end + 1;
+            return value;
+        }
+        return name();
+    }
+
+
+    private String name(){
+        int start = position;
+        while (position < css.length() && isNameChar(peek())){
+            position++;
+        }
+        if (start == position){
+            throw unsupported();
+        }
+        return css.substring(start, position);
+    }
+
+
+    private static boolean isNameChar(char c){
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+    }
+
+
+    private boolean skipSpaces(){
+        int start = position;
+        while (position < css.length() && Character.isWhitespace(peek())){
+            position++;
+        }
+        return position > start;
+    }
+
+
+    private boolean accept(char c){
+        if (position < css.length() && peek() == c){
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+
+    private char peek(){
+        return css.charAt(position);
+    }
+
+
+    private IllegalArgumentException unsupported(){
+        return new IllegalArgumentException("Unsupported CSS selector at " + position + ": " + css);
+    }
+}
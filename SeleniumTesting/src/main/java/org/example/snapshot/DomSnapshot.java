@@ -0,0 +1,335 @@
+package org.example.snapshot;
+
+import org.example.locator.ParsedLocator;
+import org.example.trace.Span;
+import org.example.trace.Tracer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A copy of the DOM of a page, or of a part of it, taken in a single script call and queried in the JVM.
+ *
+ * Tests that only read the page (find an element, read its text, its classes, check it is displayed) pay a
+ * round-trip for every lookup and every read. A snapshot pays one: the script walks the subtree and returns the
+ * tags, the attributes, the text and whether every element is displayed as one compact string, which is rebuilt
+ * here into a W3C DOM. The locators are then evaluated locally: XPath by the XPath 1.0 engine of the JDK, the
+ * same version the browsers implement, CSS selectors after their rewrite to XPath by {@link CssToXPath}, and the
+ * other strategies as the equivalent XPath.
+ *
+ * DomSnapshot page = DomSnapshot.of(driver);
+ * Assert.assertEquals(page.find(By.xpath("//div[@class='form_group']/ancestor::div[1]")).getAttribute("class"), "login-box");
+ *
+ * The snapshot does not follow the page: it is the state at the time it was taken. It holds the HTML attributes,
+ * not the live properties (the current value of an input is not there), and leaves out the content of script,
+ * style and template elements, frames and shadow roots. An element is displayed when its parent is and the
+ * browser renders it (Element.checkVisibility).
+ */
+public final class DomSnapshot {
+
+    // element: OPEN tag SEPARATOR flags (SEPARATOR name EQUALS value)* children CLOSE, text: TEXT data
+    private static final char OPEN = '\u0001';
+    private static final char SEPARATOR = '\u0002';
+    private static final char EQUALS = '\u0003';
+    private static final char TEXT = '\u0004';
+    private static final char CLOSE = '\u0005';
+
+    // arguments: the root element, or the strategy and value of a locator of the root, or nothing for the page
+    private static final String SCRIPT =
+            ParsedLocator.FIND_FUNCTION
+            + "var root = arguments[0] || (arguments[1] ? __find(arguments[1], arguments[2]) : document.documentElement);"
+            + "if (!root) return null;"
+            + "var SKIP = {SCRIPT: 1, STYLE: 1, NOSCRIPT: 1, TEMPLATE: 1}, out = [];"
+            + "function clean(s) { return s.replace(/[\\u0000-\\u0005]/g, ''); }"
+            + "function displayed(e) {"
+            + "  if (e.checkVisibility) return e.checkVisibility({checkOpacity: true, checkVisibilityCSS: true});"
+            + "  var style = window.getComputedStyle(e);"
+            + "  return e.getClientRects().length > 0 && style.visibility !== 'hidden' && style.display !== 'none';"
+            + "}"
+            + "function walk(e, parentDisplayed) {"
+            + "  var shown = parentDisplayed && displayed(e), block = false;"
+            + "  if (shown) { var display = window.getComputedStyle(e).display; block = display.indexOf('inline') !== 0 && display !== 'contents'; }"
+            + "  out.push('\\u0001' + e.localName + '\\u0002' + (shown ? '1' : '0') + (block ? '1' : '0'));"
+            + "  for (var i = 0; i < e.attributes.length; i++) {"
+            + "    out.push('\\u0002' + e.attributes[i].name + '\\u0003' + clean(e.attributes[i].value));"
+            + "  }"
+            + "  if (!SKIP[e.tagName]) {"
+            + "    for (var c = e.firstChild; c; c = c.nextSibling) {"
+            + "      if (c.nodeType === 1) walk(c, shown);"
+            + "      else if (c.nodeType === 3 && c.data) out.push('\\u0004' + clean(c.data));"
+            + "    }"
+            + "  }"
+            + "  out.push('\\u0005');"
+            + "}"
+            + "walk(root, !root.parentElement || displayed(root.parentElement));"
+            + "return out.join('');";
+
+    private static final ThreadLocal<XPathFactory> XPATH_FACTORY = ThreadLocal.withInitial(XPathFactory::newInstance);
+
+    private final Document document;
+    private final SnapshotNode root;
+    private final XPath xpath;
+    private final int size;
+
+
+    private DomSnapshot(String serialized){
+        try {
+            document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        } catch (ParserConfigurationException e){
+            throw new IllegalStateException("No DOM implementation", e);
+        }
+        xpath = XPATH_FACTORY.get().newXPath();
+        size = parse(serialized);
+        root = new SnapshotNode(this, document.getDocumentElement());
+    }
+
+
+    /**
+     * Takes a snapshot of the whole page.
+     *
+     * @param driver a driver able to execute scripts.
+     * @return the snapshot, rooted at the html element.
+     */
+    public static DomSnapshot of(WebDriver driver){
+        return take(driver, "page", null, null, null);
+    }
+
+
+    /**
+     * Takes a snapshot of an element and its descendants.
+     *
+     * @param driver a driver able to execute scripts.
+     * @param root   the element to copy.
+     * @return the snapshot, rooted at the element.
+     */
+    public static DomSnapshot of(WebDriver driver, WebElement root){
+        return take(driver, "element", root, null, null);
+    }
+
+
+    /**
+     * Takes a snapshot of the first element matching a locator and its descendants, looked up in the same script.
+     *
+     * @param driver a driver able to execute scripts.
+     * @param root   the locator of the element to copy: id, name, class name, tag name, CSS or XPath.
+     * @return the snapshot, rooted at the element.
+     * @throws NoSuchElementException if nothing matches the locator.
+     */
+    public static DomSnapshot of(WebDriver driver, By root){
+        ParsedLocator locator = ParsedLocator.parse(root);
+        if (locator == null){
+            throw new IllegalArgumentException("A snapshot root cannot be located by " + root);
+        }
+        DomSnapshot snapshot = take(driver, root.toString(), null, locator.getStrategy(), locator.getValue());
+        if (snapshot == null){
+            throw new NoSuchElementException("Cannot locate the snapshot root " + root);
+        }
+        return snapshot;
+    }
+
+
+    private static DomSnapshot take(WebDriver driver, String target, WebElement element, String strategy, String value){
+        try (Span span = Tracer.shared().span("dom.snapshot", "query")){
+            span.arg("root", target);
+            Object serialized = ((JavascriptExecutor) driver).executeScript(SCRIPT, element, strategy, value);
+            if (serialized == null){
+                return null;
+            }
+            DomSnapshot snapshot = new DomSnapshot((String) serialized);
+            span.arg("elements", snapshot.size);
+            span.arg("chars", ((String) serialized).length());
+            return snapshot;
+        }
+    }
+
+
+    /**
+     * @return the element the snapshot was taken of.
+     */
+    public SnapshotNode getRoot(){
+        return root;
+    }
+
+
+    /**
+     * @return the number of elements in the snapshot.
+     */
+    public int size(){
+        return size;
+    }
+
+
+    /**
+     * @return the text of the snapshot as displayed, see {@link SnapshotNode#getText()}.
+     */
+    public String getText(){
+        return root.getText();
+    }
+
+
+    /**
+     * Finds the first element matching a locator, like driver.findElement.
+     *
+     * @throws NoSuchElementException if nothing matches.
+     */
+    public SnapshotNode find(By by){
+        return find(document, by);
+    }
+
+
+    /**
+     * Finds every element matching a locator, like driver.findElements.
+     *
+     * @return the elements in document order, empty when nothing matches.
+     */
+    public List<SnapshotNode> findAll(By by){
+        return findAll(document, by);
+    }
+
+
+    SnapshotNode find(Node context, By by){
+        List<SnapshotNode> found = findAll(context, by);
+        if (found.isEmpty()){
+            throw new NoSuchElementException("Cannot locate " + by + " in the snapshot");
+        }
+        return found.get(0);
+    }
+
+
+    List<SnapshotNode> findAll(Node context, By by){
+        String expression = toXPath(by);
+        NodeList nodes;
+        try {
+            nodes = (NodeList) xpath.evaluate(expression, context, XPathConstants.NODESET);
+        } catch (XPathExpressionException e){
+            throw new InvalidSelectorException("Invalid locator " + by + " (" + expression + ")", e);
+        }
+        List<SnapshotNode> found = new ArrayList<>(nodes.getLength());
+        for (int i = 0; i < nodes.getLength(); i++){
+            if (nodes.item(i) instanceof Element){
+                found.add(new SnapshotNode(this, (Element) nodes.item(i)));
+            }
+        }
+        return found;
+    }
+
+
+    /**
+     * Rewrites a locator as an XPath, relative to the context node but for an XPath locator, which is evaluated
+     * as written like the browser does.
+     */
+    static String toXPath(By by){
+        ParsedLocator locator = ParsedLocator.parse(by);
+        if (locator == null){
+            throw new InvalidSelectorException("Cannot evaluate " + by + " on a snapshot");
+        }
+        String value = locator.getValue();
+        switch (locator.getStrategy()){
+            case ParsedLocator.ID:
+                return "descendant::*[@id=" + CssToXPath.literal(value) + "]";
+            case ParsedLocator.NAME:
+                return "descendant::*[@name=" + CssToXPath.literal(value) + "]";
+            case ParsedLocator.CLASS_NAME:
+                return "descendant::*[contains(concat(' ', normalize-space(@class), ' '), "
+                        + CssToXPath.literal(" " + value + " ") + ")]";
+            case ParsedLocator.TAG_NAME:
+                return "descendant::" + value.toLowerCase(Locale.ROOT);
+            case ParsedLocator.CSS:
+                try {
+                    return CssToXPath.toXPath(value);
+                } catch (IllegalArgumentException e){
+                    throw new InvalidSelectorException(e.getMessage());
+                }
+            default:
+                return value;
+        }
+    }
+
+
+    /**
+     * Rebuilds the elements and texts of the serialized subtree.
+     *
+     * @return the number of elements.
+     */
+    private int parse(String serialized){
+        Node parent = document;
+        int elements = 0;
+        int i = 0;
+        int length = serialized.length();
+        while (i < length){
+            char marker = serialized.charAt(i++);
+            if (marker == OPEN){
+                int end = serialized.indexOf(SEPARATOR, i);
+                Element element = createElement(serialized.substring(i, end));
+                element.setUserData(SnapshotNode.DISPLAYED, serialized.charAt(end + 1) == '1', null);
+                element.setUserData(SnapshotNode.BLOCK, serialized.charAt(end + 2) == '1', null);
+                i = end + 3;
+                while (i < length && serialized.charAt(i) == SEPARATOR){
+                    int equals = serialized.indexOf(EQUALS, i);
+                    int next = next(serialized, equals + 1);
+                    setAttribute(element, serialized.substring(i + 1, equals), serialized.substring(equals + 1, next));
+                    i = next;
+                }
+                parent.appendChild(element);
+                parent = element;
+                elements++;
+            } else if (marker == TEXT){
+                int next = next(serialized, i);
+                parent.appendChild(document.createTextNode(serialized.substring(i, next)));
+                i = next;
+            } else if (marker == CLOSE){
+                parent = parent.getParentNode();
+            } else {
+                throw new IllegalStateException("Unexpected character " + (int) marker + " at " + (i - 1) + " of the snapshot");
+            }
+        }
+        return elements;
+    }
+
+
+    private static int next(String serialized, int from){
+        for (int i = from; i < serialized.length(); i++){
+            if (serialized.charAt(i) <= CLOSE){
+                return i;
+            }
+        }
+        return serialized.length();
+    }
+
+
+    private Element createElement(String tag){
+        try {
+            return document.createElement(tag);
+        } catch (DOMException e){
+            // not a valid XML name, the element stays in the tree under a neutral name
+            return document.createElement("unknown");
+        }
+    }
+
+
+    private static void setAttribute(Element element, String name, String value){
+        try {
+            element.setAttribute(name, value);
+        } catch (DOMException e){
+            // not a valid XML name (framework bindings like @click), no locator can use it anyway
+        }
+    }
+}
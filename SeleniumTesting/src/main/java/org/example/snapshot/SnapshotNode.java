@@ -0,0 +1,182 @@
+package org.example.snapshot;
+
+import org.openqa.selenium.By;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An element of a {@link DomSnapshot}. Reading it never talks to the driver.
+ */
+public final class SnapshotNode {
+
+    static final String DISPLAYED = "snapshot.displayed";
+    static final String BLOCK = "snapshot.block";
+
+    private final DomSnapshot snapshot;
+    private final Element element;
+
+
+    SnapshotNode(DomSnapshot snapshot, Element element){
+        this.snapshot = snapshot;
+        this.element = element;
+    }
+
+
+    /**
+     * @return the tag name, in lower case.
+     */
+    public String getTagName(){
+        return element.getTagName();
+    }
+
+
+    /**
+     * @param name the name of an HTML attribute.
+     * @return its value, null when the element does not have it.
+     */
+    public String getAttribute(String name){
+        return element.hasAttribute(name) ? element.getAttribute(name) : null;
+    }
+
+
+    /**
+     * @return true if the class attribute lists the given class.
+     */
+    public boolean hasClass(String name){
+        String classes = getAttribute("class");
+        return classes != null && Arrays.asList(classes.trim().split("\\s+")).contains(name);
+    }
+
+
+    /**
+     * @return true if the element was displayed when the snapshot was taken.
+     */
+    public boolean isDisplayed(){
+        return Boolean.TRUE.equals(element.getUserData(DISPLAYED));
+    }
+
+
+    /**
+     * Returns the displayed text, close to what WebElement.getText() gives: the text of the displayed elements, with
+     * the white space collapsed, one line per block element or br, and every line trimmed.
+     *
+     * @return the text, empty when the element is not displayed.
+     */
+    public String getText(){
+        StringBuilder text = new StringBuilder();
+        appendText(element, text);
+        StringBuilder lines = new StringBuilder();
+        for (String line : text.toString().split("\n")){
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty()){
+                if (lines.length() > 0){
+                    lines.append('\n');
+                }
+                lines.append(trimmed);
+            }
+        }
+        return lines.toString();
+    }
+
+
+    /**
+     * @return the text of the element and all its descendants, displayed or not, as written in the page.
+     */
+    public String getTextContent(){
+        return element.getTextContent();
+    }
+
+
+    /**
+     * @return the parent element, null for the root of the snapshot.
+     */
+    public SnapshotNode getParent(){
+        Node parent = element.getParentNode();
+        return parent instanceof Element ? new SnapshotNode(snapshot, (Element) parent) : null;
+    }
+
+
+    /**
+     * @return the child elements, in document order.
+     */
+    public List<SnapshotNode> getChildren(){
+        List<SnapshotNode> children = new ArrayList<>();
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()){
+            if (child instanceof Element){
+                children.add(new SnapshotNode(snapshot, (Element) child));
+            }
+        }
+        return children;
+    }
+
+
+    /**
+     * Finds the first element matching a locator below this one, like WebElement.findElement: an XPath locator is
+     * evaluated as written from this element, so it has to start with "." to stay below it.
+     *
+     * @throws org.openqa.selenium.NoSuchElementException if nothing matches.
+     */
+    public SnapshotNode find(By by){
+        return snapshot.find(element, by);
+    }
+
+
+    /**
+     * Finds every element matching a locator below this one, like WebElement.findElements.
+     */
+    public List<SnapshotNode> findAll(By by){
+        return snapshot.findAll(element, by);
+    }
+
+
+    private static void appendText(Node node, StringBuilder text){
+        if (node.getNodeType() == Node.TEXT_NODE){
+            text.append(node.getNodeValue().replaceAll("\\s+", " "));
+            return;
+        }
+        if (!(node instanceof Element) || !Boolean.TRUE.equals(node.getUserData(DISPLAYED))){
+            return;
+        }
+        if ("br".equals(((Element) node).getTagName())){
+            text.append('\n');
+            return;
+        }
+        boolean block = Boolean.TRUE.equals(node.getUserData(BLOCK));
+        if (block){
+            text.append('\n');
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()){
+            appendText(child, text);
+        }
+        if (block){
+            text.append('\n');
+        }
+    }
+
+
+    @Override
+    public boolean equals(Object o){
+        return o instanceof SnapshotNode && ((SnapshotNode) o).element == element;
+    }
+
+    @Override
+    public int hashCode(){
+        return System.identityHashCode(element);
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder description = new StringBuilder("<").append(getTagName());
+        if (element.hasAttribute("id")){
+            description.append(" id=\"").append(element.getAttribute("id")).append('"');
+        }
+        if (element.hasAttribute("class")){
+            description.append(" class=\"").append(element.getAttribute("class")).append('"');
+        }
+        return description.append('>').toString();
+    }
+}
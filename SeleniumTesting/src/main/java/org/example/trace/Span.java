@@ -0,0 +1,96 @@
+package org.example.trace;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed step of a test, closed with try-with-resources.
+ *
+ * Spans opened while another one is open on the same thread are its children; the time a span spends outside
+ * its children is its self time, what the flame graph shows as the width of its own frame.
+ */
+public class Span implements AutoCloseable {
+
+    static final Span NOOP = new Span(null, null, null, null, 0, 0);
+
+    private final Tracer tracer;
+    private final String name;
+    private final String category;
+    private final String stack;
+    private final long threadId;
+    private final long startNanos;
+    private final Map<String, Object> args = new LinkedHashMap<>();
+    private long durationNanos = -1;
+    private long childrenNanos;
+
+    Span(Tracer tracer, String name, String category, String stack, long threadId, long startNanos){
+        this.tracer = tracer;
+        this.name = name;
+        this.category = category;
+        this.stack = stack;
+        this.threadId = threadId;
+        this.startNanos = startNanos;
+    }
+
+
+    /**
+     * Attaches a detail shown with the span in the trace viewer, e.g. the URL of a get.
+     *
+     * @return this span.
+     */
+    public Span arg(String key, Object value){
+        if (this != NOOP){
+            args.put(key, value);
+        }
+        return this;
+    }
+
+
+    @Override
+    public void close(){
+        if (this != NOOP && durationNanos < 0){
+            durationNanos = System.nanoTime() - startNanos;
+            tracer.closed(this);
+        }
+    }
+
+
+    public String getName(){
+        return name;
+    }
+
+    public String getCategory(){
+        return category;
+    }
+
+    /**
+     * @return the names of the enclosing spans and of this one, separated by semicolons.
+     */
+    public String getStack(){
+        return stack;
+    }
+
+    public long getThreadId(){
+        return threadId;
+    }
+
+    public long getStartNanos(){
+        return startNanos;
+    }
+
+    public long getDurationNanos(){
+        return durationNanos;
+    }
+
+    public long getSelfNanos(){
+        return Math.max(0, durationNanos - childrenNanos);
+    }
+
+    public Map<String, Object> getArgs(){
+        return args;
+    }
+
+    void addChild(long nanos){
+        childrenNanos += nanos;
+    }
+}
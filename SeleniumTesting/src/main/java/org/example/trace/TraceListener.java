@@ -0,0 +1,64 @@
+package org.example.trace;
+
+import org.example.metrics.CommandLatencyListener;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Opens a span of the {@link Tracer} for every WebDriver command, named like the command metrics.
+ *
+ * The URL of get and navigation.to calls is attached to their span, so slow page loads are told apart.
+ */
+public class TraceListener implements WebDriverListener {
+
+    // the spans of the calls in progress on this thread, innermost first
+    private final ThreadLocal<Deque<Span>> spans = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Tracer tracer;
+
+
+    /**
+     * @param tracer where the spans are recorded.
+     */
+    public TraceListener(Tracer tracer){
+        this.tracer = tracer;
+    }
+
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args){
+        String command = CommandLatencyListener.command(target, method);
+        Span span = tracer.span(command, "webdriver");
+        if (("get".equals(command) || "navigation.to".equals(command)) && args != null && args.length == 1){
+            span.arg("url", String.valueOf(args[0]));
+        }
+        spans.get().push(span);
+    }
+
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result){
+        close();
+    }
+
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e){
+        Span span = spans.get().peek();
+        if (span != null){
+            span.arg("error", e.getCause().getClass().getSimpleName());
+        }
+        close();
+    }
+
+
+    private void close(){
+        Span span = spans.get().poll();
+        if (span != null){
+            span.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.trace;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exports the spans of a {@link Tracer} as Chrome trace events and as collapsed stacks.
+ */
+public class TraceReport {
+
+    private final Tracer tracer;
+
+
+    public TraceReport(Tracer tracer){
+        this.tracer = tracer;
+    }
+
+
+    /**
+     * @return the spans as a Chrome trace-event document, one complete ("X") event per span and one timeline
+     *         row per thread.
+     */
+    public String chromeTrace(){
+        List<Map<String, Object>> events = new ArrayList<>();
+        for (Span span : tracer.getSpans()){
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("name", span.getName());
+            event.put("cat", span.getCategory());
+            event.put("ph", "X");
+            event.put("ts", (span.getStartNanos() - tracer.getEpochNanos()) / 1_000.0);
+            event.put("dur", span.getDurationNanos() / 1_000.0);
+            event.put("pid", 1);
+            event.put("tid", span.getThreadId());
+            if (!span.getArgs().isEmpty()){
+                event.put("args", span.getArgs());
+            }
+            events.add(event);
+        }
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("traceEvents", events);
+        document.put("displayTimeUnit", "ms");
+        if (tracer.getDroppedSpans() > 0){
+            document.put("otherData", Collections.singletonMap("droppedSpans", tracer.getDroppedSpans()));
+        }
+        return new Json().toJson(document);
+    }
+
+
+    /**
+     * @return one line per distinct stack with its total self time in microseconds, the input of flamegraph.pl.
+     */
+    public String collapsedStacks(){
+        Map<String, Long> selfMicros = new TreeMap<>();
+        for (Span span : tracer.getSpans()){
+            // spaces would be taken for the separator of the count
+            selfMicros.merge(span.getStack().replace(' ', '_'), span.getSelfNanos() / 1_000, Long::sum);
+        }
+        StringBuilder collapsed = new StringBuilder();
+        for (Map.Entry<String, Long> entry : selfMicros.entrySet()){
+            if (entry.getValue() > 0){
+                collapsed.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+            }
+        }
+        return collapsed.toString();
+    }
+
+
+    /**
+     * Writes baseName.json and baseName.collapsed, nothing is written if no span was recorded.
+     *
+     * @param directory where the files are written.
+     * @param baseName  the name of the files without extension.
+     */
+    public void writeTo(Path directory, String baseName){
+        if (tracer.getSpans().isEmpty()){
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(baseName + ".json"), chromeTrace().getBytes(StandardCharsets.UTF_8));
+            Files.write(directory.resolve(baseName + ".collapsed"), collapsedStacks().getBytes(StandardCharsets.UTF_8));
+            if (tracer.getDroppedSpans() > 0){
+                System.err.println("The trace is incomplete, " + tracer.getDroppedSpans()
+                        + " spans were dropped past -Dtrace.maxSpans");
+            }
+        } catch (IOException e){
+            System.err.println("Could not write the trace: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.trace;
+
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records a nested timeline of what every thread does: tests, their setup, body and teardown, waits, logins and
+ * WebDriver commands.
+ *
+ * {@link #span(String, String)} opens a span on the calling thread; the spans open on a thread form a stack, so
+ * a WebDriver command issued by a wait issued by a test method ends up nested under all three. Closed spans are
+ * kept in memory and exported by the {@link TraceReport} when the JVM exits, as target/trace.json (Chrome
+ * trace events, for chrome://tracing or Perfetto) and target/trace.collapsed (collapsed stacks, for
+ * flamegraph.pl or speedscope).
+ *
+ * Tracing is off unless -Dtrace=true is set; off, spans cost nothing. Every WebDriver command is a span, so the
+ * spans kept are capped at trace.maxSpans (default 200000): on a longer run, the later spans are counted but not
+ * kept, and the export says how many were dropped.
+ */
+public class Tracer {
+
+    private static final Tracer SHARED = new Tracer(Boolean.getBoolean("trace"), Integer.getInteger("trace.maxSpans", 200_000));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> new TraceReport(SHARED).writeTo(Paths.get("target"), "trace")));
+    }
+
+    private final boolean enabled;
+    private final long epochNanos = System.nanoTime();
+    private final ThreadLocal<Deque<Span>> open = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Queue<Span> closed = new ConcurrentLinkedQueue<>();
+    private final int maxSpans;
+    private final AtomicInteger kept = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+
+    /**
+     * @param enabled false to ignore every span.
+     */
+    public Tracer(boolean enabled){
+        this(enabled, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * @param enabled  false to ignore every span.
+     * @param maxSpans how many closed spans are kept at most.
+     */
+    public Tracer(boolean enabled, int maxSpans){
+        this.enabled = enabled;
+        this.maxSpans = maxSpans;
+    }
+
+
+    /**
+     * @return the tracer shared by all the threads of the JVM.
+     */
+    public static Tracer shared(){
+        return SHARED;
+    }
+
+
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+
+    /**
+     * Opens a span on the calling thread, to be closed by the same thread.
+     *
+     * @param name     what the span measures, e.g. setup or findElement.
+     * @param category the kind of span, e.g. test, wait or webdriver.
+     * @return the open span.
+     */
+    public Span span(String name, String category){
+        if (!enabled){
+            return Span.NOOP;
+        }
+        Deque<Span> stack = open.get();
+        Span parent = stack.peek();
+        // the collapsed format separates frames with semicolons
+        String frame = name.replace(';', ':');
+        Span span = new Span(this, name, category, parent == null ? frame : parent.getStack() + ";" + frame,
+                Thread.currentThread().getId(), System.nanoTime());
+        stack.push(span);
+        return span;
+    }
+
+
+    void closed(Span span){
+        Deque<Span> stack = open.get();
+        // closing out of order would corrupt the stack, the spans above the closed one are dropped with it
+        while (!stack.isEmpty() && stack.peek() != span){
+            stack.pop();
+        }
+        stack.poll();
+        Span parent = stack.peek();
+        if (parent != null){
+            parent.addChild(span.getDurationNanos());
+        }
+        if (kept.incrementAndGet() <= maxSpans){
+            closed.add(span);
+        } else {
+            kept.decrementAndGet();
+            dropped.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * @return the closed spans, in closing order.
+     */
+    public List<Span> getSpans(){
+        return new ArrayList<>(closed);
+    }
+
+
+    /**
+     * @return the number of closed spans that were not kept because the cap was reached.
+     */
+    public long getDroppedSpans(){
+        return dropped.get();
+    }
+
+
+    /**
+     * @return the System.nanoTime() the timestamps of the trace are relative to.
+     */
+    public long getEpochNanos(){
+        return epochNanos;
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.trace;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.MultipleFailureException;
+import org.junit.runners.model.Statement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a JUnit 4 class like the default runner, tracing every test method as a span with three children:
+ * setup (the @Before methods), the test body and teardown (the @After methods).
+ *
+ * Use it with @RunWith(TracingRunner.class). Rules run around the three phases, inside the span of the test.
+ * The spans are only recorded with -Dtrace=true, see {@link Tracer}.
+ */
+public class TracingRunner extends BlockJUnit4ClassRunner {
+
+    public TracingRunner(Class<?> testClass) throws InitializationError {
+        super(testClass);
+    }
+
+
+    @Override
+    protected Statement methodBlock(FrameworkMethod method){
+        Statement block = super.methodBlock(method);
+        String testId = getTestClass().getName() + "#" + method.getName();
+        return new Statement() {
+            @Override
+            @SuppressWarnings("try")
+            public void evaluate() throws Throwable {
+                try (Span ignored = Tracer.shared().span(testId, "test")){
+                    block.evaluate();
+                }
+            }
+        };
+    }
+
+
+    @Override
+    protected Statement methodInvoker(FrameworkMethod method, Object test){
+        Statement invoker = super.methodInvoker(method, test);
+        return new Statement() {
+            @Override
+            @SuppressWarnings("try")
+            public void evaluate() throws Throwable {
+                try (Span ignored = Tracer.shared().span(method.getName(), "test")){
+                    invoker.evaluate();
+                }
+            }
+        };
+    }
+
+
+    @Override
+    protected Statement withBefores(FrameworkMethod method, Object target, Statement statement){
+        List<FrameworkMethod> befores = getTestClass().getAnnotatedMethods(Before.class);
+        if (befores.isEmpty()){
+            return statement;
+        }
+        return new Statement() {
+            @Override
+            @SuppressWarnings("try")
+            public void evaluate() throws Throwable {
+                try (Span ignored = Tracer.shared().span("setup", "test")){
+                    for (FrameworkMethod before : befores){
+                        before.invokeExplosively(target);
+                    }
+                }
+                statement.evaluate();
+            }
+        };
+    }
+
+
+    @Override
+    protected Statement withAfters(FrameworkMethod method, Object target, Statement statement){
+        List<FrameworkMethod> afters = getTestClass().getAnnotatedMethods(After.class);
+        if (afters.isEmpty()){
+            return statement;
+        }
+        return new Statement() {
+            @Override
+            @SuppressWarnings("try")
+            public void evaluate() throws Throwable {
+                // like the default runner: the @After methods always run and every failure is reported
+                List<Throwable> errors = new ArrayList<>();
+                try {
+                    statement.evaluate();
+                } catch (Throwable e){
+                    errors.add(e);
+                } finally {
+                    try (Span ignored = Tracer.shared().span("teardown", "test")){
+                        for (FrameworkMethod after : afters){
+                            try {
+                                after.invokeExplosively(target);
+                            } catch (Throwable e){
+                                errors.add(e);
+                            }
+                        }
+                    }
+                }
+                MultipleFailureException.assertEmpty(errors);
+            }
+        };
+    }
+}
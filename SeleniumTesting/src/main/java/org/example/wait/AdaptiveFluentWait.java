@@ -0,0 +1,61 @@
+package org.example.wait;
+
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * A {@link FluentWait} whose pauses come from a {@link PollingPolicy} instead of a fixed pollingEvery interval.
+ *
+ * With -Dwait.log=true, every call to until logs the number of round-trips it took. Like FluentWait, an instance
+ * is meant to be used by a single thread.
+ *
+ * @param <T> the input of the wait, usually a WebDriver.
+ */
+public class AdaptiveFluentWait<T> extends FluentWait<T> {
+
+    private final PolicySleeper sleeper;
+    private final String label;
+
+
+    /**
+     * @param input  the input handed to the conditions.
+     * @param policy the polling policy.
+     * @param label  describes the wait in the logs, for example the locator.
+     */
+    public AdaptiveFluentWait(T input, PollingPolicy policy, String label){
+        this(input, new PolicySleeper(policy, Duration.ofMillis(DEFAULT_SLEEP_TIMEOUT)), label);
+    }
+
+    private AdaptiveFluentWait(T input, PolicySleeper sleeper, String label){
+        super(input, Clock.systemDefaultZone(), sleeper);
+        this.sleeper = sleeper;
+        this.label = label;
+    }
+
+
+    @Override
+    public FluentWait<T> withTimeout(Duration timeout){
+        // the field is still null while the super constructor runs
+        if (sleeper != null){
+            sleeper.setTimeout(timeout);
+        }
+        return super.withTimeout(timeout);
+    }
+
+
+    @Override
+    public <V> V until(Function<? super T, V> isTrue){
+        sleeper.begin();
+        boolean ready = false;
+        try {
+            V value = super.until(isTrue);
+            ready = true;
+            return value;
+        } finally {
+            sleeper.end(label, ready);
+        }
+    }
+}
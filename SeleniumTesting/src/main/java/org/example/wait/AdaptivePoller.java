@@ -0,0 +1,84 @@
+package org.example.wait;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Polls a condition, starting with very short intervals and backing off while the condition stays false.
+ *
+ * Conditions that hold almost immediately are noticed within a few milliseconds, while long waits
+ * do not flood the driver with requests. Used when a condition cannot be observed from inside the page.
+ */
+public class AdaptivePoller {
+
+    private static final PollingPolicy DEFAULT_POLICY =
+            new BackoffPollingPolicy(Duration.ofMillis(10), Duration.ofMillis(200), 1.5, 0);
+
+    private final Duration timeout;
+    private final PollingPolicy policy;
+
+    public AdaptivePoller(Duration timeout){
+        this(timeout, DEFAULT_POLICY);
+    }
+
+    /**
+     * @param timeout how long to poll.
+     * @param policy  chooses the pauses between two evaluations.
+     */
+    public AdaptivePoller(Duration timeout, PollingPolicy policy){
+        this.timeout = timeout;
+        this.policy = policy;
+    }
+
+
+    /**
+     * Evaluates the condition until it returns a non-null value other than Boolean.FALSE.
+     *
+     * Missing and stale elements are treated as "not yet".
+     *
+     * @param description used in the timeout message.
+     * @param condition   the condition to evaluate.
+     * @return the first accepted value of the condition.
+     * @throws TimeoutException if the condition did not hold within the timeout.
+     */
+    public <T> T until(String description, Supplier<T> condition){
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        int attempt = 0;
+        RuntimeException last = null;
+
+        while (true){
+            attempt++;
+            try {
+                T value = condition.get();
+                if (value != null && !Boolean.FALSE.equals(value)){
+                    return value;
+                }
+            } catch (NoSuchElementException | StaleElementReferenceException e){
+                last = e;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0){
+                throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for " + description, last);
+            }
+
+            Duration delay = policy.nextDelay(attempt, Duration.ofNanos(System.nanoTime() - start));
+            sleep(Math.min(delay.toMillis(), remaining / 1_000_000 + 1));
+        }
+    }
+
+
+    private static void sleep(long millis){
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting", e);
+        }
+    }
+}
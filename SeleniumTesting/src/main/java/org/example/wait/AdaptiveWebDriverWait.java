@@ -0,0 +1,52 @@
+package org.example.wait;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * A {@link WebDriverWait} whose pauses come from a {@link PollingPolicy}.
+ *
+ * Keeps what WebDriverWait adds over FluentWait (NotFoundException ignored, driver details in timeout messages)
+ * and, with -Dwait.log=true, logs the number of round-trips of every until call. An instance is meant to be used
+ * by a single thread.
+ */
+public class AdaptiveWebDriverWait extends WebDriverWait {
+
+    private final PolicySleeper sleeper;
+    private final String label;
+
+
+    /**
+     * @param driver  the driver.
+     * @param timeout how long to wait.
+     * @param policy  the polling policy.
+     * @param label   describes the wait in the logs, for example the locator.
+     */
+    public AdaptiveWebDriverWait(WebDriver driver, Duration timeout, PollingPolicy policy, String label){
+        this(driver, timeout, new PolicySleeper(policy, timeout), label);
+    }
+
+    private AdaptiveWebDriverWait(WebDriver driver, Duration timeout, PolicySleeper sleeper, String label){
+        super(driver, timeout, Duration.ofMillis(DEFAULT_SLEEP_TIMEOUT), Clock.systemDefaultZone(), sleeper);
+        this.sleeper = sleeper;
+        this.label = label;
+    }
+
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue){
+        sleeper.begin();
+        boolean ready = false;
+        try {
+            V value = super.until(isTrue);
+            ready = true;
+            return value;
+        } finally {
+            sleeper.end(label, ready);
+        }
+    }
+}
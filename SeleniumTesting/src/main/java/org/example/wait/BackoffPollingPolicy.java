@@ -0,0 +1,61 @@
+package org.example.wait;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter.
+ *
+ * The first pauses are short so fast conditions are noticed quickly, then they grow by a constant factor
+ * up to a ceiling. The jitter randomizes each pause by up to the given fraction, which keeps parallel
+ * tests from hitting a shared grid in lock-step.
+ */
+public class BackoffPollingPolicy implements PollingPolicy {
+
+    private final long initialMillis;
+    private final long maxMillis;
+    private final double multiplier;
+    private final double jitter;
+
+
+    /**
+     * @param initial    the first pause.
+     * @param max        the longest pause.
+     * @param multiplier the growth factor between two pauses, at least 1.
+     * @param jitter     the random fraction removed from each pause, between 0 (none) and 1.
+     */
+    public BackoffPollingPolicy(Duration initial, Duration max, double multiplier, double jitter){
+        if (multiplier < 1 || jitter < 0 || jitter > 1){
+            throw new IllegalArgumentException("multiplier must be >= 1 and jitter between 0 and 1");
+        }
+        this.initialMillis = Math.max(1, initial.toMillis());
+        this.maxMillis = Math.max(initialMillis, max.toMillis());
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+
+    /**
+     * @return a policy starting at 10 ms and doubling up to 500 ms with 20% jitter.
+     */
+    public static BackoffPollingPolicy defaults(){
+        return new BackoffPollingPolicy(Duration.ofMillis(10), Duration.ofMillis(500), 2, 0.2);
+    }
+
+
+    @Override
+    public Duration nextDelay(int attempt, Duration elapsed){
+        double delay = initialMillis * Math.pow(multiplier, attempt - 1);
+        delay = Math.min(delay, maxMillis);
+        if (jitter > 0){
+            delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+        }
+        return Duration.ofMillis(Math.max(1, Math.round(delay)));
+    }
+
+
+    @Override
+    public String describe(){
+        return "backoff(" + initialMillis + "ms x" + multiplier + " <= " + maxMillis + "ms)";
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.wait;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A policy that remembers, per key (usually a locator), how long the condition took to hold in earlier waits.
+ *
+ * With a history, the first pause jumps to just before the expected ready time (mean minus two standard
+ * deviations), so the wait spends almost no round-trips on evaluations that are bound to fail. After that,
+ * or without a history, it behaves like its fallback backoff policy.
+ *
+ * The statistics are shared by every wait of the JVM and kept from one run to the next in
+ * target/learned-polling.properties, loaded on first use and saved when the JVM exits.
+ */
+public class LearnedPollingPolicy implements PollingPolicy {
+
+    public static final Path HISTORY_FILE = Paths.get("target", "learned-polling.properties");
+
+    // statistics shared by every wait of the JVM
+    private static final Map<String, ReadyTimes> HISTORY = load(HISTORY_FILE);
+
+    static {
+        // keeping what was learned for the next runs
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> save(HISTORY_FILE)));
+    }
+
+    // weight given to the newest ready time
+    private static final double NEW_WEIGHT = 0.2;
+
+    private final String key;
+    private final PollingPolicy fallback;
+
+
+    /**
+     * @param key      what the statistics are kept for, for example By.toString().
+     * @param fallback the policy used without a history and after the first pause.
+     */
+    public LearnedPollingPolicy(String key, PollingPolicy fallback){
+        this.key = key;
+        this.fallback = fallback;
+    }
+
+
+    /**
+     * @return a learned policy for the given key backed by {@link BackoffPollingPolicy#defaults()}.
+     */
+    public static LearnedPollingPolicy forKey(String key){
+        return new LearnedPollingPolicy(key, BackoffPollingPolicy.defaults());
+    }
+
+
+    @Override
+    public Duration nextDelay(int attempt, Duration elapsed){
+        ReadyTimes times = HISTORY.get(key);
+        if (attempt == 1 && times != null){
+            long target = Math.round(times.mean - 2 * Math.sqrt(times.variance));
+            long remaining = target - elapsed.toMillis();
+            if (remaining > 0){
+                return Duration.ofMillis(remaining);
+            }
+        }
+        // the first guess is behind us, polling finely from here
+        return fallback.nextDelay(times == null ? attempt : Math.max(1, attempt - 1), elapsed);
+    }
+
+
+    @Override
+    public void onReady(Duration elapsed){
+        double millis = elapsed.toMillis();
+        HISTORY.compute(key, (k, times) -> times == null ? new ReadyTimes(millis) : times.add(millis));
+    }
+
+
+    @Override
+    public String describe(){
+        ReadyTimes times = HISTORY.get(key);
+        return times == null ? "learned(no history)" : String.format("learned(~%.0fms)", times.mean);
+    }
+
+
+    /**
+     * Reads the statistics of the previous runs, one key=mean,variance line per key. An absent file simply means
+     * no history yet.
+     */
+    static Map<String, ReadyTimes> load(Path file){
+        Map<String, ReadyTimes> history = new ConcurrentHashMap<>();
+        if (!Files.exists(file)){
+            return history;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+            properties.load(reader);
+        } catch (IOException e){
+            System.err.println("Ignoring unreadable polling history: " + e.getMessage());
+        }
+        for (String key : properties.stringPropertyNames()){
+            String[] values = properties.getProperty(key).split(",");
+            try {
+                history.put(key, new ReadyTimes(Double.parseDouble(values[0].trim()), Double.parseDouble(values[1].trim())));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException ignored){
+                // a broken line only loses the history of one key
+            }
+        }
+        return history;
+    }
+
+
+    /**
+     * Writes the statistics back to their file, nothing is written when no wait learned anything.
+     */
+    static void save(Path file){
+        if (HISTORY.isEmpty()){
+            return;
+        }
+        Properties properties = new Properties();
+        HISTORY.forEach((key, times) -> properties.setProperty(key, times.mean + "," + times.variance));
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)){
+                properties.store(writer, "per key ready time mean and variance in ms, used by LearnedPollingPolicy");
+            }
+        } catch (IOException e){
+            System.err.println("Could not save the polling history: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * Exponentially weighted mean and variance of the ready times, immutable so they can be swapped atomically.
+     */
+    private static class ReadyTimes {
+        private final double mean;
+        private final double variance;
+
+        private ReadyTimes(double first){
+            this(first, 0);
+        }
+
+        private ReadyTimes(double mean, double variance){
+            this.mean = mean;
+            this.variance = variance;
+        }
+
+        private ReadyTimes add(double millis){
+            double diff = millis - mean;
+            double newMean = mean + NEW_WEIGHT * diff;
+            double newVariance = (1 - NEW_WEIGHT) * (variance + NEW_WEIGHT * diff * diff);
+            return new ReadyTimes(newMean, newVariance);
+        }
+    }
+}
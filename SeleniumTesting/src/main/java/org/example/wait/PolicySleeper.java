@@ -0,0 +1,82 @@
+package org.example.wait;
+
+import org.openqa.selenium.support.ui.Sleeper;
+
+import java.time.Duration;
+
+/**
+ * A FluentWait {@link Sleeper} that ignores the fixed polling interval and asks a {@link PollingPolicy} instead.
+ *
+ * FluentWait evaluates its condition, then calls the sleeper, then evaluates again, so counting the sleeps
+ * also counts the driver round-trips of a wait. A sleeper keeps the state of one running wait and must not be
+ * shared between threads.
+ *
+ * With -Dwait.log=true, every wait prints its outcome and number of round-trips.
+ */
+public class PolicySleeper implements Sleeper {
+
+    private static final boolean LOG = Boolean.getBoolean("wait.log");
+
+    private final PollingPolicy policy;
+    private Duration timeout;
+    private long start;
+    private int evaluations;
+
+
+    /**
+     * @param policy  the policy choosing the pauses.
+     * @param timeout the timeout of the wait, pauses never sleep past it.
+     */
+    public PolicySleeper(PollingPolicy policy, Duration timeout){
+        this.policy = policy;
+        this.timeout = timeout;
+    }
+
+
+    void setTimeout(Duration timeout){
+        this.timeout = timeout;
+    }
+
+
+    /**
+     * Marks the start of a wait, FluentWait evaluates the condition once before the first sleep.
+     */
+    void begin(){
+        start = System.nanoTime();
+        evaluations = 1;
+    }
+
+
+    @Override
+    public void sleep(Duration ignoredInterval) throws InterruptedException {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Duration delay = policy.nextDelay(evaluations, elapsed);
+
+        // waking up right at the deadline so the last evaluation is not wasted
+        Duration remaining = timeout.minus(elapsed);
+        if (delay.compareTo(remaining) > 0){
+            delay = remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+
+        Thread.sleep(delay.toMillis());
+        evaluations++;
+    }
+
+
+    /**
+     * Marks the end of a wait, feeds the policy and, with -Dwait.log=true, logs the number of round-trips.
+     *
+     * @param label describes the wait in the log line.
+     * @param ready true if the condition held, false on timeout.
+     */
+    void end(String label, boolean ready){
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        if (ready){
+            policy.onReady(elapsed);
+        }
+        if (LOG){
+            System.out.printf("[wait] %s %s after %d ms, %d round-trips, %s%n",
+                    label, ready ? "ready" : "timed out", elapsed.toMillis(), evaluations, policy.describe());
+        }
+    }
+}
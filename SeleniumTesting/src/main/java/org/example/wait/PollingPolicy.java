@@ -0,0 +1,38 @@
+package org.example.wait;
+
+import java.time.Duration;
+
+/**
+ * Decides how long a wait sleeps between two evaluations of its condition.
+ *
+ * Every evaluation of a WebDriver condition is an HTTP round-trip to the driver, so the policy trades
+ * driver load against the latency between the moment the condition holds and the moment the wait notices it.
+ */
+public interface PollingPolicy {
+
+    /**
+     * Returns the pause before the next evaluation.
+     *
+     * @param attempt the number of evaluations already made, starting at 1.
+     * @param elapsed the time since the wait started.
+     * @return the pause, never negative.
+     */
+    Duration nextDelay(int attempt, Duration elapsed);
+
+
+    /**
+     * Called when the condition held, so learning policies can remember how long it took.
+     *
+     * @param elapsed the time from the start of the wait to the successful evaluation.
+     */
+    default void onReady(Duration elapsed){
+    }
+
+
+    /**
+     * @return a short name used in the wait logs.
+     */
+    default String describe(){
+        return getClass().getSimpleName();
+    }
+}
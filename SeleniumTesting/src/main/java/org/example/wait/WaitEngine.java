@@ -0,0 +1,312 @@
+package org.example.wait;
+
+import org.example.locator.ParsedLocator;
+import org.example.trace.Span;
+import org.example.trace.Tracer;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Waits that return the moment their condition holds, meant to replace fixed Thread.sleep calls.
+ *
+ * Element and text conditions are watched from inside the page: a MutationObserver is installed through
+ * an asynchronous script and the script completes as soon as a DOM change makes the condition true, so a
+ * wait costs a single driver round-trip. When the condition cannot be observed by a script (alerts, windows,
+ * unsupported locators or a page navigating away) the engine falls back to an {@link AdaptivePoller}.
+ *
+ * Waits created through {@link #replacing(long)} are recorded in the {@link WaitReport} together with the
+ * length of the sleep they replaced, and never wait longer than that sleep did.
+ */
+public class WaitEngine {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    // how long the DOM must stay unchanged to be considered settled
+    private static final long QUIET_MILLIS = 100;
+
+    private static final String ELEMENT_SCRIPT =
+            "var strategy = arguments[0], value = arguments[1], condition = arguments[2], text = arguments[3],"
+            + "    timeout = arguments[4], done = arguments[arguments.length - 1];"
+            + ParsedLocator.FIND_FUNCTION
+            + "function __visible(e) {"
+            + "  var r = e.getBoundingClientRect(), s = window.getComputedStyle(e);"
+            + "  return r.width > 0 && r.height > 0 && s.visibility !== 'hidden' && s.display !== 'none';"
+            + "}"
+            + "function __check() {"
+            + "  var e = __find(strategy, value, document);"
+            + "  if (!e) return null;"
+            + "  if (condition === 'visible' && !__visible(e)) return null;"
+            // the rendered text, like getText(): nothing for a hidden element
+            + "  if (condition === 'text' && ((__visible(e) && e.innerText) || '').indexOf(text) < 0) return null;"
+            + "  return e;"
+            + "}"
+            + "var found = __check();"
+            + "if (found) { done(found); return; }"
+            + "var finished = false, observer, ticker, timer;"
+            + "function __finish(result) {"
+            + "  if (finished) return;"
+            + "  finished = true; observer.disconnect(); clearInterval(ticker); clearTimeout(timer); done(result);"
+            + "}"
+            + "observer = new MutationObserver(function () { var e = __check(); if (e) __finish(e); });"
+            + "observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});"
+            // style changes driven by stylesheets or animations do not mutate the DOM, re-checking them in the page
+            + "ticker = setInterval(function () { var e = __check(); if (e) __finish(e); }, 50);"
+            + "timer = setTimeout(function () { __finish(null); }, timeout);";
+
+    private static final String DOM_QUIET_SCRIPT =
+            "var quiet = arguments[0], timeout = arguments[1], done = arguments[arguments.length - 1];"
+            + "var start = Date.now(), last = Date.now();"
+            + "var observer = new MutationObserver(function () { last = Date.now(); });"
+            + "observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "var ticker = setInterval(function () {"
+            + "  var now = Date.now();"
+            + "  if ((document.readyState === 'complete' && now - last >= quiet) || now - start >= timeout) {"
+            + "    clearInterval(ticker); observer.disconnect(); done(document.readyState === 'complete');"
+            + "  }"
+            + "}, 10);";
+
+    private final WebDriver driver;
+    private final String suite;
+    private final Duration timeout;
+    private final long replacedSleepMillis;
+
+
+    /**
+     * Creates an engine with the default timeout.
+     *
+     * @param driver the driver to wait on.
+     * @param suite  the name of the test class, used by the report.
+     */
+    public WaitEngine(WebDriver driver, String suite){
+        this(driver, suite, DEFAULT_TIMEOUT, 0);
+    }
+
+    private WaitEngine(WebDriver driver, String suite, Duration timeout, long replacedSleepMillis){
+        this.driver = driver;
+        this.suite = suite;
+        this.timeout = timeout;
+        this.replacedSleepMillis = replacedSleepMillis;
+    }
+
+
+    /**
+     * @return a copy of this engine using the given timeout.
+     */
+    public WaitEngine withTimeout(Duration timeout){
+        return new WaitEngine(driver, suite, timeout, replacedSleepMillis);
+    }
+
+
+    /**
+     * Returns a copy of this engine whose waits are reported as replacing a fixed sleep of the given length.
+     *
+     * The timeout is capped at the length of the sleep, so a condition that never holds costs no more than the
+     * sleep did.
+     *
+     * @param sleepMillis the length of the Thread.sleep the wait replaces.
+     * @return the reporting engine.
+     */
+    public WaitEngine replacing(long sleepMillis){
+        Duration sleep = Duration.ofMillis(sleepMillis);
+        return new WaitEngine(driver, suite, sleep.compareTo(timeout) < 0 ? sleep : timeout, sleepMillis);
+    }
+
+
+    /**
+     * Waits until an element matching the locator is attached to the DOM.
+     *
+     * @param by the locator.
+     * @return the element.
+     * @throws TimeoutException if no element appeared within the timeout.
+     */
+    public WebElement untilPresent(By by){
+        return timed("untilPresent", by, () -> element(by, "present", null));
+    }
+
+
+    /**
+     * Waits until an element matching the locator is displayed.
+     *
+     * @param by the locator.
+     * @return the element.
+     * @throws TimeoutException if no visible element appeared within the timeout.
+     */
+    public WebElement untilVisible(By by){
+        return timed("untilVisible", by, () -> element(by, "visible", null));
+    }
+
+
+    /**
+     * Waits until the text of the element matching the locator contains the given text.
+     *
+     * @param by   the locator.
+     * @param text the expected text.
+     * @return the element.
+     * @throws TimeoutException if the text did not appear within the timeout.
+     */
+    public WebElement untilTextContains(By by, String text){
+        return timed("untilTextContains", by, () -> element(by, "text", text));
+    }
+
+
+    /**
+     * Waits until an element already found is displayed and enabled.
+     *
+     * @param element the element.
+     * @return the same element.
+     * @throws TimeoutException if the element did not become clickable within the timeout.
+     */
+    public WebElement untilClickable(WebElement element){
+        return timed("untilClickable", element, () -> poller().until("element to be clickable",
+                () -> element.isDisplayed() && element.isEnabled() ? element : null));
+    }
+
+
+    /**
+     * Waits until the page finished loading and its DOM stopped changing for a short moment.
+     *
+     * Unlike the other waits, running out of time is not an error: the page is just busy.
+     */
+    public void untilDomQuiet(){
+        timed("untilDomQuiet", null, () -> {
+            try {
+                return ((JavascriptExecutor) driver).executeAsyncScript(DOM_QUIET_SCRIPT, QUIET_MILLIS, timeout.toMillis());
+            } catch (WebDriverException | ClassCastException e){
+                // an open alert or a page being replaced, nothing to observe
+                return null;
+            }
+        });
+    }
+
+
+    /**
+     * Waits until an alert is open.
+     *
+     * @return the open alert.
+     * @throws TimeoutException if no alert opened within the timeout.
+     */
+    public Alert untilAlertPresent(){
+        return timed("untilAlertPresent", null, () -> poller().until("alert to be present", () -> {
+            try {
+                return driver.switchTo().alert();
+            } catch (NoAlertPresentException e){
+                return null;
+            }
+        }));
+    }
+
+
+    /**
+     * Waits until no alert is open anymore.
+     *
+     * @throws TimeoutException if an alert is still open after the timeout.
+     */
+    public void untilNoAlert(){
+        timed("untilNoAlert", null, () -> poller().until("alert to be closed", () -> {
+            try {
+                driver.switchTo().alert();
+                return false;
+            } catch (NoAlertPresentException e){
+                return true;
+            }
+        }));
+    }
+
+
+    /**
+     * Waits until the window with the given handle is gone.
+     *
+     * @param handle the handle of the closed window.
+     * @throws TimeoutException if the window still exists after the timeout.
+     */
+    public void untilWindowClosed(String handle){
+        timed("untilWindowClosed", handle, () -> poller().until("window " + handle + " to be closed",
+                () -> !driver.getWindowHandles().contains(handle)));
+    }
+
+
+    /**
+     * Polls an arbitrary condition with the adaptive poller.
+     *
+     * @param description used in the timeout message.
+     * @param condition   accepted once it returns a non-null value other than Boolean.FALSE.
+     * @return the accepted value.
+     */
+    public <T> T until(String description, Supplier<T> condition){
+        return timed("until", description, () -> poller().until(description, condition));
+    }
+
+
+    /**
+     * Waits for an element condition through the mutation observer script, or by polling when the script cannot run.
+     */
+    private WebElement element(By by, String condition, String text){
+        long start = System.nanoTime();
+        ParsedLocator locator = ParsedLocator.parse(by);
+
+        if (locator != null && driver instanceof JavascriptExecutor){
+            try {
+                Object found = ((JavascriptExecutor) driver).executeAsyncScript(ELEMENT_SCRIPT,
+                        locator.getStrategy(), locator.getValue(), condition, text, timeout.toMillis());
+                if (found instanceof WebElement){
+                    return (WebElement) found;
+                }
+                throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for "
+                        + by + " to be " + condition);
+            } catch (TimeoutException e){
+                throw e;
+            } catch (WebDriverException e){
+                // the page navigated away or the script is not allowed, polling for the remaining time
+            }
+        }
+
+        Duration remaining = timeout.minusNanos(System.nanoTime() - start);
+        return new AdaptivePoller(remaining.isNegative() ? Duration.ZERO : remaining)
+                .until(by + " to be " + condition, () -> {
+                    WebElement element = driver.findElement(by);
+                    switch (condition){
+                        case "visible":
+                            return element.isDisplayed() ? element : null;
+                        case "text":
+                            return element.getText().contains(text) ? element : null;
+                        default:
+                            return element;
+                    }
+                });
+    }
+
+
+    private AdaptivePoller poller(){
+        return new AdaptivePoller(timeout);
+    }
+
+
+    /**
+     * Runs a wait in a span of the {@link Tracer} and reports it when it replaces a sleep.
+     */
+    private <T> T timed(String name, Object target, Supplier<T> wait){
+        long start = System.nanoTime();
+        try (Span span = Tracer.shared().span("wait." + name, "wait")){
+            if (target != null){
+                span.arg("target", String.valueOf(target));
+            }
+            if (replacedSleepMillis > 0){
+                span.arg("replacesSleepMs", replacedSleepMillis);
+            }
+            return wait.get();
+        } finally {
+            if (replacedSleepMillis > 0){
+                WaitReport.shared().record(suite, replacedSleepMillis, System.nanoTime() - start);
+            }
+        }
+    }
+}
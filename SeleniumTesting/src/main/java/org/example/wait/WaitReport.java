@@ -0,0 +1,105 @@
+package org.example.wait;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares, per suite, the fixed Thread.sleep time that waits replaced with the time the waits actually took.
+ *
+ * The shared report is written to target/wait-report.txt when the JVM exits.
+ */
+public class WaitReport {
+
+    private static final WaitReport SHARED = new WaitReport();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> SHARED.writeTo(Paths.get("target", "wait-report.txt"))));
+    }
+
+    private final Map<String, SuiteTimings> suites = new ConcurrentHashMap<>();
+
+
+    /**
+     * @return the report shared by every {@link WaitEngine}.
+     */
+    public static WaitReport shared(){
+        return SHARED;
+    }
+
+
+    /**
+     * Records one wait that replaced a fixed sleep.
+     *
+     * @param suite        the name of the test class.
+     * @param sleepMillis  the length of the sleep that was replaced.
+     * @param waitedNanos  how long the wait really took.
+     */
+    public void record(String suite, long sleepMillis, long waitedNanos){
+        SuiteTimings timings = suites.computeIfAbsent(suite, name -> new SuiteTimings());
+        timings.waits.incrementAndGet();
+        timings.sleptMillis.addAndGet(sleepMillis);
+        timings.waitedNanos.addAndGet(waitedNanos);
+    }
+
+
+    /**
+     * Builds the human readable report, one line per suite plus a total.
+     *
+     * @return the report text.
+     */
+    public String render(){
+        StringBuilder report = new StringBuilder("=== Wait engine report ===\n");
+        report.append(String.format("%-28s %6s %12s %12s %12s%n", "suite", "waits", "slept (s)", "waited (s)", "saved (s)"));
+
+        long totalWaits = 0;
+        double totalSlept = 0;
+        double totalWaited = 0;
+        for (Map.Entry<String, SuiteTimings> entry : new TreeMap<>(suites).entrySet()){
+            SuiteTimings timings = entry.getValue();
+            double slept = timings.sleptMillis.get() / 1e3;
+            double waited = timings.waitedNanos.get() / 1e9;
+            report.append(String.format("%-28s %6d %12.2f %12.2f %12.2f%n",
+                    entry.getKey(), timings.waits.get(), slept, waited, slept - waited));
+            totalWaits += timings.waits.get();
+            totalSlept += slept;
+            totalWaited += waited;
+        }
+        report.append(String.format("%-28s %6d %12.2f %12.2f %12.2f%n",
+                "TOTAL", totalWaits, totalSlept, totalWaited, totalSlept - totalWaited));
+        return report.toString();
+    }
+
+
+    /**
+     * Writes the report to the given file, nothing is written if no wait was recorded.
+     *
+     * @param file where the report should be written.
+     */
+    public void writeTo(Path file){
+        if (suites.isEmpty()){
+            return;
+        }
+        try {
+            if (file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, render().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e){
+            System.err.println("Could not write the wait report: " + e.getMessage());
+        }
+    }
+
+
+    private static class SuiteTimings {
+        private final AtomicLong waits = new AtomicLong();
+        private final AtomicLong sleptMillis = new AtomicLong();
+        private final AtomicLong waitedNanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.window;
+
+import org.example.trace.Span;
+import org.example.trace.Tracer;
+import org.example.wait.WaitEngine;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.NavigationInfo;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.module.BrowsingContextInspector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Loads pages in several tabs at once: every navigation is started before any of them is waited for, so loading
+ * N pages takes about as long as the slowest one instead of the sum of all of them.
+ *
+ * On a session with a WebDriver BiDi connection (-Dbrowser.bidi=true) the navigations are started with
+ * browsingContext.navigate and wait=none, which needs no switch between the tabs, and the readiness of the tabs
+ * comes from the domContentLoaded and load events. On other sessions every tab is switched to and navigated by a
+ * script, then the tabs are polled in turn for their document.readyState. Such a navigation only returns at once
+ * with the none or eager page-load strategy (-Dbrowser.pageLoadStrategy=none); with the normal one the driver
+ * waits for every page in turn and the tabs load one after the other, as before.
+ */
+public class TabLoader {
+
+    // marks the document being left, so the poll does not mistake it for the new one
+    private static final String NAVIGATE_SCRIPT = "window.__tabLoaderLeaving = true; location.href = arguments[0];";
+    private static final String READY_STATE_SCRIPT = "return window.__tabLoaderLeaving ? 'loading' : document.readyState;";
+
+    private final WindowManager windows;
+    private final WaitEngine waits;
+
+
+    /**
+     * @param windows the windows of the session, the tabs are opened and switched through it.
+     * @param waits   bounds the wait for the tabs to be ready.
+     */
+    public TabLoader(WindowManager windows, WaitEngine waits){
+        this.windows = windows;
+        this.waits = waits;
+    }
+
+
+    /**
+     * Opens one tab per URL and loads them all at once.
+     *
+     * @param urls      the pages to load.
+     * @param readiness how far the pages must be loaded on return: NONE, INTERACTIVE (DOMContentLoaded) or
+     *                  COMPLETE (load).
+     * @return the handles of the tabs, in the order of the URLs. The last tab has the focus.
+     */
+    public List<String> openAll(List<String> urls, ReadinessState readiness){
+        Map<String, String> pages = new LinkedHashMap<>();
+        for (String url : urls){
+            pages.put(windows.openTab(), url);
+        }
+        loadAll(pages, readiness);
+        return new ArrayList<>(pages.keySet());
+    }
+
+
+    /**
+     * Loads a page in each of the given tabs at once.
+     *
+     * @param pages     the URL to load, by tab handle.
+     * @param readiness how far the pages must be loaded on return.
+     * @throws org.openqa.selenium.TimeoutException if a tab is not ready within the timeout of the wait engine.
+     */
+    public void loadAll(Map<String, String> pages, ReadinessState readiness){
+        try (Span span = Tracer.shared().span("tabs.load", "step")){
+            span.arg("tabs", pages.size());
+            if (hasBiDi(windows.getDriver())){
+                span.arg("via", "bidi");
+                loadWithBiDi(pages, readiness);
+            } else {
+                span.arg("via", "polling");
+                loadByPolling(pages, readiness);
+            }
+        }
+    }
+
+
+    private void loadWithBiDi(Map<String, String> pages, ReadinessState readiness){
+        WebDriver driver = windows.getDriver();
+        Set<String> pending = ConcurrentHashMap.newKeySet();
+        pending.addAll(pages.keySet());
+        // a top-level browsing context is identified by the handle of its window
+        try (BrowsingContextInspector inspector = new BrowsingContextInspector(pages.keySet(), driver)){
+            Consumer<NavigationInfo> ready = info -> {
+                if (!"about:blank".equals(info.getUrl())){
+                    pending.remove(info.getBrowsingContextId());
+                }
+            };
+            if (readiness == ReadinessState.COMPLETE){
+                inspector.onBrowsingContextLoaded(ready);
+            } else if (readiness == ReadinessState.INTERACTIVE){
+                inspector.onDomContentLoaded(ready);
+            }
+
+            for (Map.Entry<String, String> page : pages.entrySet()){
+                new BrowsingContext(driver, page.getKey()).navigate(page.getValue(), ReadinessState.NONE);
+            }
+            if (readiness != ReadinessState.NONE){
+                // the events arrive on the BiDi connection, waiting for them costs no command
+                waits.until("tabs " + pending + " to be " + readiness, pending::isEmpty);
+            }
+        }
+    }
+
+
+    private void loadByPolling(Map<String, String> pages, ReadinessState readiness){
+        WebDriver driver = windows.getDriver();
+        for (Map.Entry<String, String> page : pages.entrySet()){
+            windows.switchTo(page.getKey());
+            if (driver instanceof JavascriptExecutor){
+                ((JavascriptExecutor) driver).executeScript(NAVIGATE_SCRIPT, page.getValue());
+            } else {
+                driver.get(page.getValue());
+            }
+        }
+        if (readiness == ReadinessState.NONE){
+            return;
+        }
+
+        Set<String> pending = new LinkedHashSet<>(pages.keySet());
+        waits.until("tabs " + pending + " to be " + readiness, () -> {
+            // one look at every tab still loading per round, the browser loads all of them meanwhile
+            pending.removeIf(handle -> isReady(handle, readiness));
+            return pending.isEmpty();
+        });
+    }
+
+
+    private boolean isReady(String handle, ReadinessState readiness){
+        WebDriver driver = windows.switchTo(handle);
+        if (!(driver instanceof JavascriptExecutor)){
+            // driver.get() already waited for the page
+            return true;
+        }
+        Object state;
+        try {
+            state = ((JavascriptExecutor) driver).executeScript(READY_STATE_SCRIPT);
+        } catch (WebDriverException e){
+            // the document is being replaced, there is no context to run the script in yet
+            return false;
+        }
+        return "complete".equals(state) || (readiness == ReadinessState.INTERACTIVE && "interactive".equals(state));
+    }
+
+
+    private static boolean hasBiDi(WebDriver driver){
+        return driver instanceof HasBiDi && ((HasBiDi) driver).maybeGetBiDi().isPresent();
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.window;
+
+/**
+ * The handle, title and URL of a browser window, read together by the {@link WindowManager}.
+ */
+public final class WindowInfo {
+
+    private final String handle;
+    private final String title;
+    private final String url;
+
+
+    public WindowInfo(String handle, String title, String url){
+        this.handle = handle;
+        this.title = title;
+        this.url = url;
+    }
+
+
+    public String getHandle(){
+        return handle;
+    }
+
+    public String getTitle(){
+        return title;
+    }
+
+    public String getUrl(){
+        return url;
+    }
+
+
+    @Override
+    public String toString(){
+        return handle + " " + title + " (" + url + ")";
+    }
+}
@@ -0,0 +1,247 @@
+package org.example.window;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Opens, switches between and closes the windows of a session while keeping track of their handles.
+ *
+ * The manager asks the browser for the handles once, when it is created, and then updates its own set as it opens
+ * and closes windows, so listing the windows costs no round-trip. It also remembers which window has the focus
+ * and skips the switch when the target already has it. The title and URL of a window are read with one script
+ * instead of two commands. New windows are opened with the WebDriver new window command rather than a
+ * window.open() script, which gives their handle directly and cannot be stopped by a popup blocker.
+ *
+ * Windows the page opens or closes by itself (links with a target, window.close()) are picked up by
+ * {@link #sync()}. The focus is only known while every switch goes through the manager.
+ */
+public class WindowManager {
+
+    private static final String INFO_SCRIPT = "return [document.title, location.href];";
+
+    private final WebDriver driver;
+    private final String main;
+    private final Set<String> handles = new LinkedHashSet<>();
+    // the window having the focus, null after it was closed
+    private String current;
+
+
+    /**
+     * @param driver the session, its current window is taken as the main window.
+     */
+    public WindowManager(WebDriver driver){
+        this.driver = driver;
+        this.main = driver.getWindowHandle();
+        this.current = main;
+        handles.add(main);
+        handles.addAll(driver.getWindowHandles());
+    }
+
+
+    public WebDriver getDriver(){
+        return driver;
+    }
+
+
+    public String getMainHandle(){
+        return main;
+    }
+
+
+    /**
+     * @return the handle of the window having the focus, null when it was closed and no other was switched to.
+     */
+    public String getCurrentHandle(){
+        return current;
+    }
+
+
+    /**
+     * @return the handles of the open windows, main window first, in opening order.
+     */
+    public Set<String> getHandles(){
+        return Collections.unmodifiableSet(handles);
+    }
+
+
+    /**
+     * Opens a new tab and switches to it.
+     *
+     * @return the handle of the tab.
+     */
+    public String openTab(){
+        return open(WindowType.TAB);
+    }
+
+
+    /**
+     * Opens a new tab on a URL.
+     *
+     * @param url the page to load in the tab.
+     * @return the handle of the tab, which has the focus.
+     */
+    public String openTab(String url){
+        String handle = open(WindowType.TAB);
+        driver.get(url);
+        return handle;
+    }
+
+
+    /**
+     * Opens a new window and switches to it.
+     *
+     * @return the handle of the window.
+     */
+    public String openWindow(){
+        return open(WindowType.WINDOW);
+    }
+
+
+    private String open(WindowType type){
+        // newWindow switches to the window it opens
+        String handle = driver.switchTo().newWindow(type).getWindowHandle();
+        handles.add(handle);
+        current = handle;
+        return handle;
+    }
+
+
+    /**
+     * Gives the focus to a window, without a round-trip when it already has it.
+     *
+     * @param handle the handle of the window.
+     * @return the driver, focused on the window.
+     */
+    public WebDriver switchTo(String handle){
+        if (!handle.equals(current)){
+            driver.switchTo().window(handle);
+            current = handle;
+        }
+        return driver;
+    }
+
+
+    /**
+     * @return the driver, focused on the main window.
+     */
+    public WebDriver switchToMain(){
+        return switchTo(main);
+    }
+
+
+    /**
+     * Reads the title and the URL of a window, switching to it if needed.
+     *
+     * @param handle the handle of the window, which keeps the focus.
+     * @return what the window shows.
+     */
+    public WindowInfo describe(String handle){
+        switchTo(handle);
+        return read(handle);
+    }
+
+
+    /**
+     * Reads the title and the URL of every window, starting with the one having the focus, and gives the focus
+     * back to it.
+     *
+     * @return one entry per window, in the order they were read.
+     */
+    public List<WindowInfo> describeAll(){
+        String focused = current;
+        List<WindowInfo> windows = new ArrayList<>();
+        if (focused != null){
+            windows.add(read(focused));
+        }
+        for (String handle : handles){
+            if (!handle.equals(focused)){
+                windows.add(describe(handle));
+            }
+        }
+        if (focused != null){
+            switchTo(focused);
+        }
+        return windows;
+    }
+
+
+    /**
+     * Closes a window, switching to it if needed. No window has the focus afterwards.
+     *
+     * @param handle the handle of the window.
+     */
+    public void close(String handle){
+        switchTo(handle);
+        driver.close();
+        handles.remove(handle);
+        current = null;
+    }
+
+
+    /**
+     * Closes every window but the main one, in a single pass, and gives the focus back to the main window.
+     */
+    public void closeAllExceptMain(){
+        closeAllExceptMain(false);
+    }
+
+
+    /**
+     * Closes every window but the main one, in a single pass, and gives the focus back to the main window.
+     *
+     * @param describe true to read the title and the URL of every window before closing it.
+     * @return what the closed windows showed, empty when describe is false.
+     */
+    public List<WindowInfo> closeAllExceptMain(boolean describe){
+        List<WindowInfo> closed = new ArrayList<>();
+        for (String handle : new ArrayList<>(handles)){
+            if (!handle.equals(main)){
+                switchTo(handle);
+                if (describe){
+                    closed.add(read(handle));
+                }
+                close(handle);
+            }
+        }
+        switchToMain();
+        return closed;
+    }
+
+
+    /**
+     * Brings the tracked handles in line with the browser, for the windows the page opened or closed by itself.
+     *
+     * @return the handles of the windows that were not tracked yet, in the order the browser lists them.
+     */
+    public Set<String> sync(){
+        Set<String> open = driver.getWindowHandles();
+        Set<String> added = new LinkedHashSet<>(open);
+        added.removeAll(handles);
+        handles.retainAll(open);
+        handles.addAll(added);
+        if (current != null && !open.contains(current)){
+            current = null;
+        }
+        return added;
+    }
+
+
+    private WindowInfo read(String handle){
+        if (driver instanceof JavascriptExecutor){
+            Object result = ((JavascriptExecutor) driver).executeScript(INFO_SCRIPT);
+            if (result instanceof List && ((List<?>) result).size() == 2){
+                List<?> info = (List<?>) result;
+                return new WindowInfo(handle, String.valueOf(info.get(0)), String.valueOf(info.get(1)));
+            }
+        }
+        // a driver that cannot run scripts, asking for both separately
+        return new WindowInfo(handle, driver.getTitle(), driver.getCurrentUrl());
+    }
+}
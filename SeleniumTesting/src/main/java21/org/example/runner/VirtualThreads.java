@@ -0,0 +1,17 @@
+package org.example.runner;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The virtual thread factory of {@link WorkerThreads}, only compiled by the java21 profile.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads(){
+    }
+
+
+    static ThreadFactory factory(String prefix){
+        return Thread.ofVirtual().name(prefix, 1).factory();
+    }
+}
@@ -0,0 +1,264 @@
+// Behaviour of the saucedemo.com pages used by the tests: login, session check, sorting and the cart.
+// Every path is answered with index.html and the view is picked from the path, like on the real site.
+// The session and the cart are kept like on the real site, in the session-username cookie and the
+// cart-contents local storage entry, so cached login states can be restored the same way.
+var SWAG = (function () {
+    var USERS = ["standard_user", "locked_out_user", "problem_user", "performance_glitch_user", "error_user", "visual_user"];
+    var PASSWORD = "secret_sauce";
+
+    var PRODUCTS = [
+        {id: 4, name: "Sauce Labs Backpack", price: 29.99,
+            desc: "carry.allTheThings() with the sleek, streamlined Sly Pack that melds uncompromising style with unequaled laptop and tablet protection."},
+        {id: 0, name: "Sauce Labs Bike Light", price: 9.99,
+            desc: "A red light isn't the desired state in testing but it sure helps when riding your bike at night. Water-resistant with 3 lighting modes, 1 AAA battery included."},
+        {id: 1, name: "Sauce Labs Bolt T-Shirt", price: 15.99,
+            desc: "Get your testing superhero on with the Sauce Labs bolt T-shirt. From American Apparel, 100% ringspun combed cotton, heather gray with red bolt."},
+        {id: 5, name: "Sauce Labs Fleece Jacket", price: 49.99,
+            desc: "It's not every day that you come across a midweight quarter-zip fleece jacket capable of handling everything from a relaxing day outdoors to a busy day at the office."},
+        {id: 2, name: "Sauce Labs Onesie", price: 7.99,
+            desc: "Rib snap infant onesie for the junior automation engineer in development. Reinforced 3-snap bottom closure, two-needle hemmed sleeved and bottom won't unravel."},
+        {id: 3, name: "Test.allTheThings() T-Shirt (Red)", price: 15.99,
+            desc: "This classic Sauce Labs t-shirt is perfect to wear when cozying up to your keyboard to automate a few tests. Super-soft and comfy ringspun combed cotton."}
+    ];
+
+    var SORTS = {
+        az: function (a, b) { return a.name < b.name ? -1 : a.name > b.name ? 1 : 0; },
+        za: function (a, b) { return a.name < b.name ? 1 : a.name > b.name ? -1 : 0; },
+        lohi: function (a, b) { return a.price - b.price; },
+        hilo: function (a, b) { return b.price - a.price; }
+    };
+
+    function user() {
+        var match = document.cookie.match(/(?:^|; )session-username=([^;]*)/);
+        return match ? decodeURIComponent(match[1]) : null;
+    }
+
+    function cart() {
+        try {
+            return JSON.parse(localStorage.getItem("cart-contents") || "[]");
+        } catch (e) {
+            return [];
+        }
+    }
+
+    function saveCart(ids) {
+        localStorage.setItem("cart-contents", JSON.stringify(ids));
+        var badge = document.querySelector(".shopping_cart_badge");
+        if (badge) {
+            badge.textContent = ids.length ? String(ids.length) : "";
+        }
+    }
+
+    function slug(name) {
+        return name.toLowerCase().replace(/[^a-z0-9]+/g, "-").replace(/-$/, "");
+    }
+
+    function element(html) {
+        var holder = document.createElement("div");
+        holder.innerHTML = html.trim();
+        return holder.firstChild;
+    }
+
+    function showError(message) {
+        var container = document.querySelector(".error-message-container");
+        container.className = "error-message-container error";
+        container.innerHTML = '<h3 data-test="error"><button class="error-button" data-test="error-button">'
+            + '<svg width="16" height="16" viewBox="0 0 16 16" aria-hidden="true"><path d="M3 3l10 10M13 3L3 13"'
+            + ' stroke="currentColor" stroke-width="2"/></svg></button>' + message + '</h3>';
+        container.querySelector("button").addEventListener("click", function (event) {
+            event.preventDefault();
+            hideError();
+        });
+        document.querySelectorAll(".form_input").forEach(function (input) {
+            input.className = "input_error form_input error";
+        });
+    }
+
+    function hideError() {
+        var container = document.querySelector(".error-message-container");
+        container.className = "error-message-container";
+        container.innerHTML = "";
+        document.querySelectorAll(".form_input").forEach(function (input) {
+            input.className = "input_error form_input";
+        });
+    }
+
+    var LOGIN_VIEW = '<div class="login_container"><div class="login_logo">Swag Labs</div><div class="login_wrapper">'
+        + '<div class="login_wrapper-inner"><div id="login_button_container" class="form_column"><div class="login-box"><form>'
+        + '<div class="form_group"><input class="input_error form_input" placeholder="Username" type="text" data-test="username"'
+        + ' id="user-name" name="user-name" autocorrect="off" autocapitalize="none" value=""></div>'
+        + '<div class="form_group"><input class="input_error form_input" placeholder="Password" type="password"'
+        + ' data-test="password" id="password" name="password" autocorrect="off" autocapitalize="none" value=""></div>'
+        + '<div class="error-message-container"></div>'
+        + '<input type="submit" class="submit-button btn_action" data-test="login-button" id="login-button"'
+        + ' name="login-button" value="Login">'
+        + '</form></div></div></div>'
+        + '<div class="login_credentials_wrap"><div class="login_credentials_wrap-inner">'
+        + '<div id="login_credentials" class="login_credentials" data-test="login-credentials"><h4>Accepted usernames are:</h4>'
+        + USERS.join('<br>') + '<br></div>'
+        + '<div class="login_password" data-test="login-password"><h4>Password for all users:</h4>' + PASSWORD + '</div>'
+        + '</div></div></div></div>';
+
+    function header(title, extra) {
+        return '<div class="header_container" id="header_container">'
+            + '<div class="bm-burger-button"><button id="react-burger-menu-btn" type="button">Open Menu</button></div>'
+            + '<div class="bm-menu-wrap" hidden><nav class="bm-item-list">'
+            + '<a id="inventory_sidebar_link" class="bm-item menu-item" href="/inventory.html">All Items</a>'
+            + '<a id="logout_sidebar_link" class="bm-item menu-item" href="#">Logout</a></nav></div>'
+            + '<div class="app_logo">Swag Labs</div>'
+            + '<div id="shopping_cart_container" class="shopping_cart_container"><a class="shopping_cart_link"'
+            + ' href="/cart.html"><span class="shopping_cart_badge"></span></a></div>'
+            + '<div class="header_secondary_container"><span class="title">' + title + '</span>' + extra + '</div></div>';
+    }
+
+    var SORT_SELECT = '<div class="right_component"><span class="select_container"><span class="active_option">Name (A to Z)</span>'
+        + '<select class="product_sort_container" data-test="product-sort-container">'
+        + '<option value="az">Name (A to Z)</option><option value="za">Name (Z to A)</option>'
+        + '<option value="lohi">Price (low to high)</option><option value="hilo">Price (high to low)</option>'
+        + '</select></span></div>';
+
+    function root() {
+        return document.getElementById("root");
+    }
+
+    // the real site is a single page application: the login swaps the view without loading a new page
+    function go(path) {
+        history.pushState(null, "", path);
+        route();
+    }
+
+    function login() {
+        root().innerHTML = LOGIN_VIEW;
+        var form = root().querySelector("form");
+        form.addEventListener("submit", function (event) {
+            event.preventDefault();
+            var username = document.getElementById("user-name").value;
+            var password = document.getElementById("password").value;
+            if (!username) {
+                showError("Epic sadface: Username is required");
+            } else if (!password) {
+                showError("Epic sadface: Password is required");
+            } else if (USERS.indexOf(username) < 0 || password !== PASSWORD) {
+                showError("Epic sadface: Username and password do not match any user in this service");
+            } else if (username === "locked_out_user") {
+                showError("Epic sadface: Sorry, this user has been locked out.");
+            } else {
+                document.cookie = "session-username=" + encodeURIComponent(username) + "; path=/; max-age=600";
+                go("/inventory.html");
+            }
+        });
+    }
+
+    function requireLogin() {
+        if (!user()) {
+            var path = window.location.pathname;
+            history.replaceState(null, "", "/");
+            login();
+            showError("Epic sadface: You can only access '" + path + "' when you are logged in.");
+            return false;
+        }
+        return true;
+    }
+
+    // the side menu of the header, logging out ends the session and goes back to the login form
+    function menu() {
+        var wrap = document.querySelector(".bm-menu-wrap");
+        document.getElementById("react-burger-menu-btn").addEventListener("click", function () {
+            wrap.hidden = false;
+        });
+        document.getElementById("logout_sidebar_link").addEventListener("click", function (event) {
+            event.preventDefault();
+            document.cookie = "session-username=; path=/; max-age=0";
+            go("/");
+        });
+    }
+
+    function itemHtml(product, pricebarClass, buttonText, buttonPrefix) {
+        return '<a href="#" id="item_' + product.id + '_title_link"><div class="inventory_item_name">' + product.name
+            + '</div></a><div class="inventory_item_desc">' + product.desc + '</div>'
+            + '<div class="' + pricebarClass + '"><div class="inventory_item_price">$<!-- -->' + product.price.toFixed(2)
+            + '</div><button class="btn btn_small" id="' + buttonPrefix + slug(product.name) + '" name="'
+            + buttonPrefix + slug(product.name) + '" data-id="' + product.id + '">' + buttonText + '</button></div>';
+    }
+
+    function renderInventory(order) {
+        var list = document.querySelector(".inventory_list");
+        var inCart = cart();
+        list.innerHTML = "";
+        PRODUCTS.slice().sort(SORTS[order]).forEach(function (product) {
+            var added = inCart.indexOf(product.id) >= 0;
+            list.appendChild(element('<div class="inventory_item"><div class="inventory_item_description">'
+                + '<div class="inventory_item_label">'
+                + itemHtml(product, "pricebar", added ? "Remove" : "Add to cart", added ? "remove-" : "add-to-cart-")
+                + '</div></div></div>'));
+        });
+        list.querySelectorAll("button").forEach(function (button) {
+            button.addEventListener("click", function () {
+                var id = Number(button.getAttribute("data-id"));
+                var ids = cart().filter(function (other) { return other !== id; });
+                if (button.textContent === "Add to cart") {
+                    ids.push(id);
+                }
+                saveCart(ids);
+                renderInventory(document.querySelector(".product_sort_container").value);
+            });
+        });
+    }
+
+    function inventory() {
+        if (!requireLogin()) {
+            return;
+        }
+        root().innerHTML = '<div id="page_wrapper" class="page_wrapper"><div id="contents_wrapper">'
+            + header("Products", SORT_SELECT)
+            + '<div id="inventory_container" class="inventory_container"><div class="inventory_list"></div></div>'
+            + '</div></div>';
+        menu();
+        var select = document.querySelector(".product_sort_container");
+        var active = document.querySelector(".active_option");
+        select.addEventListener("change", function () {
+            active.textContent = select.options[select.selectedIndex].text;
+            renderInventory(select.value);
+        });
+        saveCart(cart());
+        renderInventory(select.value);
+    }
+
+    function cartPage() {
+        if (!requireLogin()) {
+            return;
+        }
+        root().innerHTML = '<div id="page_wrapper" class="page_wrapper"><div id="contents_wrapper">'
+            + header("Your Cart", "")
+            + '<div id="cart_contents_container" class="cart_contents_container"><div class="cart_list">'
+            + '<div class="cart_quantity_label">QTY</div><div class="cart_desc_label">Description</div></div>'
+            + '<a id="continue-shopping" class="btn btn_secondary" href="/inventory.html">Continue Shopping</a>'
+            + '</div></div></div>';
+        menu();
+        var list = document.querySelector(".cart_list");
+        cart().forEach(function (id) {
+            var product = PRODUCTS.filter(function (candidate) { return candidate.id === id; })[0];
+            if (product) {
+                list.appendChild(element('<div class="cart_item"><div class="cart_quantity">1</div>'
+                    + '<div class="cart_item_label">' + itemHtml(product, "item_pricebar", "Remove", "remove-")
+                    + '</div></div>'));
+            }
+        });
+        saveCart(cart());
+    }
+
+    function route() {
+        var path = window.location.pathname;
+        if (path === "/inventory.html") {
+            inventory();
+        } else if (path === "/cart.html") {
+            cartPage();
+        } else {
+            login();
+        }
+    }
+
+    window.addEventListener("popstate", route);
+
+    return {route: route};
+})();
@@ -1,18 +1,27 @@
 import org.checkerframework.checker.units.qual.K;
+import org.example.driver.DriverHolder;
+import org.example.fixture.Site;
+import org.example.metrics.CommandMetricsRule;
+import org.example.trace.TracingRunner;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.interactions.Actions;
 
+@RunWith(TracingRunner.class)
 public class ActionsClass {
 
+    @Rule
+    public CommandMetricsRule commandMetrics = new CommandMetricsRule();
+
     // initializing a global driver
     WebDriver driver;
 
@@ -20,16 +29,15 @@ public class ActionsClass {
      * Setup method to initialize the WebDriver and open the web page before each test.
      *
      * This method is annotated with @Before, indicating that it will be executed before each test method.
-     * It initializes the WebDriver object for the Edge browser and navigates to the specified URL.
+     * It borrows a WebDriver object from the driver pool and navigates to the specified URL.
      * It makes a valid login to reach the inventory page
      */
     @Before
     public void setup(){
-        // creating a driver object
-        driver = new EdgeDriver();
+        driver = DriverHolder.get();
 
         // making a get request for a given url
-        driver.get("https://www.saucedemo.com");
+        driver.get(Site.SAUCEDEMO.baseUrl());
     }
 
 
@@ -74,16 +82,14 @@ public class ActionsClass {
 
 
     /**
-     * Teardown method to close the WebDriver after all tests have been executed.
+     * Teardown method to release the WebDriver after each test.
      *
      * This method is annotated with @After, indicating that it will be executed after each test method.
-     * It quits the WebDriver to release system resources.
+     * It returns the WebDriver to the pool, which resets it or quits it when it has to be recycled.
      */
     @After
-    public void tearDown() throws InterruptedException {
-        // wait 2 seconds
-        Thread.sleep(3000);
-        // quitting the WebDriver
-        driver.quit();
+    public void tearDown(){
+        // giving the WebDriver back to the pool, it gets reset for the next test
+        DriverHolder.release();
     }
 }
@@ -1,39 +1,58 @@
+import org.example.driver.DriverHolder;
+import org.example.fixture.Site;
+import org.example.metrics.CommandMetricsRule;
+import org.example.network.BlockResources;
+import org.example.network.ResourcePolicyRule;
+import org.example.page.InventoryPage;
+import org.example.page.LoginPage;
+import org.example.trace.TracingRunner;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import org.openqa.selenium.*;
-import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.support.ui.Select;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
+@BlockResources
+@RunWith(TracingRunner.class)
 public class Dropdowns {
+
+    @Rule
+    public ResourcePolicyRule resources = new ResourcePolicyRule();
+
+    @Rule
+    public CommandMetricsRule commandMetrics = new CommandMetricsRule();
+
     // initializing a global driver
     WebDriver driver;
+    // the inventory page the tests start from
+    InventoryPage inventory;
 
     /**
      * Setup method to initialize the WebDriver and open the web page before each test.
      *
      * This method is annotated with @Before, indicating that it will be executed before each test method.
-     * It initializes the WebDriver object for the Edge browser and navigates to the specified URL.
+     * It borrows a WebDriver object from the driver pool and navigates to the specified URL.
      * Adjust the screen to be in fullscreen mode.
      * It makes a valid login to reach the inventory page
      */
     @Before
     public void setup(){
-        // creating a driver object
-        driver = new EdgeDriver();
+        driver = DriverHolder.get();
 
         // making a get request for a given url
-        driver.get("https://www.saucedemo.com");
+        LoginPage loginPage = LoginPage.open(driver);
 
         // setting the fullscreen mode
         driver.manage().window().fullscreen();
 
-        login();
+        // the login form is only submitted by the first test, the following ones restore its state
+        inventory = loginPage.restoreOrLoginAs("standard_user", "secret_sauce");
     }
 
 
@@ -50,20 +69,11 @@ public class Dropdowns {
      */
     @Test
     public void testSortDropDownMenu(){
-        // Finding the dropdown element
-        WebElement productSortContainer = driver.findElement(By.xpath("//select[@class='product_sort_container']"));
-
-        // Create a Select object to interact with the dropdown
-        Select select = new Select(productSortContainer);
-
         // Selecting the second choice (Z to A)
-        select.selectByIndex(1);
-
-        // Finding the span that holds the active value
-        WebElement sortingChoice = driver.findElement(By.xpath("//span[@class='active_option']"));
+        inventory.sortByIndex(1);
 
-        // Getting the active value
-        String selectedValue = sortingChoice.getText();
+        // Getting the active value from the span that holds it
+        String selectedValue = inventory.getActiveSort();
         Assert.assertEquals(selectedValue, "Name (Z to A)");
     }
 
@@ -81,13 +91,11 @@ public class Dropdowns {
     @Test
     public void testMultipleSelection(){
         // Testing for multiple selection in the main website in the setup >> it shouldn't be multiple
-        // Finding the dropdown element
-        WebElement productSortContainer = driver.findElement(By.xpath("//select[@class='product_sort_container']"));
-        Select select1 = new Select(productSortContainer);
+        Select select1 = inventory.getSortSelect();
         Assert.assertFalse(select1.isMultiple());
 
         // Now testing for multiple selection in another website's dropdown menu
-        driver.navigate().to("https://only-testing-blog.blogspot.com/");
+        driver.navigate().to(Site.TESTING_BLOG.baseUrl());
 
         WebElement countryDropdown = driver.findElement(By.xpath("//select[@name='FromLB']"));
         Select select2 = new Select(countryDropdown);
@@ -115,28 +123,24 @@ public class Dropdowns {
      * verifies that the prices are sorted correctly.
      *
      * @throws NoSuchElementException if the product sorting dropdown element or any product item element is not found.
-     * @throws NumberFormatException if the price text of any product item cannot be parsed as a float.
+     * @throws NumberFormatException if the price text of any product item cannot be parsed as a number.
      * @throws AssertionError if the original prices do not match the sorted prices in descending order.
      */
     @Test
     public void testProductSortHilo(){
-        // Find the select element for product sorting
-        WebElement productSortContainer = driver.findElement(By.xpath("//select[@class='product_sort_container']"));
-
-        // Create a Select object to interact with the dropdown
-        Select select = new Select(productSortContainer);
         // Select the option to sort products from high to low price
-        select.selectByValue("hilo");
+        inventory.sortBy("hilo");
 
         // Get all the product prices
-        List<Float> originalPrices = getProductPrices(driver.findElements(By.className("inventory_item_price")));
+        double[] originalPrices = inventory.getPrices();
 
-        // Create a copy of the original list and sort it in descending order
-        List<Float> sortedPrices = new ArrayList<>(originalPrices);
-        Collections.sort(sortedPrices, Collections.reverseOrder());
+        // Create a copy of the original prices and sort it in descending order
+        double[] sortedPrices = originalPrices.clone();
+        Arrays.sort(sortedPrices);
+        reverse(sortedPrices);
 
         // Verify that the original prices match the sorted prices
-        Assert.assertEquals(originalPrices, sortedPrices);
+        Assert.assertArrayEquals(originalPrices, sortedPrices, 0);
     }
 
 
@@ -148,91 +152,50 @@ public class Dropdowns {
      * verifies that the prices are sorted correctly.
      *
      * @throws NoSuchElementException if the product sorting dropdown element or any product item element is not found.
-     * @throws NumberFormatException if the price text of any product item cannot be parsed as a float.
+     * @throws NumberFormatException if the price text of any product item cannot be parsed as a number.
      * @throws AssertionError if the original prices do not match the sorted prices in ascending order.
      */
     @Test
     public void testProductSortLiho(){
-        // Find the select element for product sorting
-        WebElement productSortContainer = driver.findElement(By.xpath("//select[@class='product_sort_container']"));
-
-        // Create a Select object to interact with the dropdown
-        Select select = new Select(productSortContainer);
         // Select the option to sort products from low to high price
-        select.selectByValue("lohi");
+        inventory.sortBy("lohi");
 
         // Get all the product prices
-        List<Float> originalPrices = getProductPrices(driver.findElements(By.className("inventory_item_price")));
+        double[] originalPrices = inventory.getPrices();
 
-        // Create a copy of the original list and sort it
-        List<Float> sortedPrices = new ArrayList<>(originalPrices);
-        Collections.sort(sortedPrices);
+        // Create a copy of the original prices and sort it
+        double[] sortedPrices = originalPrices.clone();
+        Arrays.sort(sortedPrices);
 
         // Verify that the original prices match the sorted prices
-        Assert.assertEquals(originalPrices, sortedPrices);
+        Assert.assertArrayEquals(originalPrices, sortedPrices, 0);
     }
 
 
     /**
-     * Teardown method to close the WebDriver after all tests have been executed.
+     * Teardown method to release the WebDriver after each test.
      *
      * This method is annotated with @After, indicating that it will be executed after each test method.
-     * It quits the WebDriver to release system resources.
+     * It returns the WebDriver to the pool, which resets it or quits it when it has to be recycled.
      */
     @After
     public void tearDown(){
-        // quitting the WebDriver
-        driver.quit();
+        // giving the WebDriver back to the pool, it gets reset for the next test
+        DriverHolder.release();
     }
 
 
     /**
-     * Helper method to extract and parse product prices from WebElement objects.
+     * Helper method to reverse an array of prices in place.
      *
-     * This method takes a list of WebElement objects representing product price elements,
-     * extracts the text content from each element, parses it as a float value after removing
-     * the dollar sign ('$'), and adds it to a list of float prices. It then returns the
-     * list of parsed prices.
-     *
-     * @param productPriceElements List of WebElement objects representing product price elements.
-     * @return List of float prices parsed from the text content of the product price elements.
-     * @throws NumberFormatException if the price text of any product item cannot be parsed as a float.
+     * @param prices the prices to reverse.
      */
-    private List<Float> getProductPrices(List<WebElement> productPriceElements) {
-        List<Float> prices = new ArrayList<>();
-        for (WebElement productPriceElement : productPriceElements) {
-            String textPrice = productPriceElement.getText().replace("$", "");
-            prices.add(Float.parseFloat(textPrice));
+    private void reverse(double[] prices) {
+        for (int i = 0, j = prices.length - 1; i < j; i++, j--) {
+            double price = prices[i];
+            prices[i] = prices[j];
+            prices[j] = price;
         }
-        return prices;
-    }
-
-
-    /**
-     * Helper method to perform login with valid credentials.
-     *
-     * This method finds the username and password input fields using Selenium WebDriver,
-     * clears any default values, inserts valid username and password, finds the login button,
-     * and submits the login form.
-     *
-     * @throws NoSuchElementException if any of the required elements (username field, password field, login button) are not found.
-     */
-    private void login(){
-        // getting the username input field
-        WebElement usernameField = driver.findElement(By.id("user-name"));
-        // clearing any default values
-        usernameField.clear();
-        // inserting the valid username
-        usernameField.sendKeys("standard_user");
-
-        // getting the password input field
-        WebElement passwordField = driver.findElement(By.id("password"));
-        passwordField.clear();
-        passwordField.sendKeys("secret_sauce");
-
-        // getting the login button and submitting the form
-        WebElement loginButton = driver.findElement(By.id("login-button"));
-        loginButton.submit();
     }
 
 }
@@ -1,71 +1,80 @@
+import org.example.alert.Alerts;
+import org.example.alert.Dialog;
+import org.example.driver.DriverHolder;
+import org.example.metrics.CommandMetricsRule;
+import org.example.page.AlertsPage;
+import org.example.trace.TracingRunner;
+import org.example.wait.WaitEngine;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
-import org.openqa.selenium.By;
+import org.junit.runner.RunWith;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.edge.EdgeDriver;
 
+@RunWith(TracingRunner.class)
 public class HandlingAlerts {
 
+    @Rule
+    public CommandMetricsRule commandMetrics = new CommandMetricsRule();
+
     // initializing a global driver
     WebDriver driver;
+    // waits that return as soon as their condition holds
+    WaitEngine waits;
+    // opens the dialogs and handles the unexpected ones
+    Alerts alerts;
+    // the page with the alert, prompt and confirmation links
+    AlertsPage alertsPage;
 
     /**
      * Setup method to initialize the WebDriver and open the web page before each test.
      *
      * This method is annotated with @Before, indicating that it will be executed before each test method.
-     * It initializes the WebDriver object for the Edge browser and navigates to the specified URL.
+     * It borrows a WebDriver object from the driver pool and navigates to the specified URL.
      * It makes a valid login to reach the inventory page
      */
     @Before
     public void setup(){
-        // creating a driver object
-        driver = new EdgeDriver();
+        driver = DriverHolder.get();
+        waits = new WaitEngine(driver, getClass().getSimpleName());
+        alerts = new Alerts(driver, waits.replacing(2000));
 
         // making a get request for a given url
-        driver.get("https://www.selenium.dev/selenium/web/alerts.html");
+        alertsPage = AlertsPage.open(driver, alerts);
     }
 
 
     @Test
-    public void handlingAlerts() throws InterruptedException {
+    public void handlingAlerts(){
         // Simple Alert — Used to display some information to user and only contains an ok button
 
-        //Finding the simple alert button
-        WebElement simpleAlertBtn = driver.findElement(By.xpath("//a[@id='alert']"));
-        WebElement promptAlertBtn = driver.findElement(By.xpath("//a[@id='prompt']"));
-        WebElement confirmationAlertBtn = driver.findElement(By.xpath("//a[@id='confirm']"));
-
-
-        simpleAlertBtn.click();
-        driver.switchTo().alert().accept();
-        Thread.sleep(2000);
+        // the links are only looked up when they are clicked, each one returns its dialog once it is open
+        // and accepting or dismissing returns once it is closed, there is nothing to sleep for
+        alertsPage.openAlert().accept();
 
-        promptAlertBtn.click();
-        driver.switchTo().alert().sendKeys("SALEH IS A HACKER!!");
-        Thread.sleep(2000);
-        driver.switchTo().alert().accept();
+        // one handle for the whole prompt instead of switching to it again
+        Dialog prompt = alertsPage.openPrompt();
+        prompt.sendKeys("SALEH IS A HACKER!!");
+        prompt.accept();
 
-        confirmationAlertBtn.click();
-        String alertText = driver.switchTo().alert().getText();
+        Dialog confirmation = alertsPage.openConfirm();
+        String alertText = confirmation.getText();
         System.out.println(alertText);
-        driver.switchTo().alert().dismiss();
-        Thread.sleep(2000);
+        confirmation.dismiss();
 
     }
 
     /**
-     * Teardown method to close the WebDriver after all tests have been executed.
+     * Teardown method to release the WebDriver after each test.
      *
      * This method is annotated with @After, indicating that it will be executed after each test method.
-     * It quits the WebDriver to release system resources.
+     * It returns the WebDriver to the pool, which resets it or quits it when it has to be recycled.
      */
     @After
-    public void tearDown() throws InterruptedException {
-        // wait 2 seconds
-        Thread.sleep(3000);
-        // quitting the WebDriver
-        driver.quit();
+    public void tearDown(){
+        alerts.close();
+        // giving the WebDriver back to the pool, it gets reset for the next test
+        DriverHolder.release();
     }
 }
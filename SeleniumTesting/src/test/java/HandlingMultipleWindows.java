@@ -1,85 +1,91 @@
+import org.example.driver.DriverHolder;
+import org.example.fixture.Site;
+import org.example.metrics.CommandMetricsRule;
+import org.example.trace.Span;
+import org.example.trace.Tracer;
+import org.example.trace.TracingRunner;
+import org.example.wait.WaitEngine;
+import org.example.window.TabLoader;
+import org.example.window.WindowInfo;
+import org.example.window.WindowManager;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
-import org.openqa.selenium.JavascriptExecutor;
+import org.junit.runner.RunWith;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.Select;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+@RunWith(TracingRunner.class)
 public class HandlingMultipleWindows {
+    @Rule
+    public CommandMetricsRule commandMetrics = new CommandMetricsRule();
+
     // initializing a global driver
     WebDriver driver;
+    // waits that return as soon as their condition holds
+    WaitEngine waits;
+    // tracks the open windows without asking the browser for their handles again
+    WindowManager windows;
+    // loads pages in several tabs at once
+    TabLoader tabs;
 
     /**
      * Setup method to initialize the WebDriver and open the web page before each test.
      *
      * This method is annotated with @Before, indicating that it will be executed before each test method.
-     * It initializes the WebDriver object for the Edge browser and navigates to the specified URL.
+     * It borrows a WebDriver object from the driver pool and navigates to the specified URL.
      * It makes a valid login to reach the inventory page
      */
     @Before
     public void setup(){
-        // creating a driver object
-        driver = new EdgeDriver();
+        driver = DriverHolder.get();
+        waits = new WaitEngine(driver, getClass().getSimpleName());
 
         // making a get request for a given url
-        driver.get("https://www.saucedemo.com");
+        driver.get(Site.SAUCEDEMO.baseUrl());
 
         driver.manage().window().maximize();
+        windows = new WindowManager(driver);
+        tabs = new TabLoader(windows, waits);
     }
 
     @Test
-    public void closingAllWindowsExceptMainWindow() throws InterruptedException {
+    public void closingAllWindowsExceptMainWindow(){
         openMultipleTaps();
-        // Getting the main window
-        String mainWindow = driver.getWindowHandle();
-        // Storing other windows in a set
-        Set<String> handles = driver.getWindowHandles();
-
-        for (String handle: handles){
-            if (! handle.equals(mainWindow)){
-                System.out.println(driver.switchTo().window(handle).getTitle());
-                // Switching the other window
-                driver.switchTo().window(handle);
-                // Closing it
-                driver.close();
-                Thread.sleep(1000);
-            }
+        // closing every window but the main one in a single pass, one switch and one script per window
+        for (WindowInfo closed : windows.closeAllExceptMain(true)){
+            System.out.println(closed.getTitle());
         }
-
     }
 
 
     /**
-     * Teardown method to close the WebDriver after all tests have been executed.
+     * Teardown method to release the WebDriver after each test.
      *
      * This method is annotated with @After, indicating that it will be executed after each test method.
-     * It quits the WebDriver to release system resources.
+     * It returns the WebDriver to the pool, which resets it or quits it when it has to be recycled.
      */
     @After
-    public void tearDown() throws InterruptedException {
-        // wait 2 seconds
-        Thread.sleep(3000);
-        // quitting the WebDriver
-        driver.quit();
+    public void tearDown(){
+        // giving the WebDriver back to the pool, it gets reset for the next test
+        DriverHolder.release();
     }
 
 
+    @SuppressWarnings("try")
     private void openMultipleTaps(){
-        for(int i =0; i<5; i++) ((JavascriptExecutor) driver).executeScript("window.open()");
-        // Switch to the newly opened tabs
-        ArrayList<String> tabs = new ArrayList<>(driver.getWindowHandles());
-        for (int i =0; i<5; i++) {
-            driver.switchTo().window(tabs.get(i)); // Assuming the new tab is the second tab
-            // Navigate to the desired website in the new tab
-            driver.get("https://google.com"); // Replace "https://example.com" with the desired URL
+        // a step of its own in the trace, the page loads of the tabs show up under it
+        try (Span ignored = Tracer.shared().span("openMultipleTaps", "step")){
+            // starting the five page loads before waiting for any of them
+            tabs.openAll(Collections.nCopies(5, Site.GOOGLE.baseUrl()), ReadinessState.COMPLETE);
         }
     }
 }
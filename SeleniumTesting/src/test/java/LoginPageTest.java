@@ -1,29 +1,50 @@
+import org.example.driver.DriverHolder;
+import org.example.metrics.CommandMetricsRule;
+import org.example.network.BlockResources;
+import org.example.network.ResourcePolicyRule;
+import org.example.page.InventoryPage;
+import org.example.page.LoginPage;
+import org.example.query.ElementQuery;
+import org.example.query.ElementSnapshot;
+import org.example.trace.TracingRunner;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import org.openqa.selenium.*;
-import org.openqa.selenium.edge.EdgeDriver;
 import org.testng.Assert;
 
+import java.util.List;
+
+@BlockResources
+@RunWith(TracingRunner.class)
 public class LoginPageTest {
 
+    @Rule
+    public ResourcePolicyRule resources = new ResourcePolicyRule();
+
+    @Rule
+    public CommandMetricsRule commandMetrics = new CommandMetricsRule();
+
     // initializing a global driver
     WebDriver driver;
+    // the page under test
+    LoginPage loginPage;
 
     /**
      * Setup method to initialize the WebDriver and open the web page before each test.
      *
      * This method is annotated with @Before, indicating that it will be executed before each test method.
-     * It initializes the WebDriver object for the Edge browser and navigates to the specified URL and also
+     * It borrows a WebDriver object from the driver pool and navigates to the specified URL and also
      * adjust the screen position.
      */
     @Before
     public void setup(){
-        // creating a driver object
-        driver = new EdgeDriver();
+        driver = DriverHolder.get();
 
         // making a get request for a given url
-        driver.get("https://www.saucedemo.com");
+        loginPage = LoginPage.open(driver);
 
         // setting the window size
         Dimension dimension = new Dimension(400, 600);
@@ -69,26 +90,35 @@ public class LoginPageTest {
     @Test
     public void testBasicLoginForm(){
         // checking the existence of the correct Attributes for the username and password input fields
-        WebElement usernameField = driver.findElement(By.id("user-name"));
-        WebElement passwordField = driver.findElement(By.id("password"));
+        WebElement usernameField = loginPage.getUsernameField();
+        WebElement passwordField = loginPage.getPasswordField();
+
+        WebElement loginButton = loginPage.getLoginButton();
+
+        // fetching the placeholders, types and visibility of the three elements in a single round-trip
+        List<ElementSnapshot> snapshots = ElementQuery.on(driver)
+                .attributes("placeholder", "type")
+                .displayed()
+                .fetchAll(usernameField, passwordField, loginButton);
+        ElementSnapshot username = snapshots.get(0);
+        ElementSnapshot password = snapshots.get(1);
 
         // checking the placeholders
-        String usernameFieldPlaceholder = usernameField.getAttribute("placeholder");
-        String passwordFieldPlaceholder = passwordField.getAttribute("placeholder");
+        String usernameFieldPlaceholder = username.attribute("placeholder");
+        String passwordFieldPlaceholder = password.attribute("placeholder");
         Assert.assertTrue(usernameFieldPlaceholder.equalsIgnoreCase("Username"));
         Assert.assertTrue(passwordFieldPlaceholder.equalsIgnoreCase("Password"));
 
 
         // checking the types
-        String usernameFieldType = usernameField.getAttribute("type");
-        String passwordFieldType = passwordField.getAttribute("type");
+        String usernameFieldType = username.attribute("type");
+        String passwordFieldType = password.attribute("type");
         Assert.assertEquals(usernameFieldType, "text");
         Assert.assertEquals(passwordFieldType, "password");
 
 
         // checking if the button is displayed
-        WebElement loginButton = driver.findElement(By.id("login-button"));
-        Assert.assertTrue(loginButton.isDisplayed());
+        Assert.assertTrue(snapshots.get(2).isDisplayed());
     }
 
 
@@ -104,14 +134,17 @@ public class LoginPageTest {
     @Test
     public void testLoginButtonCssAttributes(){
         // getting the login button
-        WebElement loginButton = driver.findElement(By.id("login-button"));
+        WebElement loginButton = loginPage.getLoginButton();
+
+        // fetching both CSS values in a single round-trip
+        ElementSnapshot button = ElementQuery.on(driver).css("background-color", "font-family").fetch(loginButton);
 
         // checking the background color
-        String color = loginButton.getCssValue("background-color");
+        String color = button.css("background-color");
         Assert.assertEquals(color, "rgba(61, 220, 145, 1)");
 
         // checking the text font
-        String font = loginButton.getCssValue("font-family");
+        String font = button.css("font-family");
         Assert.assertTrue(font.contains("sans-serif"));
     }
 
@@ -130,27 +163,32 @@ public class LoginPageTest {
     @Test
     public void testValidLogin(){
 
-        // getting the username input field
-        WebElement usernameField = driver.findElement(By.id("user-name"));
-        // clearing any default values
-        usernameField.clear();
-        // inserting the valid username
-        usernameField.sendKeys("standard_user");
-
-        // getting the password input field
-        WebElement passwordField = driver.findElement(By.id("password"));
-        passwordField.clear();
-        passwordField.sendKeys("secret_sauce");
-
-        // getting the login button and submitting the form
-        WebElement loginButton = driver.findElement(By.id("login-button"));
-        loginButton.submit();
+        // filling the form with valid credentials and submitting it
+        loginPage.loginAs("standard_user", "secret_sauce");
 
         // retrieving the current URL after successful login
         String currentURL = driver.getCurrentUrl();
         // asserting that the URL matches the expected URL
-        Assert.assertEquals("https://www.saucedemo.com/inventory.html", currentURL);
+        Assert.assertEquals(InventoryPage.url(), currentURL);
+
+    }
+
+
+    /**
+     * Test case to verify that a logged in user can log out.
+     *
+     * This test reaches the inventory page as a logged in user, logs out through the side menu and
+     * asserts that the login form is displayed again. Logging out also drops the cached login state of the user.
+     *
+     * @throws AssertionError if the login form is not displayed after logging out.
+     */
+    @Test
+    public void testLogout(){
+        // logging in, then out through the side menu
+        LoginPage afterLogout = loginPage.restoreOrLoginAs("standard_user", "secret_sauce").logout();
 
+        // asserting that the site went back to the login form
+        Assert.assertTrue(afterLogout.getLoginButton().isDisplayed());
     }
 
 
@@ -168,22 +206,8 @@ public class LoginPageTest {
      */
     @Test
     public void testInvalidLogin(){
-        // getting the username input field
-        WebElement usernameField = driver.findElement(By.id("user-name"));
-        // clearing any default values
-        usernameField.clear();
-        // inserting the valid username
-        usernameField.sendKeys("standard_user");
-
-        // getting the password input field
-        WebElement passwordField = driver.findElement(By.id("password"));
-        passwordField.clear();
-        // inserting the invalid password
-        passwordField.sendKeys("123");
-
-        // getting the login button and submitting the form
-        WebElement loginButton = driver.findElement(By.id("login-button"));
-        loginButton.submit();
+        // filling the form with the valid username and an invalid password and submitting it
+        loginPage.submit("standard_user", "123");
 
         // retrieving the page source to check for error message
         String pageSource = driver.getPageSource();
@@ -193,15 +217,15 @@ public class LoginPageTest {
 
 
     /**
-     * Teardown method to close the WebDriver after all tests have been executed.
+     * Teardown method to release the WebDriver after each test.
      *
      * This method is annotated with @After, indicating that it will be executed after each test method.
-     * It quits the WebDriver to release system resources.
+     * It returns the WebDriver to the pool, which resets it or quits it when it has to be recycled.
      */
     @After
     public void Teardown(){
-        // quitting the WebDriver
-        driver.quit();
+        // giving the WebDriver back to the pool, it gets reset for the next test
+        DriverHolder.release();
     }
 
 }
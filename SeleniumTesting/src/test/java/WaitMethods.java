@@ -1,12 +1,20 @@
+import org.example.driver.DriverHolder;
+import org.example.fixture.Site;
+import org.example.metrics.CommandMetricsRule;
+import org.example.trace.TracingRunner;
+import org.example.wait.AdaptiveFluentWait;
+import org.example.wait.AdaptiveWebDriverWait;
+import org.example.wait.BackoffPollingPolicy;
+import org.example.wait.LearnedPollingPolicy;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.Wait;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
@@ -15,8 +23,12 @@ import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+@RunWith(TracingRunner.class)
 public class WaitMethods {
 
+    @Rule
+    public CommandMetricsRule commandMetrics = new CommandMetricsRule();
+
     // initializing a global driver
     WebDriver driver;
 
@@ -24,16 +36,15 @@ public class WaitMethods {
      * Setup method to initialize the WebDriver and open the web page before each test.
      *
      * This method is annotated with @Before, indicating that it will be executed before each test method.
-     * It initializes the WebDriver object for the Edge browser and navigates to the specified URL.
+     * It borrows a WebDriver object from the driver pool and navigates to the specified URL.
      * It makes a valid login to reach the inventory page
      */
     @Before
     public void setup(){
-        // creating a driver object
-        driver = new EdgeDriver();
+        driver = DriverHolder.get();
 
         // making a get request for a given url
-        driver.get("https://www.saucedemo.com");
+        driver.get(Site.SAUCEDEMO.baseUrl());
     }
 
 
@@ -55,7 +66,8 @@ public class WaitMethods {
     public void tryExplicitWait(){
         // Explicit Wait - WebDriver will wait for a specific element on the page until the given condition is satisfied.
         Duration duration = Duration.ofSeconds(2);
-        WebDriverWait wait = new WebDriverWait(driver, duration);
+        // polling with an exponential backoff instead of the fixed default interval
+        WebDriverWait wait = new AdaptiveWebDriverWait(driver, duration, BackoffPollingPolicy.defaults(), "login-button clickable");
         wait.until(ExpectedConditions.elementToBeClickable(By.id("login-button"))).click();
         /*
         this code waits for a maximum of 3 seconds for the element with id "login-button" to become clickable.
@@ -67,21 +79,23 @@ public class WaitMethods {
     @Test
     public void tryFluentWait(){
         // Fluent Wait - It tells the WebDriver to wait for a condition, as well as the frequency with which to check the condition.
-        Wait<WebDriver> wait = new FluentWait<WebDriver>(driver)
+        // the polling frequency comes from a policy that learns how long this locator usually takes to be ready
+        By loginButton = By.id("login-button");
+        Wait<WebDriver> wait = new AdaptiveFluentWait<WebDriver>(driver, LearnedPollingPolicy.forKey(loginButton.toString()), loginButton.toString())
                 .withTimeout(Duration.ofSeconds(1))
-                .pollingEvery(Duration.ofMillis(30))
                 .ignoring(NoSuchElementException.class);
 
         WebElement element = wait.until(new Function<WebDriver, WebElement>() {
             @Override
             public WebElement apply(WebDriver webDriver) {
-                return driver.findElement(By.id("login-button"));
+                return driver.findElement(loginButton);
             }
         });
 
         /*
         This code snippet utilizes FluentWait in Selenium WebDriver to dynamically wait for an element's presence on a web page.
-        It sets a maximum wait time of 1 second, polls the DOM every 30 milliseconds, and ignores NoSuchElementExceptions during the wait.
+        It sets a maximum wait time of 1 second, polls the DOM at the pace of the learned policy (-Dwait.log=true prints its round-trips),
+        and ignores NoSuchElementExceptions during the wait.
         The wait continues until the specified condition, locating the element with id "login-button," is met.
         Once found, the WebElement is stored in the 'element' variable for further interaction in the test.
         */
@@ -97,17 +111,15 @@ public class WaitMethods {
 
 
     /**
-     * Teardown method to close the WebDriver after all tests have been executed.
+     * Teardown method to release the WebDriver after each test.
      *
      * This method is annotated with @After, indicating that it will be executed after each test method.
-     * It quits the WebDriver to release system resources.
+     * It returns the WebDriver to the pool, which resets it or quits it when it has to be recycled.
      */
     @After
-    public void tearDown() throws InterruptedException {
-        // wait 2 seconds
-        Thread.sleep(2000);
-        // quitting the WebDriver
-        driver.quit();
+    public void tearDown(){
+        // giving the WebDriver back to the pool, it gets reset for the next test
+        DriverHolder.release();
     }
 
 }
@@ -1,37 +1,51 @@
+import org.example.driver.DriverHolder;
+import org.example.fixture.Site;
+import org.example.metrics.CommandMetricsRule;
+import org.example.snapshot.DomSnapshot;
+import org.example.snapshot.SnapshotNode;
+import org.example.trace.TracingRunner;
+import org.example.wait.WaitEngine;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.edge.EdgeDriver;
 
 import javax.swing.*;
 
+@RunWith(TracingRunner.class)
 public class XpathAxes {
 
+    @Rule
+    public CommandMetricsRule commandMetrics = new CommandMetricsRule();
+
 
 
     // initializing a global driver
     WebDriver driver;
+    // waits that return as soon as their condition holds
+    WaitEngine waits;
 
     /**
      * Setup method to initialize the WebDriver and open the web page before each test.
      *
      * This method is annotated with @Before, indicating that it will be executed before each test method.
-     * It initializes the WebDriver object for the Edge browser and navigates to the specified URL.
+     * It borrows a WebDriver object from the driver pool and navigates to the specified URL.
      * Adjust the screen to be in fullscreen mode.
      * It makes a valid login to reach the inventory page
      */
     @Before
     public void setup(){
-        // creating a driver object
-        driver = new EdgeDriver();
+        driver = DriverHolder.get();
+        waits = new WaitEngine(driver, getClass().getSimpleName());
 
         // making a get request for a given url
-        driver.get("https://www.saucedemo.com");
+        driver.get(Site.SAUCEDEMO.baseUrl());
 
         // setting the fullscreen mode
         driver.manage().window().fullscreen();
@@ -46,7 +60,7 @@ public class XpathAxes {
         WebElement loginButton = driver.findElement(By.xpath("(//form//following::input)[2]"));
     }
     @Test
-    public void tryFollowingSibling() throws InterruptedException {
+    public void tryFollowingSibling(){
         // FollowingSibling - Selects all siblings after the current node
 
         // Making incorrect login
@@ -55,14 +69,12 @@ public class XpathAxes {
         // Getting the second sibling div to the form that carries the error message if the credentials aren't correct
         WebElement errorDiv = driver.findElement(By.xpath("(//form//following-sibling::div)[2]"));
 
-        Thread.sleep(1500);
-
-        // Then clicking the button in it
+        // Then clicking the button in it as soon as it can be clicked
         WebElement cancelErrorButton = errorDiv.findElement(By.tagName("button"));
-        cancelErrorButton.click();
+        waits.replacing(1500).untilClickable(cancelErrorButton).click();
     }
     @Test
-    public void tryPreceding() throws InterruptedException {
+    public void tryPreceding(){
         // Preceding - Selects all nodes that appear before current node
 
         // Making incorrect login
@@ -73,8 +85,7 @@ public class XpathAxes {
 
         // Then clicking the button in it
         WebElement cancelErrorButton = errorDiv.findElement(By.tagName("button"));
-        Thread.sleep(1500);
-        cancelErrorButton.click();
+        waits.replacing(1500).untilClickable(cancelErrorButton).click();
     }
     @Test
     public void tryChild(){
@@ -84,16 +95,20 @@ public class XpathAxes {
         driver.findElement(By.id("login-button")).submit();
 
 
-        // getting the child h3 that holds the error message
-        Assert.assertEquals(driver.findElement(By.xpath("(//form//child::h3)")).getText(), "Epic sadface: Username is required");
+        // getting the child h3 that holds the error message, from a copy of the page taken in one round-trip
+        DomSnapshot page = DomSnapshot.of(driver);
+        Assert.assertEquals(page.find(By.xpath("(//form//child::h3)")).getText(), "Epic sadface: Username is required");
 
     }
     @Test
     public void tryParent(){
         // Parent - Selects the parent of the current node
 
+        // Copying the page once, the lookup and the read below run on the copy without a round-trip
+        DomSnapshot page = DomSnapshot.of(driver);
+
         // Getting the div that contains the usernames by knowing that it contains an h4 with text 'Accepted usernames are:'
-        WebElement usernamesDiv = driver.findElement(By.xpath("//h4[text()='Accepted usernames are:']/parent::div"));
+        SnapshotNode usernamesDiv = page.find(By.xpath("//h4[text()='Accepted usernames are:']/parent::div"));
 
 
         // Getting the text immediately following the usernames div
@@ -106,8 +121,9 @@ public class XpathAxes {
     public void tryAncestor(){
         // Ancestor - Selects all ancestors (parent or grandparent) of the current node
 
-        // Getting the div of the form and verifying that the first ancestor for it is the div with class = 'login-box'
-        WebElement loginBoxDiv = driver.findElement(By.xpath("//div[@class='form_group']/ancestor::div[1]"));
+        // Getting the div of the form and verifying that the first ancestor for it is the div with class = 'login-box',
+        // on a copy of the page taken in one round-trip
+        SnapshotNode loginBoxDiv = DomSnapshot.of(driver).find(By.xpath("//div[@class='form_group']/ancestor::div[1]"));
 
         String divClass = loginBoxDiv.getAttribute("class");
         Assert.assertEquals(divClass, "login-box");
@@ -117,8 +133,9 @@ public class XpathAxes {
     public void tryDescendants(){
         // Descendants - Select all descendants (children or grandchildren) of the current node
 
-        // Getting the div of class='login-box' and verifying that the first descendant for it is the div with class = 'form_group'
-        WebElement formGroupDiv = driver.findElement(By.xpath("//div[@class='login-box']//descendant::div[1]"));
+        // Getting the div of class='login-box' and verifying that the first descendant for it is the div with class = 'form_group',
+        // on a copy of the page taken in one round-trip
+        SnapshotNode formGroupDiv = DomSnapshot.of(driver).find(By.xpath("//div[@class='login-box']//descendant::div[1]"));
 
         String divClass = formGroupDiv.getAttribute("class");
         Assert.assertEquals(divClass, "form_group");
@@ -127,16 +144,14 @@ public class XpathAxes {
 
 
     /**
-     * Teardown method to close the WebDriver after all tests have been executed.
+     * Teardown method to release the WebDriver after each test.
      *
      * This method is annotated with @After, indicating that it will be executed after each test method.
-     * It quits the WebDriver to release system resources.
+     * It returns the WebDriver to the pool, which resets it or quits it when it has to be recycled.
      */
     @After
-    public void tearDown() throws InterruptedException {
-        // wait 2 seconds
-        Thread.sleep(2000);
-        // quitting the WebDriver
-        driver.quit();
+    public void tearDown(){
+        // giving the WebDriver back to the pool, it gets reset for the next test
+        DriverHolder.release();
     }
 }
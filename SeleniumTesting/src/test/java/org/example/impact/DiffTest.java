@@ -0,0 +1,75 @@
+package org.example.impact;
+
+import org.junit.Test;
+import org.testng.Assert;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class DiffTest {
+
+    private static final List<String> OUTPUT = Arrays.asList(
+            "diff --git a/src/main/java/A.java b/src/main/java/A.java",
+            "index 1111111..2222222 100644",
+            "--- a/src/main/java/A.java",
+            "+++ b/src/main/java/A.java",
+            "@@ -10,0 +11,2 @@ public class A {",
+            "+    int x;",
+            "+@@ -1 +5 @@ is content, not a hunk",
+            "@@ -20 +22 @@ void run(){",
+            "-        a();",
+            "+        b();",
+            "@@ -30,3 +31,0 @@",
+            "-        c();",
+            "-        d();",
+            "-        e();",
+            "diff --git a/New.java b/New.java",
+            "new file mode 100644",
+            "@@ -0,0 +1,5 @@",
+            "diff --git a/Old.java b/Old.java",
+            "deleted file mode 100644",
+            "@@ -1,4 +0,0 @@",
+            "diff --git a/logo.png b/logo.png",
+            "Binary files a/logo.png and b/logo.png differ");
+
+
+    @Test
+    public void readsTheChangedFilesInOrder(){
+        Diff diff = Diff.parse(OUTPUT);
+        Assert.assertEquals(diff.getFiles().keySet().toArray(),
+                new Object[]{"src/main/java/A.java", "New.java", "Old.java", "logo.png"});
+        Assert.assertFalse(diff.isEmpty());
+        Assert.assertTrue(Diff.parse(Collections.emptyList()).isEmpty());
+    }
+
+
+    @Test
+    public void readsTheLineRangeOfEveryHunk(){
+        List<int[]> lines = Diff.parse(OUTPUT).getFiles().get("src/main/java/A.java").getLines();
+        Assert.assertEquals(lines.size(), 3);
+        // two added lines, then one changed line whose count is left out
+        Assert.assertEquals(lines.get(0), new int[]{11, 12});
+        Assert.assertEquals(lines.get(1), new int[]{22, 22});
+        // a pure deletion covers the lines around it
+        Assert.assertEquals(lines.get(2), new int[]{31, 32});
+    }
+
+
+    @Test
+    public void marksAddedAndDeletedFiles(){
+        Diff diff = Diff.parse(OUTPUT);
+        Diff.File added = diff.getFiles().get("New.java");
+        Assert.assertTrue(added.isAdded());
+        Assert.assertFalse(added.isDeleted());
+        Assert.assertEquals(added.getLines().get(0), new int[]{1, 5});
+
+        Diff.File deleted = diff.getFiles().get("Old.java");
+        Assert.assertTrue(deleted.isDeleted());
+        Assert.assertFalse(deleted.isAdded());
+
+        Diff.File binary = diff.getFiles().get("logo.png");
+        Assert.assertFalse(binary.isAdded() || binary.isDeleted());
+        Assert.assertTrue(binary.getLines().isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.impact;
+
+import org.junit.Test;
+import org.testng.Assert;
+
+import java.util.Arrays;
+
+public class JavaMethodsTest {
+
+    private static final JavaMethods METHODS = JavaMethods.of(Arrays.asList(
+            "package org.example;",                                  // 1
+            "",                                                      // 2
+            "public class LoginTest {",                              // 3
+            "",                                                      // 4
+            "    /**",                                               // 5
+            "     * Logs in { with a brace in the javadoc.",         // 6
+            "     */",                                               // 7
+            "    @Test(timeout = 1000)",                             // 8
+            "    public void login(){",                              // 9
+            "        if (valid){",                                   // 10
+            "            submit();",                                 // 11
+            "        }",                                             // 12
+            "    }",                                                 // 13
+            "",                                                      // 14
+            "    List<String> names() throws IOException {",         // 15
+            "        Runnable task = new Runnable(){",               // 16
+            "            public void run(){",                        // 17
+            "            }",                                         // 18
+            "        };",                                            // 19
+            "        String braces = \"}{\"; // }",                  // 20
+            "        return null;",                                  // 21
+            "    }",                                                 // 22
+            "}"));                                                   // 23
+
+
+    @Test
+    public void findsTheMethodOfABodyLine(){
+        Assert.assertEquals(METHODS.methodAt(9), "login");
+        Assert.assertEquals(METHODS.methodAt(13), "login");
+        Assert.assertEquals(METHODS.methodAt(21), "names");
+        Assert.assertEquals(METHODS.methodAt(22), "names");
+    }
+
+
+    @Test
+    public void givesTheCommentsAndAnnotationsAboveAMethodToIt(){
+        Assert.assertEquals(METHODS.methodAt(4), "login");
+        Assert.assertEquals(METHODS.methodAt(6), "login");
+        Assert.assertEquals(METHODS.methodAt(8), "login");
+        Assert.assertEquals(METHODS.methodAt(14), "names");
+    }
+
+
+    @Test
+    public void doesNotTakeStatementBlocksForMethods(){
+        // the if block and the anonymous class belong to their enclosing method
+        Assert.assertEquals(METHODS.methodAt(11), "login");
+        Assert.assertEquals(METHODS.methodAt(16), "names");
+        Assert.assertEquals(METHODS.methodAt(19), "names");
+    }
+
+
+    @Test
+    public void prefersTheInnermostMethod(){
+        Assert.assertEquals(METHODS.methodAt(17), "run");
+        Assert.assertEquals(METHODS.methodAt(18), "run");
+    }
+
+
+    @Test
+    public void ignoresBracesInStringsAndComments(){
+        Assert.assertEquals(METHODS.methodAt(20), "names");
+        Assert.assertNull(METHODS.methodAt(23));
+    }
+
+
+    @Test
+    public void findsNoMethodOutsideTheirBodies(){
+        Assert.assertNull(METHODS.methodAt(1));
+        Assert.assertNull(METHODS.methodAt(3));
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.locator;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.testng.Assert;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+
+public class LocatorProfilerTest {
+
+    @Test
+    public void timesTheLookupsMadeFromAnElement(){
+        LocatorProfiler profiler = new LocatorProfiler(50);
+        WebDriver driver = profiler.wrap(stubDriver(stubElement("button")));
+
+        WebElement error = driver.findElement(By.xpath("//div[@class='error']"));
+        WebElement button = error.findElement(By.tagName("button"));
+        List<WebElement> buttons = error.findElements(By.tagName("button"));
+
+        String report = profiler.render();
+        Assert.assertTrue(report.contains("By.xpath: //div[@class='error']\n"), report);
+        String scoped = report.lines().filter(line -> line.endsWith("By.tagName: button  (in an element)"))
+                .findFirst().orElseThrow(() -> new AssertionError(report));
+        Assert.assertTrue(scoped.trim().startsWith("2 "), scoped);
+        // the elements found from an element are wrapped in turn, and still unwrap to the original
+        Assert.assertTrue(button instanceof WrapsElement);
+        Assert.assertEquals(((WrapsElement) buttons.get(0)).getWrappedElement().getTagName(), "button");
+    }
+
+
+    @Test
+    public void neverRewritesTheLookupsMadeFromAnElement(){
+        LocatorProfiler profiler = new LocatorProfiler(50, true);
+        WebDriver driver = profiler.wrap(stubDriver(stubElement("a")));
+
+        driver.findElement(By.id("menu")).findElement(By.xpath("//a[@id='logout']"));
+
+        Assert.assertFalse(profiler.render().contains("By.cssSelector"), profiler.render());
+    }
+
+
+    private static WebDriver stubDriver(WebElement found){
+        return (WebDriver) Proxy.newProxyInstance(LocatorProfilerTest.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()){
+                        case "findElement":
+                            return stubElement("div", found);
+                        case "findElements":
+                            return Collections.singletonList(stubElement("div", found));
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+
+    private static WebElement stubElement(String tag){
+        return stubElement(tag, null);
+    }
+
+
+    private static WebElement stubElement(String tag, WebElement child){
+        return (WebElement) Proxy.newProxyInstance(LocatorProfilerTest.class.getClassLoader(), new Class<?>[]{WebElement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()){
+                        case "getTagName":
+                            return tag;
+                        case "findElement":
+                            return child;
+                        case "findElements":
+                            return Collections.singletonList(child);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.locator;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.testng.Assert;
+
+public class XPathToCssTest {
+
+    @Test
+    public void rewritesAttributeConditions(){
+        Assert.assertEquals(XPathToCss.toCss("//input[contains(@name, 'user')]"), "input[name*='user']");
+        Assert.assertEquals(XPathToCss.toCss("//button[starts-with(@class, 'error')]"), "button[class^='error']");
+        Assert.assertEquals(XPathToCss.toCss("//select[@name='FromLB']"), "select[name='FromLB']");
+        Assert.assertEquals(XPathToCss.toCss("//a[@title=\"it's\"]"), "a[title=\"it's\"]");
+    }
+
+
+    @Test
+    public void rewritesStepsAndJoinedConditions(){
+        Assert.assertEquals(XPathToCss.toCss("//div[@class='cart_item']//div/a"), "div[class='cart_item'] div > a");
+        Assert.assertEquals(XPathToCss.toCss("//input[@name='user-name' and @id='user']"), "input[name='user-name'][id='user']");
+        Assert.assertEquals(XPathToCss.toCss("//form//input[@name='pass' or @id='pass']"),
+                "form input[name='pass'], form input[id='pass']");
+    }
+
+
+    @Test
+    public void leavesTheFormsWithoutCssEquivalentAlone(){
+        Assert.assertNull(XPathToCss.toCss("(//form//following::input)[2]"));
+        Assert.assertNull(XPathToCss.toCss("//div[text()='29.99']"));
+        Assert.assertNull(XPathToCss.toCss("//div[@class='login-box']//descendant::div[1]"));
+        Assert.assertNull(XPathToCss.toCss(".//div[@class='name']"));
+        Assert.assertNull(XPathToCss.toCss("//input[@name='a' and @id='b' or @id='c']"));
+    }
+
+
+    @Test
+    public void rejectsEmptyValues(){
+        // contains(@a, '') holds for every element with the attribute, [a*=''] matches nothing
+        Assert.assertNull(XPathToCss.toCss("//input[contains(@name, '')]"));
+        Assert.assertNull(XPathToCss.toCss("//input[starts-with(@name, '')]"));
+        Assert.assertNull(XPathToCss.toCss("//input[@name='']"));
+    }
+
+
+    @Test
+    public void rejectsAttributesCssMatchesWithoutCase(){
+        Assert.assertNull(XPathToCss.toCss("//input[@type='submit']"));
+        Assert.assertNull(XPathToCss.toCss("//input[@name='user-name' and @type='text']"));
+        Assert.assertNull(XPathToCss.toCss("//form[@METHOD='post']"));
+    }
+
+
+    @Test
+    public void rewritesOnlyXPathLocators(){
+        Assert.assertEquals(XPathToCss.rewrite(By.xpath("//input[contains(@name, 'pass')]")),
+                By.cssSelector("input[name*='pass']"));
+        Assert.assertNull(XPathToCss.rewrite(By.id("user-name")));
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.metrics;
+
+import org.junit.Test;
+import org.testng.Assert;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void keepsSmallValuesExact(){
+        for (int value = 0; value < 32; value++){
+            Assert.assertEquals(LatencyHistogram.index(value), value);
+            Assert.assertEquals(LatencyHistogram.highestValue(value), value);
+        }
+    }
+
+
+    @Test
+    public void boundsTheRelativeErrorOfEveryBucket(){
+        int previous = -1;
+        for (long value = 0; value < (1L << 41); value = value < 100_000 ? value + 1 : value * 3 / 2 + 1){
+            int index = LatencyHistogram.index(value);
+            long highest = LatencyHistogram.highestValue(index);
+            Assert.assertTrue(index >= previous, "indexes grow with the values, " + value);
+            Assert.assertTrue(highest >= value, value + " is above its bucket " + highest);
+            Assert.assertTrue(highest - value <= value / 32, value + " is reported as " + highest);
+            previous = index;
+        }
+    }
+
+
+    @Test
+    public void joinsBucketsWithoutGaps(){
+        // the value after the highest of a bucket opens the next one
+        for (int index = 0; index < LatencyHistogram.index((1L << 41) - 1); index++){
+            Assert.assertEquals(LatencyHistogram.index(LatencyHistogram.highestValue(index)), index);
+            Assert.assertEquals(LatencyHistogram.index(LatencyHistogram.highestValue(index) + 1), index + 1);
+        }
+    }
+
+
+    @Test
+    public void readsPercentiles(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 100; micros++){
+            histogram.record(micros);
+        }
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.getMeanMicros(), 50.5, 1e-9);
+        Assert.assertEquals(histogram.percentile(50), 50);
+        // 99 shares its bucket with 98, the bucket reports its highest value
+        Assert.assertEquals(histogram.percentile(98), 99);
+        // never above the recorded maximum, though 100 shares its bucket with 101
+        Assert.assertEquals(histogram.percentile(100), 100);
+        Assert.assertEquals(new LatencyHistogram().percentile(99), 0);
+    }
+
+
+    @Test
+    public void clampsOutOfRangeValues(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(histogram.percentile(50), 0);
+        Assert.assertEquals(histogram.getMaxMicros(), (1L << 41) - 1);
+        Assert.assertEquals(histogram.percentile(100), (1L << 41) - 1);
+    }
+
+
+    @Test
+    public void addsAnotherHistogram(){
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(1_000);
+        second.record(3_000);
+        first.add(second);
+        Assert.assertEquals(first.getCount(), 3);
+        Assert.assertEquals(first.getSumMicros(), 4_010);
+        Assert.assertEquals(first.getMaxMicros(), 3_000);
+        Assert.assertEquals(first.percentile(10), 10);
+    }
+}
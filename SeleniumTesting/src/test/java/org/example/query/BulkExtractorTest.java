@@ -0,0 +1,41 @@
+package org.example.query;
+
+import org.junit.Test;
+import org.testng.Assert;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class BulkExtractorTest {
+
+    @Test
+    public void parsesOneNumberPerText(){
+        double[] numbers = BulkExtractor.parseNumbers(Arrays.asList("$29.99", "7", "-3.5", "$1,299.00"));
+        Assert.assertEquals(numbers, new double[]{29.99, 7, -3.5, 1299});
+    }
+
+
+    @Test
+    public void keepsOneValuePerElement(){
+        Assert.assertEquals(BulkExtractor.parseNumbers(Collections.singletonList("$9.99")).length, 1);
+        Assert.assertEquals(BulkExtractor.parseNumbers(Collections.emptyList()).length, 0);
+    }
+
+
+    @Test
+    public void rejectsATextWithoutNumber(){
+        NumberFormatException e = Assert.expectThrows(NumberFormatException.class,
+                () -> BulkExtractor.parseNumbers(Arrays.asList("$7.99", "Free")));
+        Assert.assertTrue(e.getMessage().contains("\"Free\""), e.getMessage());
+    }
+
+
+    @Test
+    public void rejectsATextWithSeveralNumbers(){
+        NumberFormatException e = Assert.expectThrows(NumberFormatException.class,
+                () -> BulkExtractor.parseNumbers(Collections.singletonList("29,99")));
+        Assert.assertTrue(e.getMessage().contains("\"29,99\""), e.getMessage());
+        Assert.expectThrows(NumberFormatException.class,
+                () -> BulkExtractor.parseNumbers(Collections.singletonList("Item 3 - $9.99")));
+    }
+}
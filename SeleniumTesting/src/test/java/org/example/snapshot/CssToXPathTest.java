@@ -0,0 +1,105 @@
+package org.example.snapshot;
+
+import org.junit.Test;
+import org.testng.Assert;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CssToXPathTest {
+
+    @Test
+    public void rewritesTypesClassesAndAttributes(){
+        Assert.assertEquals(CssToXPath.toXPath("div.login-box > input[type='text']"),
+                "descendant::div[contains(concat(' ', normalize-space(@class), ' '), ' login-box ')]/input[@type='text']");
+        Assert.assertEquals(CssToXPath.toXPath("INPUT[name*=user]"), "descendant::input[contains(@name, 'user')]");
+        Assert.assertEquals(CssToXPath.toXPath("[disabled]"), "descendant::*[@disabled]");
+    }
+
+
+    @Test
+    public void rewritesTheCombinators(){
+        Assert.assertEquals(CssToXPath.toXPath("form input"), "descendant::form/descendant::input");
+        Assert.assertEquals(CssToXPath.toXPath("h3 + button"), "descendant::h3/following-sibling::*[1]/self::button");
+        Assert.assertEquals(CssToXPath.toXPath("p ~ span"), "descendant::p/following-sibling::span");
+    }
+
+
+    @Test
+    public void rewritesSelectorListsAsUnions(){
+        Assert.assertEquals(CssToXPath.toXPath("#user-name, .error"),
+                "descendant::*[@id='user-name'] | descendant::*[contains(concat(' ', normalize-space(@class), ' '), ' error ')]");
+    }
+
+
+    @Test
+    public void rewritesThePositionalPseudoClasses(){
+        Assert.assertEquals(CssToXPath.toXPath("li:nth-child(2)"), "descendant::li[count(preceding-sibling::*) = 1]");
+        Assert.assertEquals(CssToXPath.toXPath("td:first-child"), "descendant::td[not(preceding-sibling::*)]");
+        Assert.assertEquals(CssToXPath.toXPath("td:last-child"), "descendant::td[not(following-sibling::*)]");
+    }
+
+
+    @Test
+    public void quotesLiteralsWithBothKindsOfQuotes(){
+        Assert.assertEquals(CssToXPath.literal("it's"), "\"it's\"");
+        Assert.assertEquals(CssToXPath.literal("say \"hi\""), "'say \"hi\"'");
+        Assert.assertEquals(CssToXPath.literal("it's \"hi\""), "concat('it', \"'\", 's \"hi\"')");
+    }
+
+
+    @Test
+    public void selectsTheSameElementsAsTheAttributeOperators() throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new InputSource(new StringReader(
+                "<body>"
+                        + "<a id='1' lang='en' class='nav  link' href='http://x/a.pdf'/>"
+                        + "<a id='2' lang='en-GB' class='navlink' href='https://x/a.pdf.html'/>"
+                        + "<a id='3' lang='english' class='link' href='/http.pdf'/>"
+                        + "</body>")));
+
+        Assert.assertEquals(ids(document, "a[lang|=en]"), "12");
+        Assert.assertEquals(ids(document, "a[class~=link]"), "13");
+        Assert.assertEquals(ids(document, "a.link"), "13");
+        Assert.assertEquals(ids(document, "a[href^=http]"), "12");
+        Assert.assertEquals(ids(document, "a[href$='.pdf']"), "13");
+        Assert.assertEquals(ids(document, "a[href*='pdf']"), "123");
+        Assert.assertEquals(ids(document, "a:nth-child(2), a:last-child"), "23");
+    }
+
+
+    @Test
+    public void rejectsWhatItDoesNotSupport(){
+        for (String css : new String[]{"a:hover", "a::before", "li:nth-child(odd)", "div >", "a[href", "a[href!='x']", ""}){
+            Assert.expectThrows(IllegalArgumentException.class, () -> CssToXPath.toXPath(css));
+        }
+    }
+
+
+    @Test
+    public void rejectsEmptyValuesThatMatchNothingInCss(){
+        for (String css : new String[]{"a[href^='']", "a[href$='']", "a[href*='']", "a[class~='']"}){
+            Assert.expectThrows(IllegalArgumentException.class, () -> CssToXPath.toXPath(css));
+        }
+        // an empty value still compares exactly with = and |=
+        Assert.assertEquals(CssToXPath.toXPath("a[href='']"), "descendant::a[@href='']");
+    }
+
+
+    private static String ids(Document document, String css) throws Exception {
+        NodeList nodes = (NodeList) XPathFactory.newInstance().newXPath()
+                .evaluate(CssToXPath.toXPath(css), document.getDocumentElement(), XPathConstants.NODESET);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++){
+            ids.add(((Element) nodes.item(i)).getAttribute("id"));
+        }
+        return String.join("", ids);
+    }
+}